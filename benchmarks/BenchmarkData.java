@@ -0,0 +1,64 @@
+package com.example.nepaltourism.benchmarks;
+
+import com.example.nepaltourism.tools.DataGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generated data sets for the benchmarks, one directory per size, made on first use and kept
+ * between runs: the generator is seeded, so a kept data set is exactly the one that would be
+ * made again.
+ */
+final class BenchmarkData {
+
+    /** Where the data sets are kept; override with {@code -Dnepaltourism.benchDir=...}. */
+    static final String DIR_PROPERTY = "nepaltourism.benchDir";
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param bookings The data set's size, in bookings.
+     * @return The directory holding its CSV files.
+     */
+    static synchronized Path dataSet(int bookings) throws IOException {
+        Path root = Paths.get(System.getProperty(DIR_PROPERTY,
+                Paths.get(System.getProperty("java.io.tmpdir"), "nepaltourism-bench").toString()));
+        Path dir = root.resolve(bookings + "-" + DataGenerator.DEFAULT_SEED);
+        Path marker = dir.resolve(COMPLETE_MARKER);
+        if (!Files.exists(marker)) {
+            new DataGenerator(DataGenerator.DEFAULT_SEED, bookings, DataGenerator.DEFAULT_AS_OF).generate(dir);
+            Files.createFile(marker);
+        }
+        return dir;
+    }
+
+    /**
+     * @return An empty scratch directory for save benchmarks to write into.
+     */
+    static Path scratchDir() throws IOException {
+        return Files.createTempDirectory("nepaltourism-bench-save");
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            // Deepest first, so each directory is empty by the time it is deleted
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
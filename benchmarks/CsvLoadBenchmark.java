@@ -0,0 +1,111 @@
+package com.example.nepaltourism.benchmarks;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.models.EmergencyReport;
+import com.example.nepaltourism.models.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * How fast {@link CSVDataManager} reads each data file, on generated data sets of several sizes.
+ * <p>
+ * Throughput mode gives loads per millisecond, sample mode the latency distribution including
+ * p99; run with {@code -prof gc} for allocation (see {@link RowCounter}). The last two
+ * benchmarks read bookings.csv other ways, so a change to the loader can be judged against
+ * the cost of just reading the lines and against parsing them on every core.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CsvLoadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private CSVDataManager dataManager;
+    private Path bookingsFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dir = BenchmarkData.dataSet(bookings);
+        dataManager = new CSVDataManager(dir);
+        bookingsFile = dir.resolve(CSVDataManager.BOOKINGS_FILE_NAME);
+    }
+
+    @Benchmark
+    public List<User> loadUsers(RowCounter counter) {
+        List<User> users = dataManager.loadUsers();
+        counter.rows += users.size();
+        return users;
+    }
+
+    @Benchmark
+    public List<Attraction> loadAttractions(RowCounter counter) {
+        List<Attraction> attractions = dataManager.loadAttractions();
+        counter.rows += attractions.size();
+        return attractions;
+    }
+
+    @Benchmark
+    public List<Booking> loadBookings(RowCounter counter) {
+        List<Booking> loaded = dataManager.loadBookings();
+        counter.rows += loaded.size();
+        return loaded;
+    }
+
+    @Benchmark
+    public List<EmergencyReport> loadEmergencyReports(RowCounter counter) {
+        List<EmergencyReport> reports = dataManager.loadEmergencyReports();
+        counter.rows += reports.size();
+        return reports;
+    }
+
+    // --- Other ways to read bookings.csv, for comparison with loadBookings ---
+
+    /**
+     * The floor for any loader: reading the lines without parsing them.
+     */
+    @Benchmark
+    public long readBookingLinesOnly(RowCounter counter) throws IOException {
+        long lines = 0;
+        long chars = 0;
+        try (BufferedReader reader = Files.newBufferedReader(bookingsFile, StandardCharsets.UTF_8)) {
+            reader.readLine(); // Header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                chars += line.length();
+            }
+        }
+        counter.rows += lines;
+        return chars;
+    }
+
+    /**
+     * The bulk importer's way: read every line, then parse them on every core.
+     */
+    @Benchmark
+    public List<Booking> loadBookingsParallel(RowCounter counter) throws IOException {
+        List<String> lines = Files.readAllLines(bookingsFile, StandardCharsets.UTF_8);
+        List<Booking> loaded = lines.subList(1, lines.size()).parallelStream()
+                .map(line -> dataManager.parseBooking(dataManager.parseCSVLine(line), false))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        counter.rows += loaded.size();
+        return loaded;
+    }
+}
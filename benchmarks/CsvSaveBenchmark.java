@@ -0,0 +1,77 @@
+package com.example.nepaltourism.benchmarks;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.models.EmergencyReport;
+import com.example.nepaltourism.models.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How fast {@link CSVDataManager} writes each data file, on generated data sets of several
+ * sizes. The rows are loaded once up front and saved, atomically as the app does, into a
+ * scratch directory over and over.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CsvSaveBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private List<User> users;
+    private List<Attraction> attractions;
+    private List<Booking> bookingRows;
+    private List<EmergencyReport> reports;
+    private Path scratchDir;
+    private CSVDataManager target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CSVDataManager source = new CSVDataManager(BenchmarkData.dataSet(bookings));
+        users = source.loadUsers();
+        attractions = source.loadAttractions();
+        bookingRows = source.loadBookings();
+        reports = source.loadEmergencyReports();
+        scratchDir = BenchmarkData.scratchDir();
+        target = new CSVDataManager(scratchDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteRecursively(scratchDir);
+    }
+
+    @Benchmark
+    public void saveUsers(RowCounter counter) {
+        target.saveUsers(users);
+        counter.rows += users.size();
+    }
+
+    @Benchmark
+    public void saveAttractions(RowCounter counter) {
+        target.saveAttractions(attractions);
+        counter.rows += attractions.size();
+    }
+
+    @Benchmark
+    public void saveBookings(RowCounter counter) {
+        target.saveBookings(bookingRows);
+        counter.rows += bookingRows.size();
+    }
+
+    @Benchmark
+    public void saveEmergencyReports(RowCounter counter) {
+        target.saveEmergencyReports(reports);
+        counter.rows += reports.size();
+    }
+}
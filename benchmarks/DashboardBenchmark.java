@@ -0,0 +1,162 @@
+package com.example.nepaltourism.benchmarks;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.services.AttractionSearch;
+import com.example.nepaltourism.services.BookingRollup;
+import com.example.nepaltourism.services.DashboardCharts;
+import com.example.nepaltourism.utils.ChartRange;
+import com.example.nepaltourism.utils.Downsampling;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The dashboards' aggregation and search work, without JavaFX: building each dashboard's
+ * {@link BookingRollup} from every booking (what the first load of a tab does), keeping one up
+ * to date with a single change, turning it into chart series, and the attraction search run
+ * on each keystroke.
+ * <p>
+ * The 10M booking data set needs about 12 GB of heap.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    // Points a dashboard-sized chart has room for
+    private static final int CHART_POINTS = 100;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int bookings;
+
+    private List<Booking> bookingRows;
+    private List<Attraction> attractions;
+    private Function<String, Optional<Attraction>> attractionLookup;
+    private String busiestGuideId;
+    private String busiestTouristId;
+    private BookingRollup adminRollup;
+    private BookingRollup touristRollup;
+    private Booking changed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CSVDataManager dataManager = new CSVDataManager(BenchmarkData.dataSet(bookings));
+        bookingRows = dataManager.loadBookings();
+        attractions = dataManager.loadAttractions();
+        Map<String, Attraction> byId = new HashMap<>();
+        for (Attraction attraction : attractions) {
+            byId.put(attraction.getId(), attraction);
+        }
+        attractionLookup = id -> Optional.ofNullable(byId.get(id));
+
+        // The dashboards with the most to show are the slowest ones
+        Map<String, Integer> guideCounts = new HashMap<>();
+        Map<String, Integer> touristCounts = new HashMap<>();
+        for (Booking booking : bookingRows) {
+            if (booking.getGuideId() != null) guideCounts.merge(booking.getGuideId(), 1, Integer::sum);
+            touristCounts.merge(booking.getTouristId(), 1, Integer::sum);
+        }
+        busiestGuideId = Collections.max(guideCounts.entrySet(), Map.Entry.comparingByValue()).getKey();
+        busiestTouristId = Collections.max(touristCounts.entrySet(), Map.Entry.comparingByValue()).getKey();
+
+        adminRollup = new BookingRollup(b -> true);
+        adminRollup.rebuild(bookingRows);
+        touristRollup = new BookingRollup(b -> busiestTouristId.equals(b.getTouristId()));
+        touristRollup.rebuild(bookingRows);
+
+        // A copy, so flipping its status never touches the shared rows
+        Booking original = bookingRows.get(bookingRows.size() / 2);
+        changed = new Booking(original.getId(), original.getTouristId(), original.getGuideId(),
+                original.getAttractionId(), original.getTourDate(), original.getNumberOfPeople(),
+                original.getSpecialRequests(), original.getStatus(), original.getTotalPrice(),
+                original.getDiscountApplied());
+    }
+
+    // --- Rollups, as each dashboard builds them on first load ---
+
+    @Benchmark
+    public BookingRollup adminRollup() {
+        BookingRollup rollup = new BookingRollup(b -> true);
+        rollup.rebuild(bookingRows);
+        return rollup;
+    }
+
+    @Benchmark
+    public BookingRollup guideRollup() {
+        BookingRollup rollup = new BookingRollup(b -> busiestGuideId.equals(b.getGuideId()));
+        rollup.rebuild(bookingRows);
+        return rollup;
+    }
+
+    @Benchmark
+    public BookingRollup touristRollup() {
+        BookingRollup rollup = new BookingRollup(b -> busiestTouristId.equals(b.getTouristId()));
+        rollup.rebuild(bookingRows);
+        return rollup;
+    }
+
+    /**
+     * One booking's status changing, as a change event applies it.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean adminRollupApplyChange() {
+        changed.setStatus("Completed".equals(changed.getStatus()) ? "Cancelled" : "Completed");
+        return adminRollup.apply(changed);
+    }
+
+    // --- Chart series ---
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object[] adminCharts() {
+        return new Object[]{
+                BookingRollup.monthlySeries(adminRollup.getRevenueByMonth(), ChartRange.ALL, Downsampling.LTTB,
+                        CHART_POINTS, Locale.ENGLISH),
+                DashboardCharts.topAttractions(adminRollup, 10, attractionLookup),
+                DashboardCharts.bookingsByRegion(adminRollup, attractionLookup)};
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object[] touristCharts() {
+        return new Object[]{
+                BookingRollup.monthlySeries(touristRollup.getRevenueByMonth(), ChartRange.ALL, Downsampling.LTTB,
+                        CHART_POINTS, Locale.ENGLISH),
+                DashboardCharts.revenueByCategory(touristRollup, attractionLookup)};
+    }
+
+    /**
+     * Twenty years of monthly revenue thinned to a chart's width, as a long custom range draws.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, Number> adminRevenueTwentyYears() {
+        YearMonth now = YearMonth.now();
+        return BookingRollup.monthlySeries(adminRollup.getRevenueByMonth(), ChartRange.between(now.minusYears(20), now),
+                Downsampling.LTTB, CHART_POINTS, Locale.ENGLISH);
+    }
+
+    // --- Attraction search ---
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Attraction> searchText() {
+        return new AttractionSearch("namche", null, null).filter(attractions);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Attraction> searchTextRegionCategory() {
+        return new AttractionSearch("Trek", "Everest Region", "Trek").filter(attractions);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.nepaltourism.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the rows a benchmark read or wrote, reported by JMH next to the score as "rows".
+ * Dividing {@code gc.alloc.rate.norm} (bytes per operation, from {@code -prof gc}) by rows per
+ * operation gives the bytes allocated per row, which is comparable across data set sizes.
+ */
+@AuxCounters(AuxCounters.Type.EVENTS)
+@State(Scope.Thread)
+public class RowCounter {
+
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        rows = 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.nepaltourism.benchmarks;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.diagnostics.StartupTimer;
+import com.example.nepaltourism.server.TourismServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures startup, JVM launch included, by starting the app in a fresh JVM again and again
+ * against a generated data set and collecting the {@link StartupTimer} phases of each run.
+ * Not a JMH benchmark: JMH runs inside an already started JVM.
+ * <p>
+ * By default the app starts headless (the HTTP API, on a free port) and each run ends when the
+ * API is ready; {@code --ui} starts the desktop app instead and ends each run when the login
+ * screen is painted (this needs a display and JavaFX on the class path).
+ * <pre>
+ * java -cp benchmarks.jar com.example.nepaltourism.benchmarks.StartupBenchmark [--runs=10] [--bookings=100000] [--ui] [-- jvm args...]
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final Pattern ENTRY = Pattern.compile("(\\w+)([@=])(\\d+)");
+    private static final long RUN_TIMEOUT_SECONDS = 300;
+
+    public static void main(String[] args) throws Exception {
+        int runs = 10;
+        int bookings = 100_000;
+        boolean ui = false;
+        List<String> jvmArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--bookings=")) {
+                bookings = Integer.parseInt(arg.substring("--bookings=".length()).replace("_", ""));
+            } else if (arg.equals("--ui")) {
+                ui = true;
+            } else if (arg.equals("--")) {
+                jvmArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            }
+        }
+
+        Path dataDir = BenchmarkData.dataSet(bookings);
+        String exitAt = ui ? StartupTimer.LOGIN_SCREEN : StartupTimer.API_READY;
+        System.out.println("Startup of the " + (ui ? "desktop app" : "headless API") + " with " + bookings
+                + " bookings, " + runs + " runs, until " + exitAt);
+
+        // Phase name to its times across runs, in the order the phases first appeared
+        Map<String, List<Long>> times = new LinkedHashMap<>();
+        for (int run = 1; run <= runs; run++) {
+            Map<String, Long> phases = runOnce(dataDir, exitAt, ui, jvmArgs);
+            System.out.println("run " + run + ": " + phases);
+            phases.forEach((phase, ms) -> times.computeIfAbsent(phase, k -> new ArrayList<>()).add(ms));
+        }
+
+        System.out.printf("%n%-18s %8s %8s %8s %8s%n", "phase (ms)", "min", "median", "p90", "max");
+        times.forEach((phase, values) -> {
+            Collections.sort(values);
+            System.out.printf("%-18s %8d %8d %8d %8d%n", phase, values.get(0), percentile(values, 50),
+                    percentile(values, 90), values.get(values.size() - 1));
+        });
+    }
+
+    /**
+     * @return Each phase's time from this run's summary line: ms since launch for milestones
+     *         (e.g. "loginScreen@"), ms taken for timed phases.
+     */
+    private static Map<String, Long> runOnce(Path dataDir, String exitAt, boolean ui, List<String> jvmArgs)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-D" + CSVDataManager.DATA_DIR_PROPERTY + "=" + dataDir);
+        command.add("-D" + StartupTimer.EXIT_AT_PROPERTY + "=" + exitAt);
+        if (ui) {
+            // By name, so this JVM never needs JavaFX
+            command.add("com.example.nepaltourism.Main");
+        } else {
+            // What "Main --headless" runs, without loading the JavaFX Application class
+            command.add(TourismServer.class.getName());
+            command.add("--port=0");
+        }
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        String summary = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+                int at = line.indexOf("Startup: ");
+                if (at >= 0) {
+                    summary = line.substring(at + "Startup: ".length()); // The last one is the fullest
+                }
+            }
+        }
+        if (!process.waitFor(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("The app did not reach " + exitAt + " within " + RUN_TIMEOUT_SECONDS + " s");
+        }
+        if (summary == null || !summary.contains(exitAt + "@")) {
+            output.forEach(System.err::println);
+            throw new IllegalStateException("The app exited without reaching " + exitAt);
+        }
+
+        Map<String, Long> phases = new LinkedHashMap<>();
+        Matcher matcher = ENTRY.matcher(summary);
+        while (matcher.find()) {
+            phases.put(matcher.group(1) + ("@".equals(matcher.group(2)) ? "@" : ""), Long.parseLong(matcher.group(3)));
+        }
+        return phases;
+    }
+
+    private static long percentile(List<Long> sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+}
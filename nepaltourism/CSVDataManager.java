@@ -1,10 +1,14 @@
 package com.example.nepaltourism;
 
+import com.example.nepaltourism.diagnostics.Metrics;
+import com.example.nepaltourism.diagnostics.PersistenceEvent;
 import com.example.nepaltourism.models.*;
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -18,30 +22,61 @@ import java.util.logging.Level;
  */
 public class CSVDataManager {
     private static final Logger logger = Logger.getLogger(CSVDataManager.class.getName());
-    private static final String DATA_DIR = "data";
-    private static final String USERS_FILE = DATA_DIR + File.separator + "users.csv";
-    private static final String ATTRACTIONS_FILE = DATA_DIR + File.separator + "attractions.csv";
-    private static final String BOOKINGS_FILE = DATA_DIR + File.separator + "bookings.csv";
-    private static final String EMERGENCY_REPORTS_FILE = DATA_DIR + File.separator + "emergency_reports.csv";
-
-    private static final String USER_HEADER = "id,name,email,phone,passwordHash,userType,tourArea,experience,languages,emergencyContact";
-    private static final String ATTRACTION_HEADER = "id,name,region,category,difficulty,durationDays,priceUSD,description,active,rating,altitudeMeters";
-    private static final String BOOKING_HEADER = "id,touristId,guideId,attractionId,tourDate,numberOfPeople,specialRequests,status,totalPrice,discountApplied";
-    private static final String EMERGENCY_REPORT_HEADER = "id,reporterId,reporterType,location,emergencyType,priority,description,contactNumber,timestamp,status";
+    /** System property naming the data directory, e.g. {@code -Dnepaltourism.dataDir=/tmp/bench}. */
+    public static final String DATA_DIR_PROPERTY = "nepaltourism.dataDir";
+    private static final String DEFAULT_DATA_DIR = "data";
+    public static final String USERS_FILE_NAME = "users.csv";
+    public static final String ATTRACTIONS_FILE_NAME = "attractions.csv";
+    public static final String BOOKINGS_FILE_NAME = "bookings.csv";
+    public static final String EMERGENCY_REPORTS_FILE_NAME = "emergency_reports.csv";
+
+    public static final String USER_HEADER = "id,name,email,phone,passwordHash,userType,tourArea,experience,languages,emergencyContact";
+    public static final String ATTRACTION_HEADER = "id,name,region,category,difficulty,durationDays,priceUSD,description,active,rating,altitudeMeters";
+    public static final String BOOKING_HEADER = "id,touristId,guideId,attractionId,tourDate,numberOfPeople,specialRequests,status,totalPrice,discountApplied";
+    public static final String EMERGENCY_REPORT_HEADER = "id,reporterId,reporterType,location,emergencyType,priority,description,contactNumber,timestamp,status,linkedReporters,linkedReports";
+    // Files written before duplicate reports were merged have no linkedReporters column
+    private static final String LEGACY_EMERGENCY_REPORT_HEADER = "id,reporterId,reporterType,location,emergencyType,priority,description,contactNumber,timestamp,status";
+    // Files written before the duplicates' contact numbers and descriptions were kept
+    private static final String LINKED_REPORTERS_EMERGENCY_REPORT_HEADER = LEGACY_EMERGENCY_REPORT_HEADER + ",linkedReporters";
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private final Path dataDir;
+    private final Path usersFile;
+    private final Path attractionsFile;
+    private final Path bookingsFile;
+    private final Path emergencyReportsFile;
+
+    /**
+     * Uses the directory named by the {@value #DATA_DIR_PROPERTY} system property, or "data"
+     * in the working directory.
+     */
     public CSVDataManager() {
+        this(Paths.get(System.getProperty(DATA_DIR_PROPERTY, DEFAULT_DATA_DIR)));
+    }
+
+    /**
+     * @param dataDir The directory holding the CSV files; created if missing.
+     */
+    public CSVDataManager(Path dataDir) {
+        this.dataDir = dataDir;
+        this.usersFile = dataDir.resolve(USERS_FILE_NAME);
+        this.attractionsFile = dataDir.resolve(ATTRACTIONS_FILE_NAME);
+        this.bookingsFile = dataDir.resolve(BOOKINGS_FILE_NAME);
+        this.emergencyReportsFile = dataDir.resolve(EMERGENCY_REPORTS_FILE_NAME);
         initializeDataDirectory();
     }
 
+    public Path getDataDir() {
+        return dataDir;
+    }
+
     private void initializeDataDirectory() {
         try {
-            Path path = Paths.get(DATA_DIR);
-            if (!Files.exists(path)) {
-                Files.createDirectories(path);
-                logger.info("Created data directory: " + DATA_DIR);
+            if (!Files.exists(dataDir)) {
+                Files.createDirectories(dataDir);
+                logger.info("Created data directory: " + dataDir);
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to create data directory", e);
@@ -51,12 +86,14 @@ public class CSVDataManager {
     // --- User Data Management ---
     public List<User> loadUsers() {
         List<User> users = new ArrayList<>();
-        File file = new File(USERS_FILE);
+        File file = usersFile.toFile();
         if (!file.exists()) {
             logger.info("Users file not found, returning empty list.");
             return users;
         }
 
+        PersistenceEvent event = PersistenceEvent.start(PersistenceEvent.LOAD, usersFile);
+        Metrics.Timer timer = Metrics.time("csv.load.users");
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine(); // Skip header
             if (line == null || !line.equals(USER_HEADER)) {
@@ -69,74 +106,85 @@ public class CSVDataManager {
             }
 
             while ((line = br.readLine()) != null) {
-                String[] parts = parseCSVLine(line);
-                if (parts.length < 6) continue; // Skip malformed lines
-
-                String id = parts[0];
-                String name = parts[1];
-                String email = parts[2];
-                String phone = parts[3];
-                String passwordHash = parts[4];
-                String userType = parts[5];
-
-                User user = null;
-                switch (userType) {
-                    case "Tourist":
-                        String emergencyContact = parts.length > 9 ? parts[9] : "";
-                        user = new Tourist(id, name, email, phone, passwordHash, emergencyContact);
-                        break;
-                    case "Guide":
-                        String tourArea = parts.length > 6 ? parts[6] : "";
-                        int experience = 0;
-                        try {
-                            experience = Integer.parseInt(parts.length > 7 ? parts[7] : "0");
-                        } catch (NumberFormatException ignored) {
-                        }
-                        String languages = parts.length > 8 ? parts[8] : "";
-                        user = new Guide(id, name, email, phone, passwordHash, tourArea, experience, languages);
-                        break;
-                    case "Admin":
-                        user = new Admin(id, name, email, phone, passwordHash);
-                        break;
-                }
+                User user = parseUser(parseCSVLine(line), false);
                 if (user != null) {
                     users.add(user);
                 }
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error loading users from CSV", e);
+        } finally {
+            timer.close();
+            event.end(users.size());
         }
         return users;
     }
 
-    public void saveUsers(List<User> users) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(USERS_FILE))) {
-            pw.println(USER_HEADER);
-            for (User user : users) {
-                StringBuilder sb = new StringBuilder();
-                sb.append(escapeCSV(user.getId())).append(",")
-                        .append(escapeCSV(user.getName())).append(",")
-                        .append(escapeCSV(user.getEmail())).append(",")
-                        .append(escapeCSV(user.getPhone())).append(",")
-                        .append(escapeCSV(user.getPassword())).append(",") // Assumes password is already hashed
-                        .append(escapeCSV(user.getUserType())).append(",");
-
-                if (user instanceof Guide) {
-                    Guide guide = (Guide) user;
-                    sb.append(escapeCSV(guide.getTourArea())).append(",")
-                            .append(guide.getExperience()).append(",")
-                            .append(escapeCSV(guide.getLanguages())).append(",");
-                } else {
-                    sb.append(",,,").append(","); // Empty fields for Tourist/Admin for tourArea, experience, languages
-                }
+    /**
+     * Reads one row of users.csv.
+     * @param parts The row's fields.
+     * @param strict True to reject fields that cannot be read (e.g. for imports) instead of
+     *               defaulting them the way loading does.
+     * @return The user, or null if the row is malformed and not strict.
+     * @throws IllegalArgumentException If strict and the row is malformed; the message says why.
+     */
+    public User parseUser(String[] parts, boolean strict) {
+        if (parts.length < 6) { // Skip malformed lines
+            return reject(strict, "expected at least 6 columns, found " + parts.length);
+        }
+        String id = parts[0];
+        String name = parts[1];
+        String email = parts[2];
+        String phone = parts[3];
+        String passwordHash = parts[4];
+        String userType = parts[5];
+
+        switch (userType) {
+            case "Tourist":
+                String emergencyContact = parts.length > 9 ? parts[9] : "";
+                return new Tourist(id, name, email, phone, passwordHash, emergencyContact);
+            case "Guide":
+                String tourArea = parts.length > 6 ? parts[6] : "";
+                int experience = parseInt(parts.length > 7 && !parts[7].isEmpty() ? parts[7] : "0", "experience", strict);
+                String languages = parts.length > 8 ? parts[8] : "";
+                return new Guide(id, name, email, phone, passwordHash, tourArea, experience, languages);
+            case "Admin":
+                return new Admin(id, name, email, phone, passwordHash);
+            default:
+                return reject(strict, "unknown userType '" + userType + "'");
+        }
+    }
 
-                if (user instanceof Tourist) {
-                    sb.append(escapeCSV(((Tourist) user).getEmergencyContact()));
-                } else {
-                    sb.append(""); // Empty field for Guide/Admin
+    public void saveUsers(List<User> users) {
+        try {
+            writeAtomically(usersFile, "csv.save.users", users.size(), pw -> {
+                pw.println(USER_HEADER);
+                for (User user : users) {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append(escapeCSV(user.getId())).append(",")
+                            .append(escapeCSV(user.getName())).append(",")
+                            .append(escapeCSV(user.getEmail())).append(",")
+                            .append(escapeCSV(user.getPhone())).append(",")
+                            .append(escapeCSV(user.getPassword())).append(",") // Assumes password is already hashed
+                            .append(escapeCSV(user.getUserType())).append(",");
+
+                    if (user instanceof Guide) {
+                        Guide guide = (Guide) user;
+                        sb.append(escapeCSV(guide.getTourArea())).append(",")
+                                .append(guide.getExperience()).append(",")
+                                .append(escapeCSV(guide.getLanguages())).append(",");
+                    } else {
+                        sb.append(",,,"); // Empty fields for Tourist/Admin for tourArea, experience, languages
+                    }
+
+                    if (user instanceof Tourist) {
+                        sb.append(escapeCSV(((Tourist) user).getEmergencyContact()));
+                    } else {
+                        sb.append(""); // Empty field for Guide/Admin
+                    }
+                    pw.println(sb.toString());
                 }
-                pw.println(sb.toString());
-            }
+            });
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error saving users to CSV", e);
         }
@@ -145,12 +193,14 @@ public class CSVDataManager {
     // --- Attraction Data Management ---
     public List<Attraction> loadAttractions() {
         List<Attraction> attractions = new ArrayList<>();
-        File file = new File(ATTRACTIONS_FILE);
+        File file = attractionsFile.toFile();
         if (!file.exists()) {
             logger.info("Attractions file not found, returning empty list.");
             return attractions;
         }
 
+        PersistenceEvent event = PersistenceEvent.start(PersistenceEvent.LOAD, attractionsFile);
+        Metrics.Timer timer = Metrics.time("csv.load.attractions");
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine(); // Skip header
             if (line == null || !line.equals(ATTRACTION_HEADER)) {
@@ -162,56 +212,68 @@ public class CSVDataManager {
             }
 
             while ((line = br.readLine()) != null) {
-                String[] parts = parseCSVLine(line);
-                if (parts.length < 11) continue;
-
-                Attraction attraction = new Attraction();
-                attraction.setId(parts[0]);
-                attraction.setName(parts[1]);
-                attraction.setRegion(parts[2]);
-                attraction.setCategory(parts[3]);
-                attraction.setDifficulty(parts[4]);
-                try {
-                    attraction.setDurationDays(Integer.parseInt(parts[5]));
-                } catch (NumberFormatException e) { /* log or handle */ }
-                try {
-                    attraction.setPriceUSD(Double.parseDouble(parts[6]));
-                } catch (NumberFormatException e) { /* log or handle */ }
-                attraction.setDescription(parts[7]);
-                attraction.setActive("true".equalsIgnoreCase(parts[8]));
-                try {
-                    attraction.setRating(Double.parseDouble(parts[9]));
-                } catch (NumberFormatException e) { /* log or handle */ }
-                try {
-                    attraction.setAltitudeMeters(Integer.parseInt(parts[10]));
-                } catch (NumberFormatException e) { /* log or handle */ }
-
-                attractions.add(attraction);
+                Attraction attraction = parseAttraction(parseCSVLine(line), false);
+                if (attraction != null) {
+                    attractions.add(attraction);
+                }
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error loading attractions from CSV", e);
+        } finally {
+            timer.close();
+            event.end(attractions.size());
         }
         return attractions;
     }
 
+    /**
+     * Reads one row of attractions.csv.
+     * @param strict True to reject fields that cannot be read instead of leaving them at 0.
+     * @return The attraction, or null if the row is malformed and not strict.
+     * @throws IllegalArgumentException If strict and the row is malformed; the message says why.
+     */
+    public Attraction parseAttraction(String[] parts, boolean strict) {
+        if (parts.length < 11) {
+            return reject(strict, "expected 11 columns, found " + parts.length);
+        }
+        Attraction attraction = new Attraction();
+        attraction.setId(parts[0]);
+        attraction.setName(parts[1]);
+        attraction.setRegion(parts[2]);
+        attraction.setCategory(parts[3]);
+        attraction.setDifficulty(parts[4]);
+        attraction.setDurationDays(parseInt(parts[5], "durationDays", strict));
+        attraction.setPriceUSD(parseDouble(parts[6], "priceUSD", strict));
+        attraction.setDescription(parts[7]);
+        if (strict && !"true".equalsIgnoreCase(parts[8]) && !"false".equalsIgnoreCase(parts[8])) {
+            throw new IllegalArgumentException("active must be true or false, found '" + parts[8] + "'");
+        }
+        attraction.setActive("true".equalsIgnoreCase(parts[8]));
+        attraction.setRating(parseDouble(parts[9], "rating", strict));
+        attraction.setAltitudeMeters(parseInt(parts[10], "altitudeMeters", strict));
+        return attraction;
+    }
+
     public void saveAttractions(List<Attraction> attractions) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(ATTRACTIONS_FILE))) {
-            pw.println(ATTRACTION_HEADER);
-            for (Attraction attraction : attractions) {
-                pw.printf("%s,%s,%s,%s,%s,%d,%.2f,%s,%s,%.2f,%d%n",
-                        escapeCSV(attraction.getId()),
-                        escapeCSV(attraction.getName()),
-                        escapeCSV(attraction.getRegion()),
-                        escapeCSV(attraction.getCategory()),
-                        escapeCSV(attraction.getDifficulty()),
-                        attraction.getDurationDays(),
-                        attraction.getPriceUSD(),
-                        escapeCSV(attraction.getDescription()),
-                        attraction.isActive(),
-                        attraction.getRating(),
-                        attraction.getAltitudeMeters()
-                );
-            }
+        try {
+            writeAtomically(attractionsFile, "csv.save.attractions", attractions.size(), pw -> {
+                pw.println(ATTRACTION_HEADER);
+                for (Attraction attraction : attractions) {
+                    pw.printf("%s,%s,%s,%s,%s,%d,%.2f,%s,%s,%.2f,%d%n",
+                            escapeCSV(attraction.getId()),
+                            escapeCSV(attraction.getName()),
+                            escapeCSV(attraction.getRegion()),
+                            escapeCSV(attraction.getCategory()),
+                            escapeCSV(attraction.getDifficulty()),
+                            attraction.getDurationDays(),
+                            attraction.getPriceUSD(),
+                            escapeCSV(attraction.getDescription()),
+                            attraction.isActive(),
+                            attraction.getRating(),
+                            attraction.getAltitudeMeters()
+                    );
+                }
+            });
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error saving attractions to CSV", e);
         }
@@ -220,12 +282,14 @@ public class CSVDataManager {
     // --- Booking Data Management ---
     public List<Booking> loadBookings() {
         List<Booking> bookings = new ArrayList<>();
-        File file = new File(BOOKINGS_FILE);
+        File file = bookingsFile.toFile();
         if (!file.exists()) {
             logger.info("Bookings file not found, returning empty list.");
             return bookings;
         }
 
+        PersistenceEvent event = PersistenceEvent.start(PersistenceEvent.LOAD, bookingsFile);
+        Metrics.Timer timer = Metrics.time("csv.load.bookings");
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine(); // Skip header
             if (line == null || !line.equals(BOOKING_HEADER)) {
@@ -237,52 +301,69 @@ public class CSVDataManager {
             }
 
             while ((line = br.readLine()) != null) {
-                String[] parts = parseCSVLine(line);
-                if (parts.length < 10) continue;
-
-                Booking booking = new Booking();
-                booking.setId(parts[0]);
-                booking.setTouristId(parts[1]);
-                booking.setGuideId(parts[2].isEmpty() ? null : parts[2]); // Handle null guide ID
-                booking.setAttractionId(parts[3]);
-                try {
-                    booking.setTourDate(LocalDate.parse(parts[4], DATE_FORMATTER));
-                } catch (Exception e) { /* log or handle */ }
-                try {
-                    booking.setNumberOfPeople(Integer.parseInt(parts[5]));
-                } catch (NumberFormatException e) { /* log or handle */ }
-                booking.setSpecialRequests(parts[6]);
-                booking.setStatus(parts[7]);
-                try {
-                    booking.setTotalPrice(Double.parseDouble(parts[8]));
-                } catch (NumberFormatException e) { /* log or handle */ }
-                booking.setDiscountApplied(parts[9]);
-
-                bookings.add(booking);
+                Booking booking = parseBooking(parseCSVLine(line), false);
+                if (booking != null) {
+                    bookings.add(booking);
+                }
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error loading bookings from CSV", e);
+        } finally {
+            timer.close();
+            event.end(bookings.size());
         }
         return bookings;
     }
 
-    public void saveBookings(List<Booking> bookings) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(BOOKINGS_FILE))) {
-            pw.println(BOOKING_HEADER);
-            for (Booking booking : bookings) {
-                pw.printf("%s,%s,%s,%s,%s,%d,%s,%s,%.2f,%s%n",
-                        escapeCSV(booking.getId()),
-                        escapeCSV(booking.getTouristId()),
-                        escapeCSV(booking.getGuideId() != null ? booking.getGuideId() : ""),
-                        escapeCSV(booking.getAttractionId()),
-                        booking.getTourDate() != null ? booking.getTourDate().format(DATE_FORMATTER) : "",
-                        booking.getNumberOfPeople(),
-                        escapeCSV(booking.getSpecialRequests()),
-                        escapeCSV(booking.getStatus()),
-                        booking.getTotalPrice(),
-                        escapeCSV(booking.getDiscountApplied())
-                );
+    /**
+     * Reads one row of bookings.csv.
+     * @param strict True to reject fields that cannot be read instead of leaving them empty.
+     * @return The booking, or null if the row is malformed and not strict.
+     * @throws IllegalArgumentException If strict and the row is malformed; the message says why.
+     */
+    public Booking parseBooking(String[] parts, boolean strict) {
+        if (parts.length < 10) {
+            return reject(strict, "expected 10 columns, found " + parts.length);
+        }
+        Booking booking = new Booking();
+        booking.setId(parts[0]);
+        booking.setTouristId(parts[1]);
+        booking.setGuideId(parts[2].isEmpty() ? null : parts[2]); // Handle null guide ID
+        booking.setAttractionId(parts[3]);
+        try {
+            booking.setTourDate(LocalDate.parse(parts[4], DATE_FORMATTER));
+        } catch (Exception e) {
+            if (strict) {
+                throw new IllegalArgumentException("tourDate is not a yyyy-MM-dd date: '" + parts[4] + "'");
             }
+        }
+        booking.setNumberOfPeople(parseInt(parts[5], "numberOfPeople", strict));
+        booking.setSpecialRequests(parts[6]);
+        booking.setStatus(parts[7]);
+        booking.setTotalPrice(parseDouble(parts[8], "totalPrice", strict));
+        booking.setDiscountApplied(parts[9]);
+        return booking;
+    }
+
+    public void saveBookings(List<Booking> bookings) {
+        try {
+            writeAtomically(bookingsFile, "csv.save.bookings", bookings.size(), pw -> {
+                pw.println(BOOKING_HEADER);
+                for (Booking booking : bookings) {
+                    pw.printf("%s,%s,%s,%s,%s,%d,%s,%s,%.2f,%s%n",
+                            escapeCSV(booking.getId()),
+                            escapeCSV(booking.getTouristId()),
+                            escapeCSV(booking.getGuideId() != null ? booking.getGuideId() : ""),
+                            escapeCSV(booking.getAttractionId()),
+                            booking.getTourDate() != null ? booking.getTourDate().format(DATE_FORMATTER) : "",
+                            booking.getNumberOfPeople(),
+                            escapeCSV(booking.getSpecialRequests()),
+                            escapeCSV(booking.getStatus()),
+                            booking.getTotalPrice(),
+                            escapeCSV(booking.getDiscountApplied())
+                    );
+                }
+            });
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error saving bookings to CSV", e);
         }
@@ -291,15 +372,18 @@ public class CSVDataManager {
     // --- Emergency Report Data Management ---
     public List<EmergencyReport> loadEmergencyReports() {
         List<EmergencyReport> reports = new ArrayList<>();
-        File file = new File(EMERGENCY_REPORTS_FILE);
+        File file = emergencyReportsFile.toFile();
         if (!file.exists()) {
             logger.info("Emergency reports file not found, returning empty list.");
             return reports;
         }
 
+        PersistenceEvent event = PersistenceEvent.start(PersistenceEvent.LOAD, emergencyReportsFile);
+        Metrics.Timer timer = Metrics.time("csv.load.emergencyReports");
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine(); // Skip header
-            if (line == null || !line.equals(EMERGENCY_REPORT_HEADER)) {
+            if (line == null || !(line.equals(EMERGENCY_REPORT_HEADER) || line.equals(LINKED_REPORTERS_EMERGENCY_REPORT_HEADER)
+                    || line.equals(LEGACY_EMERGENCY_REPORT_HEADER))) {
                 logger.warning("Emergency reports file header mismatch or empty file.");
                 if (line == null) {
                     saveEmergencyReports(new ArrayList<>());
@@ -324,38 +408,88 @@ public class CSVDataManager {
                     report.setTimestamp(LocalDateTime.parse(parts[8], DATETIME_FORMATTER));
                 } catch (Exception e) { /* log or handle */ }
                 report.setStatus(parts[9]);
+                if (parts.length > 10 && !parts[10].isEmpty()) {
+                    report.setLinkedReporterIds(new ArrayList<>(Arrays.asList(parts[10].split(";"))));
+                }
+                if (parts.length > 11 && !parts[11].isEmpty()) {
+                    report.setLinkedReports(parseLinkedReports(parts[11]));
+                }
 
                 reports.add(report);
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error loading emergency reports from CSV", e);
+        } finally {
+            timer.close();
+            event.end(reports.size());
         }
         return reports;
     }
 
     public void saveEmergencyReports(List<EmergencyReport> reports) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(EMERGENCY_REPORTS_FILE))) {
-            pw.println(EMERGENCY_REPORT_HEADER);
-            for (EmergencyReport report : reports) {
-                pw.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                        escapeCSV(report.getId()),
-                        escapeCSV(report.getReporterId()),
-                        escapeCSV(report.getReporterType()),
-                        escapeCSV(report.getLocation()),
-                        escapeCSV(report.getEmergencyType()),
-                        escapeCSV(report.getPriority()),
-                        escapeCSV(report.getDescription()),
-                        escapeCSV(report.getContactNumber()),
-                        report.getTimestamp() != null ? report.getTimestamp().format(DATETIME_FORMATTER) : "",
-                        escapeCSV(report.getStatus())
-                );
-            }
+        try {
+            writeAtomically(emergencyReportsFile, "csv.save.emergencyReports", reports.size(), pw -> {
+                pw.println(EMERGENCY_REPORT_HEADER);
+                for (EmergencyReport report : reports) {
+                    pw.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
+                            escapeCSV(report.getId()),
+                            escapeCSV(report.getReporterId()),
+                            escapeCSV(report.getReporterType()),
+                            escapeCSV(report.getLocation()),
+                            escapeCSV(report.getEmergencyType()),
+                            escapeCSV(report.getPriority()),
+                            escapeCSV(report.getDescription()),
+                            escapeCSV(report.getContactNumber()),
+                            report.getTimestamp() != null ? report.getTimestamp().format(DATETIME_FORMATTER) : "",
+                            escapeCSV(report.getStatus()),
+                            escapeCSV(String.join(";", report.getLinkedReporterIds())),
+                            escapeCSV(formatLinkedReports(report.getLinkedReports()))
+                    );
+                }
+            });
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error saving emergency reports to CSV", e);
         }
     }
 
     // --- Helper Methods ---
+
+    /**
+     * Writes a data file through a temporary sibling and then swaps it into place,
+     * so readers never see a half-written CSV and a failed save leaves the old file intact.
+     * @param target The target data file.
+     * @param metric The histogram to time the save into.
+     * @param rowCount How many rows are written, for the flight recorder.
+     * @param rows Callback that writes the header and rows.
+     * @throws IOException if the file cannot be written or moved.
+     */
+    private void writeAtomically(Path target, String metric, int rowCount, RowWriter rows) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        PersistenceEvent event = PersistenceEvent.start(PersistenceEvent.SAVE, target);
+        Metrics.Timer timer = Metrics.time(metric);
+        try {
+            try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(temp.toFile())))) {
+                rows.write(pw);
+                if (pw.checkError()) {
+                    throw new IOException("Error writing " + temp);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            timer.close();
+            event.end(rowCount);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PrintWriter pw);
+    }
+
     private String escapeCSV(String field) {
         if (field == null) return "";
         // Escape double quotes and wrap in quotes if contains comma, quote, or newline
@@ -365,8 +499,81 @@ public class CSVDataManager {
         return field;
     }
 
+    /**
+     * Linked reports as one field: reports separated by ';', each as
+     * reporterId|contactNumber|timestamp|description, with '%', '|', ';' and line breaks in the
+     * values percent-encoded so free text cannot break the structure (or the line-based reader).
+     */
+    private static String formatLinkedReports(List<LinkedReport> linkedReports) {
+        StringBuilder sb = new StringBuilder();
+        for (LinkedReport linked : linkedReports) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(encodeLinkedValue(linked.getReporterId())).append('|')
+                    .append(encodeLinkedValue(linked.getContactNumber())).append('|')
+                    .append(linked.getTimestamp() != null ? linked.getTimestamp().format(DATETIME_FORMATTER) : "").append('|')
+                    .append(encodeLinkedValue(linked.getDescription()));
+        }
+        return sb.toString();
+    }
+
+    private static List<LinkedReport> parseLinkedReports(String field) {
+        List<LinkedReport> linkedReports = new ArrayList<>();
+        for (String entry : field.split(";")) {
+            String[] values = entry.split("\\|", -1);
+            if (values.length < 4) continue;
+            LinkedReport linked = new LinkedReport(decodeLinkedValue(values[0]), decodeLinkedValue(values[1]),
+                    decodeLinkedValue(values[3]), null);
+            try {
+                linked.setTimestamp(LocalDateTime.parse(values[2], DATETIME_FORMATTER));
+            } catch (Exception e) { /* leave unset */ }
+            linkedReports.add(linked);
+        }
+        return linkedReports;
+    }
+
+    private static String encodeLinkedValue(String value) {
+        if (value == null) return "";
+        return value.replace("%", "%25").replace("|", "%7C").replace(";", "%3B")
+                .replace("\r", "%0D").replace("\n", "%0A");
+    }
+
+    private static String decodeLinkedValue(String value) {
+        return value.replace("%0A", "\n").replace("%0D", "\r").replace("%3B", ";")
+                .replace("%7C", "|").replace("%25", "%");
+    }
+
+    private static <T> T reject(boolean strict, String reason) {
+        if (strict) {
+            throw new IllegalArgumentException(reason);
+        }
+        return null;
+    }
+
+    // Unreadable numbers load as 0, as they always have; imports reject them instead
+    private static int parseInt(String value, String field, boolean strict) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            if (strict) {
+                throw new IllegalArgumentException(field + " is not a whole number: '" + value + "'");
+            }
+            return 0;
+        }
+    }
+
+    private static double parseDouble(String value, String field, boolean strict) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            if (strict) {
+                throw new IllegalArgumentException(field + " is not a number: '" + value + "'");
+            }
+            return 0;
+        }
+    }
+
     // Simple CSV parser that handles quoted fields
-    private String[] parseCSVLine(String line) {
+    public String[] parseCSVLine(String line) {
         List<String> fields = new ArrayList<>();
         boolean inQuotes = false;
         StringBuilder currentField = new StringBuilder();
@@ -3,20 +3,28 @@ package com.example.nepaltourism;
 import com.example.nepaltourism.controllers.AdminDashboardController;
 import com.example.nepaltourism.controllers.GuideDashboardController;
 import com.example.nepaltourism.controllers.TouristDashboardController;
+import com.example.nepaltourism.diagnostics.Diagnostics;
+import com.example.nepaltourism.diagnostics.Metrics;
+import com.example.nepaltourism.diagnostics.StartupTimer;
 import com.example.nepaltourism.models.*;
+import com.example.nepaltourism.services.ChangeEventBus;
+import com.example.nepaltourism.services.EmergencyDeduplicator;
+import com.example.nepaltourism.services.EmergencyDispatchEngine;
+import com.example.nepaltourism.services.GuideLocator;
+import com.example.nepaltourism.services.TourismDataService;
+import com.example.nepaltourism.server.TourismServer;
 import com.example.nepaltourism.utils.LanguageManager;
+import com.example.nepaltourism.utils.ViewFactory;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 
 /**
  * Main entry point for the Nepal Tourism Application.
@@ -25,26 +33,25 @@ import java.util.logging.Level;
 public class Main extends Application {
 
     private static final Logger logger = Logger.getLogger(Main.class.getName());
-    private CSVDataManager dataManager;
+    private TourismDataService dataService;
     private Stage primaryStage;
 
-    // In-memory data stores (could be moved to a dedicated service later)
-    private List<User> users;
-    private List<Attraction> attractions;
-    private List<Booking> bookings;
-    private List<EmergencyReport> emergencyReports;
-//    private List<Tourist> tourists;
-
     @Override
     public void init() throws Exception {
         super.init();
+        StartupTimer.milestone(StartupTimer.INIT);
         logger.info("Initializing Nepal Tourism Application...");
 
-        // Initialize data manager
-        dataManager = new CSVDataManager();
-
-        // Load initial data
-        loadData();
+        // Load data and build the dispatch queue and guide index
+        StartupTimer.Phase loading = StartupTimer.begin(StartupTimer.LOAD_DATA);
+        try {
+            dataService = new TourismDataService(new CSVDataManager());
+            dataService.load();
+        } finally {
+            loading.close();
+        }
+        Metrics.startDumping(dataService.getDataManager().getDataDir());
+        Diagnostics.start(dataService.getDataManager().getDataDir());
     }
 
     @Override
@@ -57,69 +64,11 @@ public class Main extends Application {
         this.primaryStage.show();
     }
 
-    /**
-     * Loads data from CSV files into memory.
-     */
-    private void loadData() {
-        try {
-            users = dataManager.loadUsers();
-            logger.info("Loaded " + users.size() + " users.");
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to load users", e);
-            users = new java.util.ArrayList<>(); // Initialize with empty list on failure
-        }
-
-        try {
-            attractions = dataManager.loadAttractions();
-            logger.info("Loaded " + attractions.size() + " attractions.");
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to load attractions", e);
-            attractions = new java.util.ArrayList<>();
-        }
-
-        try {
-            bookings = dataManager.loadBookings();
-            logger.info("Loaded " + bookings.size() + " bookings.");
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to load bookings", e);
-            bookings = new java.util.ArrayList<>();
-        }
-
-        try {
-            emergencyReports = dataManager.loadEmergencyReports();
-            logger.info("Loaded " + emergencyReports.size() + " emergency reports.");
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to load emergency reports", e);
-            emergencyReports = new java.util.ArrayList<>();
-        }
-
-        // Create sample data if files are empty (for first run)
-        createSampleDataIfEmpty();
-    }
-
     /**
      * Saves all data back to CSV files.
      */
     public void saveAllData() {
-        dataManager.saveUsers(users);
-        dataManager.saveAttractions(attractions);
-        dataManager.saveBookings(bookings);
-        dataManager.saveEmergencyReports(emergencyReports);
-        logger.info("All data saved to CSV files.");
-    }
-
-    /**
-     * Creates sample data if the loaded lists are empty.
-     * This is useful for the first run of the application.
-     */
-    private void createSampleDataIfEmpty() {
-        if (users.isEmpty()) {
-            // Add a sample admin user (password is "admin123" - in real app, this should be hashed)
-            User admin = new Admin("ADM001", "Admin User", "admin@example.com", "9800000000", "admin123");
-            users.add(admin);
-            logger.info("Created sample admin user.");
-        }
-        // Sample data for other entities can be added here if needed
+        dataService.saveAllData();
     }
 
     /**
@@ -127,44 +76,46 @@ public class Main extends Application {
      * @throws IOException if the FXML file cannot be loaded.
      */
     public void showLoginScreen() throws IOException {
-        // Load the FXML with ResourceBundle for localization
-        ResourceBundle bundle = ResourceBundle.getBundle("lang.messages", Locale.getDefault());
-
-        FXMLLoader loader = new FXMLLoader(
-                getClass().getResource("/fxml/login.fxml"),
-                bundle
-        );
-
-        Parent root = loader.load();
+        Scene scene;
+        StartupTimer.Phase loading = StartupTimer.begin(StartupTimer.LOGIN_SCREEN_LOAD);
+        try {
+            // Load the FXML with ResourceBundle for localization
+            ResourceBundle bundle = LanguageManager.bundle(Locale.getDefault());
+            ViewFactory.View<com.example.nepaltourism.controllers.LoginController> view =
+                    ViewFactory.load(ViewFactory.LOGIN, Locale.getDefault());
 
-        // Get the controller and pass the main app instance
-        com.example.nepaltourism.controllers.LoginController controller = loader.getController();
-        controller.setMainApp(this);
+            // Get the controller and pass the main app instance
+            com.example.nepaltourism.controllers.LoginController controller = view.getController();
+            controller.setMainApp(this);
 
-        Scene scene = new Scene(root);
-        // Apply CSS styling
-        scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+            // Styled with the app's CSS
+            scene = view.createScene();
 
-        primaryStage.setScene(scene);
-        primaryStage.centerOnScreen(); // Center the window
-        primaryStage.setTitle(bundle.getString("login.welcome.title")); // Optional: Set title from bundle
-        primaryStage.show();
+            primaryStage.setScene(scene);
+            primaryStage.centerOnScreen(); // Center the window
+            primaryStage.setTitle(bundle.getString("login.welcome.title")); // Optional: Set title from bundle
+            primaryStage.show();
+        } finally {
+            loading.close();
+        }
+        markWhenPainted(scene, StartupTimer.LOGIN_SCREEN);
+        // Loaded in the background while the user types, so logging in only has to fill them in;
+        // after a logout only the dashboard that was used needs loading again
+        ViewFactory.prewarm(ViewFactory.TOURIST_DASHBOARD, ViewFactory.GUIDE_DASHBOARD, ViewFactory.ADMIN_DASHBOARD);
+        ViewFactory.prewarm(ViewFactory.SIGNUP, LanguageManager.getCurrentLocale());
     }
     /**
      * Displays the signup screen.
      * @throws IOException if the FXML file cannot be loaded.
      */
     public void showSignupScreen() throws IOException {
-        ResourceBundle bundle = ResourceBundle.getBundle("lang.messages", LanguageManager.getCurrentLocale());
-
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/signup.fxml"), bundle);
-        Parent root = loader.load();
+        ViewFactory.View<com.example.nepaltourism.controllers.SignupController> view =
+                ViewFactory.load(ViewFactory.SIGNUP, LanguageManager.getCurrentLocale());
 
-        com.example.nepaltourism.controllers.SignupController controller = loader.getController();
+        com.example.nepaltourism.controllers.SignupController controller = view.getController();
         controller.setMainApp(this);
 
-        Scene scene = new Scene(root);
-        scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+        Scene scene = view.createScene();
         primaryStage.setScene(scene);
         primaryStage.centerOnScreen();
     }
@@ -188,27 +139,55 @@ public class Main extends Application {
 
     // Getters for data lists (for controllers to access)
     public List<User> getUsers() {
-        return users;
+        return dataService.getUsers();
     }
 
     public List<Attraction> getAttractions() {
-        return attractions;
+        return dataService.getAttractions();
     }
 
     public List<Booking> getBookings() {
-        return bookings;
+        return dataService.getBookings();
     }
 
     public List<EmergencyReport> getEmergencyReports() {
-        return emergencyReports;
+        return dataService.getEmergencyReports();
     }
 
-//    public List<Tourist> getTourists() {
-//        return tourists;
-//    }
+    public EmergencyDispatchEngine getDispatchEngine() {
+        return dataService.getDispatchEngine();
+    }
+
+    public EmergencyDeduplicator getEmergencyDeduplicator() {
+        return dataService.getEmergencyDeduplicator();
+    }
+
+    public GuideLocator getGuideLocator() {
+        return dataService.getGuideLocator();
+    }
+
+    /**
+     * Finds the guides an emergency at this location should be routed to.
+     * @param location The free-text location from the report.
+     * @return Ids of the nearest available guides, or an empty list to notify every guide.
+     */
+    public List<String> nearestGuideIds(String location) {
+        return dataService.nearestGuideIds(location);
+    }
+
+    public TourismDataService getDataService() {
+        return dataService;
+    }
+
+    /**
+     * Dashboards subscribe here to apply changes as they happen instead of reloading.
+     */
+    public ChangeEventBus getChangeEventBus() {
+        return dataService.getChangeEventBus();
+    }
 
     public CSVDataManager getDataManager() {
-        return dataManager;
+        return dataService.getDataManager();
     }
 
     public Stage getPrimaryStage() {
@@ -218,42 +197,65 @@ public class Main extends Application {
         String fxmlFile = null;
 
         if (user instanceof Tourist) {
-            fxmlFile = "/fxml/tourist-dashboard.fxml";
+            fxmlFile = ViewFactory.TOURIST_DASHBOARD;
         } else if (user instanceof Guide) {
-            fxmlFile = "/fxml/guide-dashboard.fxml";
+            fxmlFile = ViewFactory.GUIDE_DASHBOARD;
         } else if (user instanceof Admin) {
-            fxmlFile = "/fxml/admin-dashboard.fxml";
+            fxmlFile = ViewFactory.ADMIN_DASHBOARD;
         }
 
         if (fxmlFile != null) {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlFile));
-            Parent root = loader.load();
-
-            Object controller = loader.getController();
-            if (controller instanceof TouristDashboardController) {
-                TouristDashboardController c = (TouristDashboardController) controller;
-                c.setMainApp(this);
-                c.setLoggedInUser((Tourist) user);
-                c.setupDashboard();
-            } else if (controller instanceof GuideDashboardController) {
-                GuideDashboardController c = (GuideDashboardController) controller;
-                c.setMainApp(this);
-                c.setLoggedInUser((Guide) user);
-                c.setupDashboard();
-            } else if (controller instanceof AdminDashboardController) {
-                AdminDashboardController c = (AdminDashboardController) controller;
-                c.setMainApp(this);
-                c.setLoggedInUser((Admin) user);
-                c.setupDashboard();
+            Scene scene;
+            StartupTimer.Phase loading = StartupTimer.begin(StartupTimer.DASHBOARD_LOAD);
+            try {
+                ViewFactory.View<Object> view = ViewFactory.loadWithoutSpare(fxmlFile);
+
+                Object controller = view.getController();
+                if (controller instanceof TouristDashboardController) {
+                    TouristDashboardController c = (TouristDashboardController) controller;
+                    c.setMainApp(this);
+                    c.setLoggedInUser((Tourist) user);
+                    c.setupDashboard();
+                } else if (controller instanceof GuideDashboardController) {
+                    GuideDashboardController c = (GuideDashboardController) controller;
+                    c.setMainApp(this);
+                    c.setLoggedInUser((Guide) user);
+                    c.setupDashboard();
+                } else if (controller instanceof AdminDashboardController) {
+                    AdminDashboardController c = (AdminDashboardController) controller;
+                    c.setMainApp(this);
+                    c.setLoggedInUser((Admin) user);
+                    c.setupDashboard();
+                }
+
+                scene = view.createScene();
+                primaryStage.setScene(scene);
+                primaryStage.centerOnScreen();
+            } finally {
+                loading.close();
             }
-
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            primaryStage.setScene(scene);
-            primaryStage.centerOnScreen();
+            markWhenPainted(scene, StartupTimer.DASHBOARD);
         }
     }
+
+    /**
+     * Marks a startup milestone once the scene has been laid out for its first frame.
+     */
+    private static void markWhenPainted(Scene scene, String milestone) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            StartupTimer.milestone(milestone);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
     public static void main(String[] args) {
+        // "--headless" serves the HTTP API instead of opening the desktop UI
+        if (Arrays.asList(args).contains("--headless")) {
+            TourismServer.main(args);
+            return;
+        }
         launch(args);
     }
 
@@ -1,26 +1,48 @@
 package com.example.nepaltourism.controllers;
 
 import com.example.nepaltourism.Main;
+import com.example.nepaltourism.diagnostics.Diagnostics;
+import com.example.nepaltourism.diagnostics.LoadReport;
 import com.example.nepaltourism.models.*;
+import com.example.nepaltourism.services.BookingExporter;
+import com.example.nepaltourism.services.BookingQuery;
+import com.example.nepaltourism.services.BookingRollup;
+import com.example.nepaltourism.services.BulkImporter;
+import com.example.nepaltourism.services.ChangeEvent;
+import com.example.nepaltourism.services.DashboardCharts;
+import com.example.nepaltourism.services.GuideAssignmentOptimizer;
+import com.example.nepaltourism.services.UpdateResult;
+import com.example.nepaltourism.utils.ChartUpdates;
+import com.example.nepaltourism.utils.DashboardSection;
+import com.example.nepaltourism.utils.DashboardTabs;
+import com.example.nepaltourism.utils.Downsampling;
+import com.example.nepaltourism.utils.FxChangeBatcher;
+import com.example.nepaltourism.utils.Formats;
 import com.example.nepaltourism.utils.LanguageManager;
+import com.example.nepaltourism.utils.MetricsTab;
+import com.example.nepaltourism.utils.MonthlyChart;
+import com.example.nepaltourism.utils.PagedList;
+import com.example.nepaltourism.utils.ViewFactory;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,6 +55,7 @@ import java.util.stream.Collectors;
 public class AdminDashboardController {
 
     private static final Logger logger = Logger.getLogger(AdminDashboardController.class.getName());
+    private static final int BOOKING_PAGE_SIZE = 50;
 
     // --- Top Navigation ---
     @FXML private Label welcomeLabel;
@@ -102,6 +125,13 @@ public class AdminDashboardController {
     @FXML private TableColumn<Booking, String> bookingStatusColumn;
     @FXML private TableColumn<Booking, Double> bookingPriceColumn;
     @FXML private TableColumn<Booking, Booking> bookingActionsColumn;
+    private final Button autoAssignButton = new Button(autoAssignTitle());
+    private final Button importButton = new Button();
+    private final DatePicker exportFromDate = new DatePicker();
+    private final DatePicker exportToDate = new DatePicker();
+    private final ProgressBar exportProgress = new ProgressBar(0);
+    private Task<Long> exportTask;
+    private String exportButtonText;
 
     // --- Data ---
     private Main mainApp;
@@ -109,16 +139,33 @@ public class AdminDashboardController {
     private ObservableList<Tourist> touristObservableList;
     private ObservableList<Guide> guideObservableList;
     private ObservableList<Attraction> attractionObservableList;
-    private ObservableList<Booking> bookingObservableList;
-    private FilteredList<Booking> filteredBookingList;
+    // Bookings are paged in from the data service's sorted index rather than held here in full
+    private PagedList<Booking> bookingPages;
+    private volatile BookingQuery bookingQuery = BookingQuery.ALL;
+    private final Map<TableColumn<Booking, ?>, BookingQuery.SortKey> bookingSortKeys = new HashMap<>();
+    private List<DashboardSection<?>> sections = Collections.emptyList();
+    // KPIs and chart data behind the overview tab, updated per change as events arrive
+    private Overview overview;
+    private FxChangeBatcher changeBatcher;
+    private MonthlyChart revenueTrend;
+    // Totals behind the tourists' Spent and Trips columns, and the cells showing them by tourist id;
+    // a booking change updates just its tourist's cells instead of redrawing every row
+    private BookingRollup touristBookings;
+    private final Map<String, TouristTotals> touristTotals = new HashMap<>();
+    // Held here so the weak listener lives exactly as long as this dashboard
+    private final InvalidationListener localeListener = obs -> redrawForLocale();
+    private final WeakInvalidationListener weakLocaleListener = new WeakInvalidationListener(localeListener);
 
     @FXML
     private void initialize() {
+        // May run on the view prewarmer's thread, so nothing here may listen to shared state such as
+        // the language; table cells, and their localized text, are only created on the FX thread once shown
         setupTopNavigation();
         setupTouristsTab();
         setupGuidesTab();
         setupAttractionsTab();
         setupBookingsTab();
+        setupCharts();
     }
 
     private void setupTopNavigation() {
@@ -132,28 +179,16 @@ public class AdminDashboardController {
         touristEmailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
         touristPhoneColumn.setCellValueFactory(new PropertyValueFactory<>("phone"));
 
-        touristSpentColumn.setCellValueFactory(cellData -> {
-            String touristId = cellData.getValue().getId();
-            double totalSpent = mainApp.getBookings().stream()
-                    .filter(b -> b.getTouristId().equals(touristId))
-                    .mapToDouble(Booking::getTotalPrice)
-                    .sum();
-            return new javafx.beans.property.SimpleDoubleProperty(totalSpent).asObject();
-        });
-
-        touristTripsColumn.setCellValueFactory(cellData -> {
-            String touristId = cellData.getValue().getId();
-            long totalTrips = mainApp.getBookings().stream()
-                    .filter(b -> b.getTouristId().equals(touristId))
-                    .count();
-            return new javafx.beans.property.SimpleIntegerProperty((int) totalTrips).asObject();
-        });
+        touristSpentColumn.setCellValueFactory(cellData -> touristTotalsFor(cellData.getValue().getId()).spent);
+        touristTripsColumn.setCellValueFactory(cellData -> touristTotalsFor(cellData.getValue().getId()).trips);
 
         touristActionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button editButton = new Button(LanguageManager.getString("button.edit"));
-            private final Button deleteButton = new Button(LanguageManager.getString("button.delete"));
+            private final Button editButton = new Button();
+            private final Button deleteButton = new Button();
 
             {
+                editButton.textProperty().bind(LanguageManager.localized("button.edit"));
+                deleteButton.textProperty().bind(LanguageManager.localized("button.delete"));
                 editButton.setOnAction(event -> handleEditUser(getTableView().getItems().get(getIndex())));
                 deleteButton.setOnAction(event -> handleDeleteUser(getTableView().getItems().get(getIndex())));
                 deleteButton.getStyleClass().add("button-danger");
@@ -184,10 +219,12 @@ public class AdminDashboardController {
         ));
 
         guideActionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button editButton = new Button(LanguageManager.getString("button.edit"));
-            private final Button deleteButton = new Button(LanguageManager.getString("button.delete"));
+            private final Button editButton = new Button();
+            private final Button deleteButton = new Button();
 
             {
+                editButton.textProperty().bind(LanguageManager.localized("button.edit"));
+                deleteButton.textProperty().bind(LanguageManager.localized("button.delete"));
                 editButton.setOnAction(event -> handleEditUser(getTableView().getItems().get(getIndex())));
                 deleteButton.setOnAction(event -> handleDeleteUser(getTableView().getItems().get(getIndex())));
                 deleteButton.getStyleClass().add("button-danger");
@@ -226,10 +263,12 @@ public class AdminDashboardController {
         });
 
         attractionActionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button editButton = new Button(LanguageManager.getString("button.edit"));
-            private final Button deleteButton = new Button(LanguageManager.getString("button.delete"));
+            private final Button editButton = new Button();
+            private final Button deleteButton = new Button();
 
             {
+                editButton.textProperty().bind(LanguageManager.localized("button.edit"));
+                deleteButton.textProperty().bind(LanguageManager.localized("button.delete"));
                 editButton.setOnAction(event -> handleEditAttraction(getTableView().getItems().get(getIndex())));
                 deleteButton.setOnAction(event -> handleDeleteAttraction(getTableView().getItems().get(getIndex())));
                 deleteButton.getStyleClass().add("button-danger");
@@ -245,38 +284,50 @@ public class AdminDashboardController {
         attractionObservableList = FXCollections.observableArrayList();
         attractionsTable.setItems(attractionObservableList);
         addAttractionButton.setOnAction(event -> handleAddAttraction());
+
+        // Not part of the FXML; sits next to the add button
+        importButton.setOnAction(event -> handleBulkImport());
+        if (addAttractionButton.getParent() instanceof javafx.scene.layout.Pane) {
+            javafx.scene.layout.Pane toolbar = (javafx.scene.layout.Pane) addAttractionButton.getParent();
+            toolbar.getChildren().add(toolbar.getChildren().indexOf(addAttractionButton) + 1, importButton);
+        }
     }
 
     // ------------------------- BOOKINGS TAB -------------------------
     private void setupBookingsTab() {
         bookingIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        // Rows still being paged in are null; show them blank
         bookingTouristColumn.setCellValueFactory(cellData -> {
-            String touristId = cellData.getValue().getTouristId();
-            Optional<User> touristOpt = mainApp.getUsers().stream()
-                    .filter(u -> u instanceof Tourist && u.getId().equals(touristId))
-                    .findFirst();
+            if (cellData.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty("");
+            }
+            Optional<User> touristOpt = mainApp.getDataService().findUser(cellData.getValue().getTouristId())
+                    .filter(u -> u instanceof Tourist);
             return new javafx.beans.property.SimpleStringProperty(
                     touristOpt.map(User::getName).orElse("Unknown Tourist")
             );
         });
 
         bookingGuideColumn.setCellValueFactory(cellData -> {
+            if (cellData.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty("");
+            }
             String guideId = cellData.getValue().getGuideId();
             if (guideId == null || guideId.isEmpty()) {
                 return new javafx.beans.property.SimpleStringProperty("Not Assigned");
             }
-            Optional<User> guideOpt = mainApp.getUsers().stream()
-                    .filter(u -> u instanceof Guide && u.getId().equals(guideId))
-                    .findFirst();
+            Optional<User> guideOpt = mainApp.getDataService().findUser(guideId)
+                    .filter(u -> u instanceof Guide);
             return new javafx.beans.property.SimpleStringProperty(
                     guideOpt.map(User::getName).orElse("Unknown Guide")
             );
         });
 
         bookingAttractionColumn.setCellValueFactory(cellData -> {
-            String attractionId = cellData.getValue().getAttractionId();
-            Optional<Attraction> attractionOpt = mainApp.getAttractions().stream()
-                    .filter(a -> a.getId().equals(attractionId)).findFirst();
+            if (cellData.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty("");
+            }
+            Optional<Attraction> attractionOpt = mainApp.getDataService().findAttraction(cellData.getValue().getAttractionId());
             return new javafx.beans.property.SimpleStringProperty(
                     attractionOpt.map(Attraction::getName).orElse("Unknown Attraction")
             );
@@ -287,12 +338,15 @@ public class AdminDashboardController {
         bookingPriceColumn.setCellValueFactory(new PropertyValueFactory<>("totalPrice"));
 
         bookingActionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button viewButton = new Button(LanguageManager.getString("button.view"));
-            private final Button updateStatusButton = new Button(LanguageManager.getString("button.update"));
+            private final Button viewButton = new Button();
+            private final Button updateStatusButton = new Button();
 
             {
+                viewButton.textProperty().bind(LanguageManager.localized("button.view"));
+                updateStatusButton.textProperty().bind(LanguageManager.localized("button.update"));
                 viewButton.setOnAction(event -> {
                     Booking booking = getTableView().getItems().get(getIndex());
+                    if (booking == null) return;
                     showAlert(Alert.AlertType.INFORMATION, "Booking Details",
                             "Booking ID: " + booking.getId() + "\n" +
                                     "Tourist: " + booking.getTouristId() + "\n" +
@@ -302,11 +356,14 @@ public class AdminDashboardController {
                                     "People: " + booking.getNumberOfPeople() + "\n" +
                                     "Requests: " + booking.getSpecialRequests() + "\n" +
                                     "Status: " + booking.getStatus() + "\n" +
-                                    "Total Price: $" + String.format("%.2f", booking.getTotalPrice()) + "\n" +
+                                    "Total Price: " + Formats.currency(booking.getTotalPrice()) + "\n" +
                                     "Discount: " + booking.getDiscountApplied());
                 });
 
-                updateStatusButton.setOnAction(event -> handleUpdateBookingStatus(getTableView().getItems().get(getIndex())));
+                updateStatusButton.setOnAction(event -> {
+                    Booking booking = getTableView().getItems().get(getIndex());
+                    if (booking != null) handleUpdateBookingStatus(booking);
+                });
             }
 
             @Override
@@ -316,15 +373,54 @@ public class AdminDashboardController {
             }
         });
 
-        bookingObservableList = FXCollections.observableArrayList();
-        filteredBookingList = new FilteredList<>(bookingObservableList, p -> true);
-        bookingsTable.setItems(filteredBookingList);
+        bookingPages = new PagedList<>(BOOKING_PAGE_SIZE, bookingSource(bookingQuery));
+        bookingsTable.setItems(bookingPages);
+
+        // Sorting happens in the data service's index; the table only says which column and direction
+        bookingSortKeys.put(bookingIdColumn, BookingQuery.SortKey.ID);
+        bookingSortKeys.put(bookingTouristColumn, BookingQuery.SortKey.TOURIST);
+        bookingSortKeys.put(bookingGuideColumn, BookingQuery.SortKey.GUIDE);
+        bookingSortKeys.put(bookingAttractionColumn, BookingQuery.SortKey.ATTRACTION);
+        bookingSortKeys.put(bookingDateColumn, BookingQuery.SortKey.TOUR_DATE);
+        bookingSortKeys.put(bookingStatusColumn, BookingQuery.SortKey.STATUS);
+        bookingSortKeys.put(bookingPriceColumn, BookingQuery.SortKey.PRICE);
+        bookingActionsColumn.setSortable(false);
+        bookingsTable.setSortPolicy(table -> {
+            if (table.getSortOrder().isEmpty()) {
+                setBookingQuery(bookingQuery.withSort(BookingQuery.SortKey.ID, true));
+            } else {
+                TableColumn<Booking, ?> column = table.getSortOrder().get(0);
+                setBookingQuery(bookingQuery.withSort(bookingSortKeys.getOrDefault(column, BookingQuery.SortKey.ID),
+                        column.getSortType() != TableColumn.SortType.DESCENDING));
+            }
+            return true;
+        });
 
         bookingStatusFilter.getItems().addAll("All", "Pending", "Confirmed", "Completed", "Cancelled");
         bookingStatusFilter.setValue("All");
         bookingStatusFilter.setOnAction(event -> filterBookings());
 
-        exportBookingsButton.setOnAction(event -> handleExportBookings());
+        // The same button cancels an export in progress
+        exportBookingsButton.setOnAction(event -> {
+            if (exportTask != null && exportTask.isRunning()) {
+                exportTask.cancel();
+            } else {
+                handleExportBookings();
+            }
+        });
+
+        // Not part of the FXML; sit in the same toolbar around the export button
+        autoAssignButton.setOnAction(event -> handleAutoAssignGuides());
+        exportFromDate.setPrefWidth(130);
+        exportToDate.setPrefWidth(130);
+        exportProgress.setVisible(false);
+        exportProgress.setManaged(false);
+        if (exportBookingsButton.getParent() instanceof javafx.scene.layout.Pane) {
+            javafx.scene.layout.Pane toolbar = (javafx.scene.layout.Pane) exportBookingsButton.getParent();
+            toolbar.getChildren().addAll(toolbar.getChildren().indexOf(exportBookingsButton),
+                    List.of(autoAssignButton, exportFromDate, exportToDate));
+            toolbar.getChildren().add(toolbar.getChildren().indexOf(exportBookingsButton) + 1, exportProgress);
+        }
     }
 
     // ------------------------- SETUP METHODS -------------------------
@@ -334,7 +430,7 @@ public class AdminDashboardController {
 
     public void setLoggedInUser(Admin user) {
         this.loggedInUser = user;
-        welcomeLabel.setText(LanguageManager.getString("admin.dashboard.welcome").replace("{0}", user.getName()));
+        welcomeLabel.textProperty().bind(LanguageManager.localized("admin.dashboard.welcome", user.getName()));
         setupDashboard();
     }
 
@@ -343,11 +439,184 @@ public class AdminDashboardController {
             logger.warning("Main app or logged-in user not set before calling setupDashboard()");
             return;
         }
-        loadTourists();
-        loadGuides();
-        loadAttractions();
-        loadBookings();
-        loadDashboardData();
+        if (changeBatcher != null) {
+            return; // already set up (setLoggedInUser and Main both call this)
+        }
+        // Here rather than in initialize(): the language is changed, and its listeners called, on the FX thread
+        LanguageManager.localeProperty().addListener(weakLocaleListener);
+        importButton.textProperty().bind(LanguageManager.localized(
+                () -> LanguageManager.getString("button.import_csv", "Import CSV...")));
+        exportFromDate.promptTextProperty().bind(LanguageManager.localized(
+                () -> LanguageManager.getString("export.from", "Export from")));
+        exportToDate.promptTextProperty().bind(LanguageManager.localized(
+                () -> LanguageManager.getString("export.to", "Export to")));
+        createSections();
+        // Subscribe before loading so changes made while a section loads are replayed, not lost
+        changeBatcher = new FxChangeBatcher(mainApp.getChangeEventBus(), this::applyChanges);
+        // Only the tab on screen loads now; the others load when first selected
+        sections.forEach(DashboardSection::loadIfVisible);
+        // So the first time a dialog is opened it is already loaded
+        ViewFactory.prewarm(ViewFactory.USER_FORM_DIALOG, ViewFactory.ATTRACTION_FORM_DIALOG);
+    }
+
+    /**
+     * Each tab's data is computed on a worker thread the first time the tab is selected and
+     * shown in one update, then kept current from change events.
+     */
+    private void createSections() {
+        DashboardSection<Overview> overviewSection = new DashboardSection<>("admin overview",
+                this::computeOverview, this::showOverview, this::applyOverviewChanges);
+        DashboardSection<TouristRows> touristsSection = new DashboardSection<>("tourists",
+                this::loadTouristRows, this::showTourists, events -> applyTableChanges(events, Tourist.class))
+                .withPlaceholder(touristsTable);
+        DashboardSection<List<Guide>> guidesSection = new DashboardSection<>("guides",
+                this::loadGuides, guideObservableList::setAll, events -> applyTableChanges(events, Guide.class))
+                .withPlaceholder(guidesTable);
+        DashboardSection<List<Attraction>> attractionsSection = new DashboardSection<>("attractions",
+                this::loadAttractions, attractionObservableList::setAll, events -> applyTableChanges(events, Attraction.class))
+                .withPlaceholder(attractionsTable);
+        // Loading builds the index for the current sort and filter; rows are paged in as the table scrolls
+        DashboardSection<Map<String, Integer>> bookingsSection = new DashboardSection<>("bookings",
+                () -> mainApp.getDataService().countBookingsByStatus(bookingQuery), counts -> {
+                    showBookingStatusCounts(counts);
+                    bookingPages.reset();
+                }, this::applyBookingChanges)
+                .withPlaceholder(bookingsTable);
+
+        DashboardTabs.tabContaining(totalBookingsLabel).ifPresent(overviewSection::showIn);
+        DashboardTabs.tabContaining(touristsTable).ifPresent(touristsSection::showIn);
+        DashboardTabs.tabContaining(guidesTable).ifPresent(guidesSection::showIn);
+        DashboardTabs.tabContaining(attractionsTable).ifPresent(attractionsSection::showIn);
+        DashboardTabs.tabContaining(bookingsTable).ifPresent(bookingsSection::showIn);
+        // Not part of the FXML; timings and counts for whoever looks after the app
+        DashboardTabs.tabContaining(bookingsTable).map(Tab::getTabPane)
+                .ifPresent(tabPane -> tabPane.getTabs().add(MetricsTab.create()));
+        sections = List.of(overviewSection, touristsSection, guidesSection, attractionsSection, bookingsSection);
+    }
+
+    /**
+     * Applies a batch of data changes to every section without reloading it.
+     */
+    private void applyChanges(List<ChangeEvent<?>> events) {
+        for (DashboardSection<?> section : sections) {
+            section.applyChanges(events);
+        }
+    }
+
+    private <T> void applyTableChanges(List<ChangeEvent<?>> events, Class<T> type) {
+        ObservableList<T> items = itemsFor(type);
+        // Spent and trip columns are derived from bookings; a moved booking changes both its tourists
+        Set<String> touristsChanged = new HashSet<>();
+        for (ChangeEvent<?> event : events) {
+            Optional<T> entity = event.entityAs(type);
+            if (entity.isPresent()) {
+                applyChange(items, event.getKind(), event.getId(), entity.get());
+                if (type == Tourist.class && event.getKind() == ChangeEvent.Kind.REMOVED) {
+                    touristTotals.remove(event.getId());
+                }
+            } else if (type == Tourist.class && event.getEntity() instanceof Booking) {
+                touristsChanged.add(touristBookings.getTouristId(event.getId()));
+                if (event.getKind() == ChangeEvent.Kind.REMOVED) {
+                    touristBookings.remove(event.getId());
+                } else {
+                    Booking booking = (Booking) event.getEntity();
+                    touristBookings.apply(booking);
+                    touristsChanged.add(booking.getTouristId());
+                }
+            }
+        }
+        touristsChanged.remove(null);
+        touristsChanged.forEach(this::updateTouristTotals);
+    }
+
+    private TouristTotals touristTotalsFor(String touristId) {
+        return touristTotals.computeIfAbsent(touristId, id -> {
+            TouristTotals totals = new TouristTotals();
+            if (touristBookings != null) {
+                totals.update(touristBookings, id);
+            }
+            return totals;
+        });
+    }
+
+    private void updateTouristTotals(String touristId) {
+        TouristTotals totals = touristTotals.get(touristId);
+        if (totals != null) {
+            totals.update(touristBookings, touristId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ObservableList<T> itemsFor(Class<T> type) {
+        if (type == Tourist.class) return (ObservableList<T>) touristObservableList;
+        if (type == Guide.class) return (ObservableList<T>) guideObservableList;
+        return (ObservableList<T>) attractionObservableList;
+    }
+
+    /**
+     * The data service keeps its booking index current; the table just re-reads the pages on screen.
+     */
+    private void applyBookingChanges(List<ChangeEvent<?>> events) {
+        boolean bookingsChanged = false;
+        boolean namesChanged = false;
+        for (ChangeEvent<?> event : events) {
+            bookingsChanged |= event.getEntity() instanceof Booking;
+            // Tourist, guide and attraction names are shown in the rows too
+            namesChanged |= event.getEntity() instanceof User || event.getEntity() instanceof Attraction;
+        }
+        if (bookingsChanged) {
+            showBookingStatusCounts(mainApp.getDataService().countBookingsByStatus(bookingQuery));
+        }
+        if (bookingsChanged || namesChanged) {
+            bookingPages.refresh();
+        }
+    }
+
+    /**
+     * Shows how many bookings each status filter would list, e.g. "Pending (12)". The counts
+     * are the sizes of the index's status buckets, so nothing is rescanned.
+     */
+    private void showBookingStatusCounts(Map<String, Integer> counts) {
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        // Setting a new converter makes the combo box redraw its items with the new counts
+        bookingStatusFilter.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(String status) {
+                if (status == null) {
+                    return "";
+                }
+                return status + " (" + ("All".equals(status) ? total : counts.getOrDefault(status, 0)) + ")";
+            }
+
+            @Override
+            public String fromString(String text) {
+                return text.replaceFirst(" \\(\\d+\\)$", "");
+            }
+        });
+    }
+
+    private static <T> void applyChange(List<T> items, ChangeEvent.Kind kind, String id, T entity) {
+        int index = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == entity || id.equals(idOf(items.get(i)))) {
+                index = i;
+                break;
+            }
+        }
+        if (kind == ChangeEvent.Kind.REMOVED) {
+            if (index >= 0) items.remove(index);
+        } else if (index >= 0) {
+            items.set(index, entity);
+        } else {
+            items.add(entity);
+        }
+    }
+
+    private static String idOf(Object entity) {
+        if (entity instanceof User) return ((User) entity).getId();
+        if (entity instanceof Attraction) return ((Attraction) entity).getId();
+        if (entity instanceof Booking) return ((Booking) entity).getId();
+        return null;
     }
 
     // ------------------------- DATA LOADING -------------------------
@@ -363,170 +632,238 @@ public class AdminDashboardController {
 //        touristObservableList.setAll(tourists);
 //        // Consider adding touristsTable.refresh(); if UI isn't updating
 //    }
-    // Inside AdminDashboardController.java
-    private void loadTourists() {
-        // --- ADD LOGGING TO DEBUG ---
-        logger.info("AdminDashboardController: Starting to load tourists...");
-        if (mainApp == null) {
-            logger.severe("AdminDashboardController: mainApp is NULL in loadTourists!");
-            return; // Critical error
-        }
-        if (mainApp.getUsers() == null) {
-            logger.warning("AdminDashboardController: mainApp.getUsers() returned NULL");
-            touristObservableList.clear();
-            return;
-        }
-        // --- END ADD LOGGING ---
+    // Runs on the loader thread, like the loaders below
+    private TouristRows loadTouristRows() {
+        BookingRollup bookings = new BookingRollup(b -> true);
+        bookings.rebuild(mainApp.getBookings());
+        return new TouristRows(loadTourists(), bookings);
+    }
 
+    private void showTourists(TouristRows rows) {
+        touristBookings = rows.bookings;
+        touristTotals.forEach((id, totals) -> totals.update(touristBookings, id));
+        touristObservableList.setAll(rows.tourists);
+    }
+
+    // Loaders run on a worker thread: they read the data service's snapshots and touch no controls.
+    // Each row is checked, but only the problems (and, with diagnostics on, a sample of rows) are reported.
+    private List<Tourist> loadTourists() {
         List<Tourist> tourists = mainApp.getUsers().stream()
                 .filter(u -> u instanceof Tourist)
                 .map(u -> (Tourist) u)
                 .collect(Collectors.toList());
 
-        // --- ADD MORE LOGGING ---
-        logger.info("AdminDashboardController: Found " + tourists.size() + " tourists in mainApp data.");
+        LoadReport report = new LoadReport("tourists");
         for (Tourist t : tourists) {
-            logger.info("AdminDashboardController: Loading Tourist -> ID: '" + t.getId() +
-                    "', Name: '" + t.getName() +
-                    "', Email: '" + t.getEmail() +
-                    "', Phone: '" + t.getPhone() + "'");
-            // Add this check to see if any fields are unexpectedly null
-            if (t.getName() == null || t.getEmail() == null) {
-                logger.warning("AdminDashboardController: Tourist " + t.getId() + " has NULL name or email!");
+            report.check(t.getId(), t.getName() != null, "no name");
+            report.check(t.getId(), t.getEmail() != null, "no email");
+            if (report.sampleNext()) {
+                Diagnostics.record("sample", "section", "tourists", "id", t.getId(), "name", t.getName(),
+                        "email", t.getEmail(), "phone", t.getPhone());
             }
         }
-        // --- END ADD MORE LOGGING ---
-
-        touristObservableList.setAll(tourists); // This should trigger a UI update
-        // Optional, sometimes needed if UI doesn't refresh automatically
-        // touristsTable.refresh();
-        logger.info("AdminDashboardController: Tourist list updated in TableView.");
+        report.finish(tourists.size());
+        return tourists;
     }
 
-    public void loadGuides() {
+    private List<Guide> loadGuides() {
         List<Guide> guides = mainApp.getUsers().stream()
                 .filter(u -> u instanceof Guide)
                 .map(u -> (Guide) u)
                 .collect(Collectors.toList());
 
-        logger.info("Loading Guides: " + guides.size());
+        LoadReport report = new LoadReport("guides");
         for (Guide g : guides) {
-            logger.info("Guide: ID=" + g.getId() + ", Name=" + g.getName() + ", Email=" + g.getEmail() +
-                    ", TourArea=" + g.getTourArea() + ", Rating=" + g.getRating());
+            report.check(g.getId(), g.getName() != null, "no name");
+            report.check(g.getId(), g.getEmail() != null, "no email");
+            report.check(g.getId(), g.getTourArea() != null && !g.getTourArea().isEmpty(), "no tour area");
+            if (report.sampleNext()) {
+                Diagnostics.record("sample", "section", "guides", "id", g.getId(), "name", g.getName(),
+                        "email", g.getEmail(), "tourArea", g.getTourArea(), "rating", g.getRating());
+            }
         }
-        guideObservableList.setAll(guides);
-        guidesTable.refresh();
+        report.finish(guides.size());
+        return guides;
     }
 
-    public void loadAttractions() {
+    private List<Attraction> loadAttractions() {
         List<Attraction> attractions = mainApp.getAttractions();
-        logger.info("Loading Attractions: " + attractions.size());
+        LoadReport report = new LoadReport("attractions");
         for (Attraction a : attractions) {
-            logger.info("Attraction: ID=" + a.getId() + ", Name=" + a.getName() + ", Region=" + a.getRegion() +
-                    ", Category=" + a.getCategory() + ", Active=" + a.isActive());
+            report.check(a.getId(), a.getName() != null, "no name");
+            report.check(a.getId(), a.getRegion() != null && !a.getRegion().isEmpty(), "no region");
+            if (report.sampleNext()) {
+                Diagnostics.record("sample", "section", "attractions", "id", a.getId(), "name", a.getName(),
+                        "region", a.getRegion(), "category", a.getCategory(), "active", a.isActive());
+            }
         }
-        attractionObservableList.setAll(attractions);
-        attractionsTable.refresh();
+        report.finish(attractions.size());
+        return attractions;
     }
 
-    private void loadBookings() {
-        bookingObservableList.setAll(mainApp.getBookings());
+    /**
+     * The tourists tab's rows, and every booking's total per tourist for the Spent and Trips columns.
+     */
+    private static final class TouristRows {
+        final List<Tourist> tourists;
+        final BookingRollup bookings;
+
+        TouristRows(List<Tourist> tourists, BookingRollup bookings) {
+            this.tourists = tourists;
+            this.bookings = bookings;
+        }
+    }
+
+    /**
+     * One tourist's Spent and Trips values, bound by the cells showing that tourist.
+     */
+    private static final class TouristTotals {
+        final ObjectProperty<Double> spent = new SimpleObjectProperty<>(0.0);
+        final ObjectProperty<Integer> trips = new SimpleObjectProperty<>(0);
+
+        void update(BookingRollup bookings, String touristId) {
+            spent.set(bookings.getRevenueByTourist(touristId));
+            trips.set((int) bookings.getCountByTourist(touristId));
+        }
     }
 
     // ------------------------- DASHBOARD DATA -------------------------
-    private void loadDashboardData() {
-        long totalTourists = mainApp.getUsers().stream().filter(u -> u instanceof Tourist).count();
-        long activeGuides = mainApp.getUsers().stream().filter(u -> u instanceof Guide && ((Guide) u).isAvailable()).count();
-        long totalBookings = mainApp.getBookings().size();
-        double totalRevenue = mainApp.getBookings().stream().mapToDouble(Booking::getTotalPrice).sum();
-
-        totalTouristsLabel.setText(String.valueOf(totalTourists));
-        activeGuidesLabel.setText(String.valueOf(activeGuides));
-        totalBookingsLabel.setText(String.valueOf(totalBookings));
-        totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
-
-        updateRevenueChart();
-        updateAttractionsChart();
-        updateRegionalChart();
+    /**
+     * What the overview tab shows: KPI counts and booking totals, plus the chart series
+     * computed from them.
+     */
+    private static final class Overview {
+        final Set<String> touristIds = new HashSet<>();
+        final Set<String> availableGuideIds = new HashSet<>();
+        final BookingRollup rollup = new BookingRollup(b -> true);
+        SortedMap<YearMonth, Double> revenueByMonth;
+        Map<String, Long> topAttractions;
+        Map<String, Long> bookingsByRegion;
     }
 
-    // ------------------------- CHARTS -------------------------
-    private void updateRevenueChart() {
-        revenueChart.getData().clear();
-        javafx.scene.chart.XYChart.Series<String, Number> series = new javafx.scene.chart.XYChart.Series<>();
-        series.setName("Monthly Revenue");
-
-        Map<String, Double> monthlyRevenue = new LinkedHashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            String monthKey = LocalDate.now().minusMonths(i).format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-            monthlyRevenue.put(monthKey, 0.0);
+    private Overview computeOverview() {
+        Overview overview = new Overview();
+        for (User user : mainApp.getUsers()) {
+            trackUser(overview, user, true);
         }
+        overview.rollup.rebuild(mainApp.getBookings());
+        computeCharts(overview);
+        return overview;
+    }
+
+    private void showOverview(Overview loaded) {
+        overview = loaded;
+        updateSummaryLabels();
+        updateCharts();
+    }
 
-        for (Booking booking : mainApp.getBookings()) {
-            if (booking.getTourDate() != null) {
-                String monthKey = booking.getTourDate().format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-                monthlyRevenue.merge(monthKey, booking.getTotalPrice(), Double::sum);
+    private void applyOverviewChanges(List<ChangeEvent<?>> events) {
+        boolean chartsChanged = false;
+        for (ChangeEvent<?> event : events) {
+            if (event.getEntity() instanceof User) {
+                trackUser(overview, (User) event.getEntity(), event.getKind() != ChangeEvent.Kind.REMOVED);
+            } else if (event.getEntity() instanceof Booking) {
+                if (event.getKind() == ChangeEvent.Kind.REMOVED) {
+                    overview.rollup.remove(event.getId());
+                } else {
+                    overview.rollup.apply((Booking) event.getEntity());
+                }
+                chartsChanged = true;
+            } else if (event.getEntity() instanceof Attraction) {
+                // Names and regions label the charts
+                chartsChanged = true;
             }
         }
+        if (chartsChanged) {
+            computeCharts(overview);
+            updateCharts();
+        }
+        updateSummaryLabels();
+    }
 
-        for (Map.Entry<String, Double> entry : monthlyRevenue.entrySet()) {
-            series.getData().add(new javafx.scene.chart.XYChart.Data<>(entry.getKey(), entry.getValue()));
+    private static void trackUser(Overview overview, User user, boolean present) {
+        overview.touristIds.remove(user.getId());
+        overview.availableGuideIds.remove(user.getId());
+        if (present && user instanceof Tourist) {
+            overview.touristIds.add(user.getId());
+        } else if (present && user instanceof Guide && ((Guide) user).isAvailable()) {
+            overview.availableGuideIds.add(user.getId());
         }
-        revenueChart.getData().add(series);
     }
 
-    private void updateAttractionsChart() {
-        attractionsChart.getData().clear();
-        javafx.scene.chart.XYChart.Series<String, Number> series = new javafx.scene.chart.XYChart.Series<>();
-        series.setName("Bookings");
-
-        Map<String, Long> attractionBookings = mainApp.getBookings().stream()
-                .collect(Collectors.groupingBy(Booking::getAttractionId, Collectors.counting()));
-
-        attractionBookings.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .forEach(entry -> {
-                    String attractionId = entry.getKey();
-                    Optional<Attraction> attractionOpt = mainApp.getAttractions().stream()
-                            .filter(a -> a.getId().equals(attractionId)).findFirst();
-                    String name = attractionOpt.map(Attraction::getName).orElse("Unknown (" + attractionId + ")");
-                    series.getData().add(new javafx.scene.chart.XYChart.Data<>(name, entry.getValue()));
-                });
+    private void updateSummaryLabels() {
+        totalTouristsLabel.setText(String.valueOf(overview.touristIds.size()));
+        activeGuidesLabel.setText(String.valueOf(overview.availableGuideIds.size()));
+        totalBookingsLabel.setText(String.valueOf(overview.rollup.getCount()));
+        totalRevenueLabel.setText(Formats.currency(overview.rollup.getTotalRevenue()));
+    }
 
-        attractionsChart.getData().add(series);
+    // ------------------------- CHARTS -------------------------
+    // Series are computed from the rollup (on the loader thread for the first load), then drawn in place.
+    // Monthly revenue is drawn over the range picked above the chart, thinned to the chart's width.
+    private void setupCharts() {
+        revenueTrend = new MonthlyChart(revenueChart, Downsampling.LTTB);
+        MonthlyChart.addRangeSelector(revenueTrend);
     }
 
-    private void updateRegionalChart() {
-        regionalChart.getData().clear();
-        Map<String, Long> regionBookings = new HashMap<>();
+    private void computeCharts(Overview overview) {
+        overview.revenueByMonth = overview.rollup.getRevenueByMonth();
 
-        for (Booking booking : mainApp.getBookings()) {
-            String attractionId = booking.getAttractionId();
-            Optional<Attraction> attractionOpt = mainApp.getAttractions().stream()
-                    .filter(a -> a.getId().equals(attractionId)).findFirst();
-            String region = attractionOpt.map(Attraction::getRegion).orElse("Unknown Region");
-            regionBookings.merge(region, 1L, Long::sum);
-        }
+        overview.topAttractions = DashboardCharts.topAttractions(overview.rollup, 10,
+                mainApp.getDataService()::findAttraction);
+        overview.bookingsByRegion = DashboardCharts.bookingsByRegion(overview.rollup,
+                mainApp.getDataService()::findAttraction);
+    }
 
-        for (Map.Entry<String, Long> entry : regionBookings.entrySet()) {
-            regionalChart.getData().add(new javafx.scene.chart.PieChart.Data(entry.getKey(), entry.getValue()));
+    // Month labels follow the language
+    private void redrawForLocale() {
+        if (overview != null) {
+            updateCharts();
         }
     }
 
+    private void updateCharts() {
+        revenueTrend.setData("Monthly Revenue", overview.revenueByMonth);
+        ChartUpdates.setSeries(attractionsChart, "Bookings", overview.topAttractions);
+        ChartUpdates.setSlices(regionalChart, "Bookings by Region", overview.bookingsByRegion);
+    }
+
     // ------------------------- FILTER -------------------------
     private void filterBookings() {
         String selectedStatus = bookingStatusFilter.getValue();
         if ("All".equals(selectedStatus) || selectedStatus == null) {
-            filteredBookingList.setPredicate(booking -> true);
+            setBookingQuery(bookingQuery.withStatus(null));
         } else {
-            filteredBookingList.setPredicate(booking -> selectedStatus.equals(booking.getStatus()));
+            setBookingQuery(bookingQuery.withStatus(selectedStatus));
         }
     }
 
+    /**
+     * Shows the bookings for a new filter or sort, paged from the top.
+     */
+    private void setBookingQuery(BookingQuery query) {
+        if (query.equals(bookingQuery)) {
+            return;
+        }
+        bookingQuery = query;
+        bookingPages.setSource(bookingSource(query));
+    }
+
+    private PagedList.PageSource<Booking> bookingSource(BookingQuery query) {
+        return (offset, limit) -> mainApp.getDataService().pageBookings(query, offset, limit);
+    }
+
     // ------------------------- EVENT HANDLERS -------------------------
     @FXML
     private void handleLogout() {
+        LanguageManager.localeProperty().removeListener(weakLocaleListener);
+        if (changeBatcher != null) {
+            changeBatcher.close();
+        }
+        sections.forEach(DashboardSection::cancel);
+        if (exportTask != null) {
+            exportTask.cancel();
+        }
         try {
             mainApp.showLoginScreen();
         } catch (Exception e) {
@@ -545,10 +882,8 @@ public class AdminDashboardController {
 
     private void openUserFormDialog(User user, String userType) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/user-form-dialog.fxml"));
-            Parent root = loader.load();
-
-            UserFormDialogController controller = loader.getController();
+            ViewFactory.View<UserFormDialogController> view = ViewFactory.load(ViewFactory.USER_FORM_DIALOG);
+            UserFormDialogController controller = view.getController();
             controller.setMainApp(mainApp);
             controller.setUser(user);
             controller.setUserType(userType);
@@ -558,19 +893,11 @@ public class AdminDashboardController {
             dialogStage.setTitle(LanguageManager.getString(titleKey));
             dialogStage.initModality(Modality.WINDOW_MODAL);
             dialogStage.initOwner(mainApp.getPrimaryStage());
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+            Scene scene = view.createScene();
             dialogStage.setScene(scene);
             dialogStage.setResizable(false);
             dialogStage.showAndWait();
 
-            if ("Tourist".equals(userType)) {
-                loadTourists();
-            } else if ("Guide".equals(userType)) {
-                loadGuides();
-            }
-            loadDashboardData();
-
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to load user form dialog", e);
             showAlert(Alert.AlertType.ERROR, "Dialog Error", "Could not open user form dialog.");
@@ -586,18 +913,85 @@ public class AdminDashboardController {
 
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            mainApp.getUsers().remove(user);
-            mainApp.saveAllData();
-            if (user instanceof Tourist) {
-                loadTourists();
-            } else if (user instanceof Guide) {
-                loadGuides();
-            }
-            loadDashboardData();
+            mainApp.getDataService().removeUser(user.getId());
             showAlert(Alert.AlertType.INFORMATION, "User Deleted", "User " + user.getName() + " has been deleted.");
         }
     }
 
+    /**
+     * Imports users, attractions or bookings from a CSV file in the app's own format. Rows are
+     * checked and added on a background thread; rejected rows are written to a report next to
+     * the file.
+     */
+    private void handleBulkImport() {
+        Map<String, BulkImporter.Kind> kinds = new LinkedHashMap<>();
+        kinds.put(LanguageManager.getString("import.kind.attractions", "Attractions"), BulkImporter.Kind.ATTRACTIONS);
+        kinds.put(LanguageManager.getString("import.kind.users", "Users"), BulkImporter.Kind.USERS);
+        kinds.put(LanguageManager.getString("import.kind.bookings", "Bookings"), BulkImporter.Kind.BOOKINGS);
+        ChoiceDialog<String> kindDialog = new ChoiceDialog<>(kinds.keySet().iterator().next(), kinds.keySet());
+        kindDialog.setTitle(LanguageManager.getString("import.title", "Import CSV"));
+        kindDialog.setHeaderText(LanguageManager.getString("import.header", "What does the file contain?"));
+        Optional<String> choice = kindDialog.showAndWait();
+        if (choice.isEmpty()) {
+            return;
+        }
+        BulkImporter.Kind kind = kinds.get(choice.get());
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(LanguageManager.getString("import.file_title", "Import {0}", choice.get()));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File file = fileChooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        Task<BulkImporter.ImportResult> importTask = new Task<>() {
+            @Override
+            protected BulkImporter.ImportResult call() throws Exception {
+                BulkImporter.ImportResult result = new BulkImporter(mainApp.getDataService()).importFile(kind, file.toPath());
+                if (!result.getRejects().isEmpty()) {
+                    result.writeRejects(rejectsFileFor(file).toPath());
+                }
+                return result;
+            }
+        };
+        importTask.setOnSucceeded(event -> {
+            importButton.setDisable(false);
+            BulkImporter.ImportResult result = importTask.getValue();
+            String message = LanguageManager.getString("alert.import_finished", "{0} {1} imported in {2} ms.",
+                    result.getImported(), choice.get().toLowerCase(), result.getElapsedMillis());
+            if (!result.getRejects().isEmpty()) {
+                message += "\n" + LanguageManager.getString("alert.import_rejected", "{0} rows were rejected; see {1}",
+                        result.getRejects().size(), rejectsFileFor(file).getAbsolutePath());
+            }
+            showAlert(result.getRejects().isEmpty() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING,
+                    LanguageManager.getString("alert.import_finished_title", "Import Finished"), message);
+        });
+        importTask.setOnFailed(event -> {
+            importButton.setDisable(false);
+            Throwable error = importTask.getException();
+            String title = LanguageManager.getString("alert.import_failed_title", "Import Failed");
+            if (error instanceof IllegalArgumentException) {
+                // The importer only rejects a whole file when its header is not the expected one
+                showAlert(Alert.AlertType.ERROR, title, LanguageManager.getString("alert.import_bad_header",
+                        "The file does not start with the {0} header: {1}", choice.get().toLowerCase(), kind.getHeader()));
+            } else {
+                logger.log(Level.SEVERE, "Failed to import " + file, error);
+                showAlert(Alert.AlertType.ERROR, title,
+                        LanguageManager.getString("alert.import_failed", "Could not read {0}.", file.getName()));
+            }
+        });
+        importButton.setDisable(true);
+        Thread thread = new Thread(importTask, "bulk-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static File rejectsFileFor(File file) {
+        String name = file.getName().replaceFirst("(?i)\\.csv$", "");
+        return new File(file.getParentFile(), name + ".rejects.csv");
+    }
+
     @FXML
     private void handleAddAttraction() {
         openAttractionFormDialog(null);
@@ -610,10 +1004,8 @@ public class AdminDashboardController {
 
     private void openAttractionFormDialog(Attraction attraction) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/attraction-form-dialog.fxml"));
-            Parent root = loader.load();
-
-            AttractionFormDialogController controller = loader.getController();
+            ViewFactory.View<AttractionFormDialogController> view = ViewFactory.load(ViewFactory.ATTRACTION_FORM_DIALOG);
+            AttractionFormDialogController controller = view.getController();
             controller.setMainApp(mainApp);
             controller.setAttraction(attraction);
 
@@ -622,15 +1014,11 @@ public class AdminDashboardController {
             dialogStage.setTitle(LanguageManager.getString(titleKey));
             dialogStage.initModality(Modality.WINDOW_MODAL);
             dialogStage.initOwner(mainApp.getPrimaryStage());
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+            Scene scene = view.createScene();
             dialogStage.setScene(scene);
             dialogStage.setResizable(false);
             dialogStage.showAndWait();
 
-            loadAttractions();
-            loadDashboardData();
-
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to load attraction form dialog", e);
             showAlert(Alert.AlertType.ERROR, "Dialog Error", "Could not open attraction form dialog.");
@@ -645,15 +1033,14 @@ public class AdminDashboardController {
 
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            mainApp.getAttractions().remove(attraction);
-            mainApp.saveAllData();
-            loadAttractions();
-            loadDashboardData();
+            mainApp.getDataService().removeAttraction(attraction.getId());
             showAlert(Alert.AlertType.INFORMATION, "Attraction Deleted", "Attraction " + attraction.getName() + " has been deleted.");
         }
     }
 
     private void handleUpdateBookingStatus(Booking booking) {
+        // Version as shown in the table, so a change made while the dialog is open is detected
+        long seenVersion = booking.getVersion();
         ChoiceDialog<String> dialog = new ChoiceDialog<>(booking.getStatus(), "Pending", "Confirmed", "Completed", "Cancelled");
         dialog.setTitle("Update Booking Status");
         dialog.setHeaderText("Change status for booking " + booking.getId());
@@ -663,54 +1050,225 @@ public class AdminDashboardController {
         if (result.isPresent()) {
             String newStatus = result.get();
             if (!newStatus.equals(booking.getStatus())) {
-                booking.setStatus(newStatus);
-                mainApp.saveAllData();
-                loadBookings();
-                loadDashboardData();
-                showAlert(Alert.AlertType.INFORMATION, "Status Updated", "Booking status updated to " + newStatus);
+                UpdateResult<Booking> update = mainApp.getDataService().updateBookingStatus(booking.getId(), seenVersion, newStatus);
+                switch (update.getStatus()) {
+                    case UPDATED:
+                        showAlert(Alert.AlertType.INFORMATION, "Status Updated", "Booking status updated to " + newStatus);
+                        break;
+                    case CONFLICT:
+                        showAlert(Alert.AlertType.WARNING,
+                                LanguageManager.getString("alert.booking_changed_title", "Booking Changed"),
+                                LanguageManager.getString("alert.booking_changed",
+                                        "Booking {0} was changed by someone else while you were editing it (status is now {1}). Please review it and try again.",
+                                        booking.getId(), update.getCurrent().getStatus()));
+                        break;
+                    default:
+                        showAlert(Alert.AlertType.WARNING,
+                                LanguageManager.getString("alert.booking_not_found_title", "Booking Not Found"),
+                                LanguageManager.getString("alert.booking_not_found", "Booking {0} no longer exists.",
+                                        booking.getId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Works out the assignments on a background thread (it looks at every pending booking and
+     * guide), then asks before applying them, which also happens in the background.
+     */
+    private void handleAutoAssignGuides() {
+        List<User> users = mainApp.getUsers();
+        List<Attraction> attractions = mainApp.getAttractions();
+        List<Booking> bookings = mainApp.getBookings();
+        Task<GuideAssignmentOptimizer.AssignmentResult> task = new Task<>() {
+            @Override
+            protected GuideAssignmentOptimizer.AssignmentResult call() {
+                return new GuideAssignmentOptimizer(users, attractions, bookings).optimize();
             }
+        };
+        task.setOnSucceeded(event -> {
+            autoAssignButton.setDisable(false);
+            confirmGuideAssignments(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            autoAssignButton.setDisable(false);
+            logger.log(Level.SEVERE, "Guide auto-assignment failed", task.getException());
+            showAlert(Alert.AlertType.ERROR, autoAssignTitle(), "Could not work out guide assignments.");
+        });
+        autoAssignButton.setDisable(true);
+        startBackground(task, "guide-assignment");
+    }
+
+    private void confirmGuideAssignments(GuideAssignmentOptimizer.AssignmentResult result) {
+        logger.info("Guide auto-assignment: " + result);
+        if (result.getConsidered() == 0) {
+            showAlert(Alert.AlertType.INFORMATION, autoAssignTitle(), "There are no Pending bookings without a guide.");
+            return;
         }
+
+        StringBuilder summary = new StringBuilder()
+                .append("Pending bookings without a guide: ").append(result.getConsidered()).append("\n")
+                .append("Can be assigned: ").append(result.getAssignedCount())
+                .append(" (").append(result.getRepairedCount()).append(" after reshuffling)\n")
+                .append("Will stay unassigned: ").append(result.getUnassignedCount()).append("\n")
+                .append(String.format("Solved in %.1f ms (%.0f bookings/s)", result.getElapsedMillis(), result.getThroughputPerSecond()));
+        if (result.getAssignedCount() == 0) {
+            showAlert(Alert.AlertType.INFORMATION, autoAssignTitle(), summary.toString());
+            return;
+        }
+
+        Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmAlert.setTitle(autoAssignTitle());
+        confirmAlert.setHeaderText(null);
+        confirmAlert.setContentText(summary + "\n\nApply these assignments?");
+        Optional<ButtonType> confirm = confirmAlert.showAndWait();
+        if (confirm.isPresent() && confirm.get() == ButtonType.OK) {
+            // Applied booking by booking under each booking's lock, then saved in a single flush
+            Task<Integer> apply = new Task<>() {
+                @Override
+                protected Integer call() {
+                    return mainApp.getDataService().applyGuideAssignments(result.getAssignments());
+                }
+            };
+            apply.setOnSucceeded(event -> {
+                autoAssignButton.setDisable(false);
+                showAlert(Alert.AlertType.INFORMATION, "Guides Assigned", apply.getValue() + " bookings now have a guide.");
+            });
+            apply.setOnFailed(event -> {
+                autoAssignButton.setDisable(false);
+                logger.log(Level.SEVERE, "Failed to apply guide assignments", apply.getException());
+                showAlert(Alert.AlertType.ERROR, autoAssignTitle(), "Could not apply the guide assignments.");
+            });
+            autoAssignButton.setDisable(true);
+            startBackground(apply, "guide-assignment");
+        }
+    }
+
+    private static String autoAssignTitle() {
+        return LanguageManager.getString("button.auto_assign", "Auto-Assign Guides");
+    }
+
+    private static void startBackground(Task<?> task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
     }
 
+    /**
+     * Exports the bookings the table currently lists (same filter and order), optionally only
+     * those with a tour date in the chosen range. The file is written on a background thread;
+     * the export button turns into a cancel button until it is done.
+     */
     private void handleExportBookings() {
+        LocalDate from = exportFromDate.getValue();
+        LocalDate to = exportToDate.getValue();
+        if (from != null && to != null && from.isAfter(to)) {
+            showAlert(Alert.AlertType.WARNING, LanguageManager.getString("export.title", "Export Bookings"),
+                    LanguageManager.getString("alert.export_dates", "The export start date is after the end date."));
+            return;
+        }
+
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Export Bookings");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        fileChooser.setTitle(LanguageManager.getString("export.title", "Export Bookings"));
+        for (BookingExporter.Format format : BookingExporter.Format.values()) {
+            fileChooser.getExtensionFilters().add(
+                    new FileChooser.ExtensionFilter(format.getDescription(), "*" + format.getExtension()));
+        }
         fileChooser.setInitialFileName("bookings_export.csv");
 
         Stage stage = (Stage) exportBookingsButton.getScene().getWindow();
-        File file = fileChooser.showSaveDialog(stage);
-
-        if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                writer.append("Booking ID,Tourist ID,Guide ID,Attraction ID,Tour Date,Number of People,Special Requests,Status,Total Price,Discount Applied\n");
-
-                for (Booking booking : filteredBookingList) {
-                    writer.append(escapeCSV(booking.getId())).append(",")
-                            .append(escapeCSV(booking.getTouristId())).append(",")
-                            .append(escapeCSV(booking.getGuideId() != null ? booking.getGuideId() : "")).append(",")
-                            .append(escapeCSV(booking.getAttractionId())).append(",")
-                            .append(booking.getTourDate() != null ? booking.getTourDate().toString() : "").append(",")
-                            .append(String.valueOf(booking.getNumberOfPeople())).append(",")
-                            .append(escapeCSV(booking.getSpecialRequests())).append(",")
-                            .append(escapeCSV(booking.getStatus())).append(",")
-                            .append(String.format("%.2f", booking.getTotalPrice())).append(",")
-                            .append(escapeCSV(booking.getDiscountApplied())).append("\n");
+        File chosen = fileChooser.showSaveDialog(stage);
+        if (chosen == null) {
+            return;
+        }
+        BookingExporter.Format format = exportFormatFor(chosen, fileChooser.getSelectedExtensionFilter());
+        File file = withExtension(chosen, format);
+
+        BookingQuery query = bookingQuery;
+        exportTask = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                Task<Long> task = this;
+                // A snapshot of the table's rows in the table's order; the bookings themselves are not copied
+                List<Booking> rows = mainApp.getDataService()
+                        .pageBookings(query, 0, mainApp.getDataService().countBookings(query)).getRows();
+                return new BookingExporter().export(rows, from, to, format, file.toPath(), new BookingExporter.Progress() {
+                    @Override
+                    public void update(long done, long total) {
+                        updateProgress(done, total);
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return task.isCancelled();
+                    }
+                });
+            }
+        };
+        exportTask.setOnSucceeded(event -> {
+            finishExport();
+            showAlert(Alert.AlertType.INFORMATION,
+                    LanguageManager.getString("alert.export_success_title", "Export Successful"),
+                    LanguageManager.getString("alert.export_success", "{0} bookings exported to {1}",
+                            exportTask.getValue(), file.getAbsolutePath()));
+        });
+        exportTask.setOnFailed(event -> {
+            finishExport();
+            logger.log(Level.SEVERE, "Failed to export bookings", exportTask.getException());
+            showAlert(Alert.AlertType.ERROR, LanguageManager.getString("alert.export_failed_title", "Export Failed"),
+                    LanguageManager.getString("alert.export_failed", "Could not export bookings to file."));
+        });
+        exportTask.setOnCancelled(event -> {
+            finishExport();
+            showAlert(Alert.AlertType.INFORMATION,
+                    LanguageManager.getString("alert.export_cancelled_title", "Export Cancelled"),
+                    LanguageManager.getString("alert.export_cancelled", "The bookings export was cancelled."));
+        });
+
+        exportButtonText = exportBookingsButton.getText();
+        exportBookingsButton.setText(LanguageManager.getString("button.cancel_export", "Cancel Export"));
+        exportProgress.progressProperty().bind(exportTask.progressProperty());
+        exportProgress.setVisible(true);
+        exportProgress.setManaged(true);
+        startBackground(exportTask, "booking-export");
+    }
+
+    private void finishExport() {
+        exportProgress.progressProperty().unbind();
+        exportProgress.setVisible(false);
+        exportProgress.setManaged(false);
+        exportBookingsButton.setText(exportButtonText);
+    }
+
+    /**
+     * Goes by the file type picked in the dialog, then by the file name's extension, then CSV.
+     */
+    private static BookingExporter.Format exportFormatFor(File file, FileChooser.ExtensionFilter filter) {
+        if (filter != null) {
+            for (BookingExporter.Format format : BookingExporter.Format.values()) {
+                if (format.getDescription().equals(filter.getDescription())) {
+                    return format;
                 }
-                showAlert(Alert.AlertType.INFORMATION, "Export Successful", "Bookings exported to " + file.getAbsolutePath());
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, "Failed to export bookings", e);
-                showAlert(Alert.AlertType.ERROR, "Export Failed", "Could not export bookings to file.");
             }
         }
+        BookingExporter.Format format = BookingExporter.Format.forFileName(file.getName());
+        return format != null ? format : BookingExporter.Format.CSV;
     }
 
-    private String escapeCSV(String field) {
-        if (field == null) return "";
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
+    /**
+     * Makes the file name end in the format's extension, e.g. bookings_export.csv becomes
+     * bookings_export.csv.gz when compressed CSV was picked.
+     */
+    private static File withExtension(File file, BookingExporter.Format format) {
+        String name = file.getName();
+        if (name.toLowerCase().endsWith(format.getExtension())) {
+            return file;
+        }
+        BookingExporter.Format current = BookingExporter.Format.forFileName(name);
+        if (current != null) {
+            name = name.substring(0, name.length() - current.getExtension().length());
         }
-        return field;
+        return new File(file.getParentFile(), name + format.getExtension());
     }
 
     // ------------------------- UTIL -------------------------
@@ -165,16 +165,20 @@ public class AttractionFormDialogController {
 
         // Create or update the attraction object
         if (isEditMode) {
-            // Update existing attraction
-            attraction.setName(name);
-            attraction.setRegion(region);
-            attraction.setCategory(category);
-            attraction.setDifficulty(difficulty);
-            attraction.setDurationDays(durationDays);
-            attraction.setPriceUSD(priceUSD);
-            attraction.setDescription(description);
-            attraction.setActive(activeCheckBox.isSelected());
-            // ID, rating, altitude remain unchanged
+            // Update existing attraction (saved and re-indexed by the data service)
+            boolean active = activeCheckBox.isSelected();
+            double price = priceUSD;
+            mainApp.getDataService().updateAttraction(attraction.getId(), a -> {
+                a.setName(name);
+                a.setRegion(region);
+                a.setCategory(category);
+                a.setDifficulty(difficulty);
+                a.setDurationDays(durationDays);
+                a.setPriceUSD(price);
+                a.setDescription(description);
+                a.setActive(active);
+                // ID, rating, altitude remain unchanged
+            });
             logger.info("Attraction updated: " + attraction.getId());
         } else {
             // Create new attraction
@@ -188,13 +192,10 @@ public class AttractionFormDialogController {
                     newId, name, region, category, difficulty,
                     durationDays, priceUSD, description, activeCheckBox.isSelected(), defaultAltitude
             );
-            mainApp.getAttractions().add(newAttraction);
+            mainApp.getDataService().addAttraction(newAttraction);
             logger.info("New attraction created: " + newId);
         }
 
-        // Save all data
-        mainApp.saveAllData();
-
         showAlert(Alert.AlertType.INFORMATION, "Success",
                 isEditMode ? "Attraction updated successfully." : "New attraction added successfully.");
         handleClose(); // Close the dialog
@@ -1,11 +1,13 @@
 package com.example.nepaltourism.controllers;
 
 import com.example.nepaltourism.Main;
+import com.example.nepaltourism.diagnostics.Metrics;
 import com.example.nepaltourism.models.Attraction;
 import com.example.nepaltourism.models.Booking;
 import com.example.nepaltourism.models.Guide;
 import com.example.nepaltourism.models.Tourist;
 import com.example.nepaltourism.utils.FestivalManager;
+import com.example.nepaltourism.utils.Formats;
 import com.example.nepaltourism.utils.LanguageManager;
 import com.example.nepaltourism.utils.SafetyAlertManager;
 import javafx.collections.FXCollections;
@@ -152,7 +154,7 @@ public class BookingDialogController {
         }
 
         double total = subtotal * (1 - discount);
-        totalPriceLabel.setText(String.format("$%.2f", total));
+        totalPriceLabel.setText(Formats.currency(total));
     }
 
     /**
@@ -267,16 +269,14 @@ public class BookingDialogController {
                         "Date: " + tourDate + "\n" +
                         "People: " + numberOfPeople + "\n" +
                         "Guide: " + (selectedGuide != null ? selectedGuide.getName() : "None Selected") + "\n" +
-                        "Total Price: $" + String.format("%.2f", totalPrice) + "\n" +
+                        "Total Price: " + Formats.currency(totalPrice) + "\n" +
                         (!appliedDiscountInfo.isEmpty() ? "Discount: " + appliedDiscountInfo + "\n" : "")
         );
 
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            // Add booking to main app's list
-            mainApp.getBookings().add(newBooking);
-            // Save all data
-            mainApp.saveAllData();
+            // Add booking to the shared store (also saves the bookings file); the wait on the dialog is not timed
+            Metrics.time("ui.booking.submit", () -> mainApp.getDataService().addBooking(newBooking));
             logger.info("New booking created: " + bookingId + " for tourist " + tourist.getId());
 
             showAlert(Alert.AlertType.INFORMATION, "Booking Successful", "Your booking has been placed successfully! Booking ID: " + bookingId);
@@ -3,6 +3,7 @@ package com.example.nepaltourism.controllers;
 import com.example.nepaltourism.Main;
 import com.example.nepaltourism.models.EmergencyReport;
 import com.example.nepaltourism.models.User;
+import com.example.nepaltourism.services.TourismDataService;
 import com.example.nepaltourism.utils.LanguageManager;
 import com.example.nepaltourism.utils.SafetyAlertManager;
 import javafx.fxml.FXML;
@@ -11,6 +12,7 @@ import javafx.stage.Stage;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -150,13 +152,19 @@ public class EmergencyDialogController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                // Add report to main app's list
-                mainApp.getEmergencyReports().add(newReport);
-                // Save all data
-                mainApp.saveAllData();
-                logger.info("New emergency report submitted: " + reportId + " by " + reporterId);
-
-                showAlert(Alert.AlertType.INFORMATION, "Report Submitted", "Your emergency report has been submitted successfully! Report ID: " + reportId + "\n\nOur team is notified and will respond promptly.");
+                // Duplicates of an open incident are linked to it instead of being filed again
+                TourismDataService.EmergencySubmission submission = mainApp.getDataService().submitEmergency(newReport);
+                if (submission.isMerged()) {
+                    showAlert(Alert.AlertType.INFORMATION, "Report Linked", "This incident has already been reported and responders are on it. "
+                            + "Your report has been linked to Report ID: " + submission.getIncident().getId()
+                            + "\n\nYou will be kept informed along with the original reporter.");
+                } else {
+                    List<String> notifiedGuides = submission.getNotifiedGuides();
+                    showAlert(Alert.AlertType.INFORMATION, "Report Submitted", "Your emergency report has been submitted successfully! Report ID: " + reportId
+                            + "\n\n" + (notifiedGuides.isEmpty()
+                            ? "Our team is notified and will respond promptly."
+                            : notifiedGuides.size() + " guides near " + location + " have been notified and will respond promptly."));
+                }
                 handleClose(); // Close the dialog
             }
         });
@@ -2,7 +2,20 @@ package com.example.nepaltourism.controllers;
 
 import com.example.nepaltourism.Main;
 import com.example.nepaltourism.models.*;
+import com.example.nepaltourism.services.BookingRollup;
+import com.example.nepaltourism.services.ChangeEvent;
+import com.example.nepaltourism.services.EmergencyDispatchEngine;
+import com.example.nepaltourism.services.UpdateResult;
+import com.example.nepaltourism.utils.DashboardSection;
+import com.example.nepaltourism.utils.DashboardTabs;
+import com.example.nepaltourism.utils.Downsampling;
+import com.example.nepaltourism.utils.FxChangeBatcher;
+import com.example.nepaltourism.utils.Formats;
 import com.example.nepaltourism.utils.LanguageManager;
+import com.example.nepaltourism.utils.MonthlyChart;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -13,7 +26,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -84,13 +97,26 @@ public class GuideDashboardController {
     private Guide loggedInUser;
     private ObservableList<Booking> bookingObservableList;
     private ObservableList<EmergencyReport> emergencyObservableList;
+    private final EmergencyDispatchEngine.Listener dispatchListener = this::onDispatchChange;
+    private List<DashboardSection<?>> sections = Collections.emptyList();
+    // This guide's booking totals, kept current from change events
+    private Overview overview;
+    private FxChangeBatcher changeBatcher;
+    private MonthlyChart earningsTrend;
+    private MonthlyChart toursTrend;
+    // Held here so the weak listener lives exactly as long as this dashboard
+    private final InvalidationListener localeListener = obs -> redrawForLocale();
+    private final WeakInvalidationListener weakLocaleListener = new WeakInvalidationListener(localeListener);
 
     @FXML
     private void initialize() {
+        // May run on the view prewarmer's thread, so nothing here may listen to shared state such as
+        // the language; table cells, and their localized text, are only created on the FX thread once shown
         setupTopNavigation();
         setupBookingsTab();
         setupEmergencyReportsTab();
         setupProfileTab();
+        setupCharts();
     }
 
     private void setupTopNavigation() {
@@ -124,8 +150,9 @@ public class GuideDashboardController {
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
 
         bookingActionsColumn.setCellFactory(param -> new TableCell<>() {
-            private final Button updateStatusButton = new Button(LanguageManager.getString("button.update"));
+            private final Button updateStatusButton = new Button();
             {
+                updateStatusButton.textProperty().bind(LanguageManager.localized("button.update"));
                 updateStatusButton.setOnAction(event -> {
                     Booking booking = getTableView().getItems().get(getIndex());
                     handleUpdateBookingStatus(booking);
@@ -198,11 +225,9 @@ public class GuideDashboardController {
 
     public void setLoggedInUser(Guide user) {
         this.loggedInUser = user;
-        welcomeLabel.setText(LanguageManager.getString("guide.dashboard.welcome").replace("{0}", user.getName()));
+        welcomeLabel.textProperty().bind(LanguageManager.localized("guide.dashboard.welcome", user.getName()));
         loadProfileData();
-        loadBookings();
         loadEmergencyReports();
-        loadDashboardData();
     }
 
     private void loadProfileData() {
@@ -218,93 +243,196 @@ public class GuideDashboardController {
         }
     }
 
-    private void loadBookings() {
-        if (loggedInUser != null) {
-            bookingObservableList.setAll(mainApp.getBookings().stream()
-                    .filter(b -> loggedInUser.getId().equals(b.getGuideId()))
-                    .collect(Collectors.toList()));
-        }
+    /**
+     * The bookings tab and the dashboard tab each load on a worker thread the first time they
+     * are selected and show their data in one update, then stay current from change events.
+     */
+    private void createSections() {
+        DashboardSection<Overview> overviewSection = new DashboardSection<>("guide overview",
+                this::computeOverview, this::showOverview, this::applyOverviewChanges);
+        DashboardSection<List<Booking>> bookingsSection = new DashboardSection<>("guide bookings",
+                this::loadBookings, bookingObservableList::setAll, this::applyBookingChanges)
+                .withPlaceholder(bookingsTable);
+        DashboardTabs.tabContaining(activeBookingsLabel).ifPresent(overviewSection::showIn);
+        DashboardTabs.tabContaining(bookingsTable).ifPresent(bookingsSection::showIn);
+        sections = List.of(overviewSection, bookingsSection);
     }
 
-    private void loadEmergencyReports() {
-        emergencyObservableList.setAll(mainApp.getEmergencyReports());
+    private boolean isMine(Booking booking) {
+        return loggedInUser.getId().equals(booking.getGuideId());
     }
 
-    private void loadDashboardData() {
-        if (loggedInUser == null) return;
-        List<Booking> guideBookings = mainApp.getBookings().stream()
-                .filter(b -> loggedInUser.getId().equals(b.getGuideId()))
+    // Runs on a worker thread
+    private List<Booking> loadBookings() {
+        return mainApp.getBookings().stream()
+                .filter(this::isMine)
                 .collect(Collectors.toList());
-        long activeBookings = guideBookings.stream()
-                .filter(b -> "Confirmed".equalsIgnoreCase(b.getStatus()) || "Pending".equalsIgnoreCase(b.getStatus()))
-                .count();
-        double totalEarnings = guideBookings.stream().mapToDouble(Booking::getTotalPrice).sum();
-        double avgRating = loggedInUser.getRating();
-        long totalTours = guideBookings.size();
-        double monthlyEarnings = totalEarnings * 0.2;
-        long completedTours = guideBookings.stream().filter(b -> "Completed".equalsIgnoreCase(b.getStatus())).count();
-        long repeatCustomers = guideBookings.stream()
-                .collect(Collectors.groupingBy(Booking::getTouristId, Collectors.counting()))
-                .values().stream().filter(count -> count > 1).count();
-        String responseTime = "2h";
-
-        activeBookingsLabel.setText(String.valueOf(activeBookings));
-        totalEarningsLabel.setText(String.format("$%.2f", totalEarnings));
-        averageRatingLabel.setText(String.format("%.1f", avgRating));
-        totalToursLabel.setText(String.valueOf(totalTours));
-        monthlyEarningsLabel.setText(String.format("$%.2f", monthlyEarnings));
-        completedToursLabel.setText(String.valueOf(completedTours));
-        repeatCustomersLabel.setText(String.valueOf(repeatCustomers));
-        responseTimeLabel.setText(responseTime);
+    }
 
-        updateEarningsChart(guideBookings);
-        updateTourChart(guideBookings);
-        updateRatingsChart(avgRating);
-        updateInsights(activeBookings, totalEarnings, avgRating);
+    private void applyChanges(List<ChangeEvent<?>> events) {
+        for (DashboardSection<?> section : sections) {
+            section.applyChanges(events);
+        }
     }
 
-    private void updateEarningsChart(List<Booking> bookings) {
-        earningsChart.getData().clear();
-        javafx.scene.chart.XYChart.Series<String, Number> series = new javafx.scene.chart.XYChart.Series<>();
-        series.setName(LanguageManager.getString("chart.earnings"));
+    /**
+     * Bookings assigned to or taken from this guide come and go from the table; others are ignored.
+     */
+    private void applyBookingChanges(List<ChangeEvent<?>> events) {
+        for (ChangeEvent<?> event : events) {
+            event.entityAs(Booking.class).ifPresent(booking ->
+                    updateBookingRow(booking, event.getKind() != ChangeEvent.Kind.REMOVED && isMine(booking)));
+        }
+    }
 
-        Map<String, Double> monthlyEarnings = new LinkedHashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            String monthKey = LocalDate.now().minusMonths(i).format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-            monthlyEarnings.put(monthKey, 0.0);
+    private void updateBookingRow(Booking booking, boolean inScope) {
+        int index = -1;
+        for (int i = 0; i < bookingObservableList.size(); i++) {
+            if (bookingObservableList.get(i).getId().equals(booking.getId())) {
+                index = i;
+                break;
+            }
         }
-        for (Booking booking : bookings) {
-            if (booking.getTourDate() != null && "Completed".equalsIgnoreCase(booking.getStatus())) {
-                String monthKey = booking.getTourDate().format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-                monthlyEarnings.merge(monthKey, booking.getTotalPrice(), Double::sum);
+        if (inScope) {
+            if (index >= 0) {
+                bookingObservableList.set(index, booking);
+            } else {
+                bookingObservableList.add(booking);
             }
+        } else if (index >= 0) {
+            bookingObservableList.remove(index);
         }
-        for (Map.Entry<String, Double> entry : monthlyEarnings.entrySet()) {
-            series.getData().add(new javafx.scene.chart.XYChart.Data<>(entry.getKey(), entry.getValue()));
+    }
+
+    private void loadEmergencyReports() {
+        // Open reports in dispatch order; the listener keeps the table current afterwards
+        EmergencyDispatchEngine engine = mainApp.getDispatchEngine();
+        engine.removeListener(dispatchListener);
+        emergencyObservableList.setAll(engine.getOpenReportsFor(loggedInUser.getId()));
+        engine.addListener(dispatchListener);
+    }
+
+    private void onDispatchChange(EmergencyReport report, EmergencyDispatchEngine.ChangeType type) {
+        if (Platform.isFxApplicationThread()) {
+            applyDispatchChange(report, type);
+        } else {
+            Platform.runLater(() -> applyDispatchChange(report, type));
+        }
+    }
+
+    private void applyDispatchChange(EmergencyReport report, EmergencyDispatchEngine.ChangeType type) {
+        int index = emergencyObservableList.indexOf(report);
+        switch (type) {
+            case OPENED:
+                if (index < 0 && mainApp.getDispatchEngine().isRoutedTo(report.getId(), loggedInUser.getId())) {
+                    int position = Collections.binarySearch(emergencyObservableList, report, EmergencyDispatchEngine.DISPATCH_ORDER);
+                    emergencyObservableList.add(position < 0 ? -position - 1 : position, report);
+                }
+                break;
+            case CLOSED:
+                if (index >= 0) {
+                    emergencyObservableList.remove(index);
+                }
+                break;
+            case UPDATED:
+                // Priority may have been raised by a merged duplicate, so re-place the row
+                if (index >= 0) {
+                    emergencyObservableList.remove(index);
+                    int position = Collections.binarySearch(emergencyObservableList, report, EmergencyDispatchEngine.DISPATCH_ORDER);
+                    emergencyObservableList.add(position < 0 ? -position - 1 : position, report);
+                }
+                break;
+            default:
+                // Same object with a new status; re-set it so the row and its action button redraw
+                if (index >= 0) {
+                    emergencyObservableList.set(index, report);
+                }
         }
-        earningsChart.getData().add(series);
     }
 
-    private void updateTourChart(List<Booking> bookings) {
-        tourChart.getData().clear();
-        javafx.scene.chart.XYChart.Series<String, Number> series = new javafx.scene.chart.XYChart.Series<>();
-        series.setName(LanguageManager.getString("chart.tours"));
+    /**
+     * This guide's booking totals and the chart series computed from them.
+     */
+    private static final class Overview {
+        final BookingRollup rollup;
+        SortedMap<YearMonth, Double> earningsByMonth;
+        SortedMap<YearMonth, Long> toursByMonth;
 
-        Map<String, Integer> monthlyTours = new LinkedHashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            String monthKey = LocalDate.now().minusMonths(i).format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-            monthlyTours.put(monthKey, 0);
+        Overview(BookingRollup rollup) {
+            this.rollup = rollup;
         }
-        for (Booking booking : bookings) {
-            if (booking.getTourDate() != null && "Completed".equalsIgnoreCase(booking.getStatus())) {
-                String monthKey = booking.getTourDate().format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-                monthlyTours.merge(monthKey, 1, Integer::sum);
+    }
+
+    // Runs on a worker thread
+    private Overview computeOverview() {
+        Overview overview = new Overview(new BookingRollup(this::isMine));
+        overview.rollup.rebuild(mainApp.getBookings());
+        computeCharts(overview);
+        return overview;
+    }
+
+    // Both monthly charts show the range picked above the earnings chart
+    private void setupCharts() {
+        earningsTrend = new MonthlyChart(earningsChart, Downsampling.LTTB);
+        toursTrend = new MonthlyChart(tourChart, Downsampling.SUM);
+        MonthlyChart.addRangeSelector(earningsTrend, toursTrend);
+    }
+
+    private void computeCharts(Overview overview) {
+        overview.earningsByMonth = overview.rollup.getCompletedRevenueByMonth();
+        overview.toursByMonth = overview.rollup.getCompletedCountByMonth();
+    }
+
+    private void showOverview(Overview loaded) {
+        overview = loaded;
+        loadDashboardData();
+    }
+
+    /**
+     * Bookings assigned to or taken from this guide, status changes, and edits to the guide's own profile.
+     */
+    private void applyOverviewChanges(List<ChangeEvent<?>> events) {
+        boolean changed = false;
+        for (ChangeEvent<?> event : events) {
+            Optional<Booking> booking = event.entityAs(Booking.class);
+            if (booking.isPresent()) {
+                boolean inScope = event.getKind() != ChangeEvent.Kind.REMOVED && overview.rollup.apply(booking.get());
+                changed |= inScope || overview.rollup.remove(event.getId());
+            } else if (event.getType() == User.class && event.getId().equals(loggedInUser.getId())) {
+                changed = true;
             }
         }
-        for (Map.Entry<String, Integer> entry : monthlyTours.entrySet()) {
-            series.getData().add(new javafx.scene.chart.XYChart.Data<>(entry.getKey(), entry.getValue()));
+        if (changed) {
+            computeCharts(overview);
+            loadDashboardData();
         }
-        tourChart.getData().add(series);
+    }
+
+    private void loadDashboardData() {
+        if (loggedInUser == null || overview == null) return;
+        BookingRollup bookingRollup = overview.rollup;
+        long activeBookings = bookingRollup.getCount("Confirmed") + bookingRollup.getCount("Pending");
+        double totalEarnings = bookingRollup.getTotalRevenue();
+        double avgRating = loggedInUser.getRating();
+        long totalTours = bookingRollup.getCount();
+        double monthlyEarnings = totalEarnings * 0.2;
+        long completedTours = bookingRollup.getCount("Completed");
+        long repeatCustomers = bookingRollup.getRepeatCustomers();
+        String responseTime = "2h";
+
+        activeBookingsLabel.setText(String.valueOf(activeBookings));
+        totalEarningsLabel.setText(Formats.currency(totalEarnings));
+        averageRatingLabel.setText(String.format("%.1f", avgRating));
+        totalToursLabel.setText(String.valueOf(totalTours));
+        monthlyEarningsLabel.setText(Formats.currency(monthlyEarnings));
+        completedToursLabel.setText(String.valueOf(completedTours));
+        repeatCustomersLabel.setText(String.valueOf(repeatCustomers));
+        responseTimeLabel.setText(responseTime);
+
+        earningsTrend.setData(LanguageManager.getString("chart.earnings"), overview.earningsByMonth);
+        toursTrend.setData(LanguageManager.getString("chart.tours"), overview.toursByMonth);
+        updateRatingsChart(avgRating);
+        updateInsights(activeBookings, totalEarnings, avgRating);
     }
 
     private void updateRatingsChart(double avgRating) {
@@ -344,6 +472,12 @@ public class GuideDashboardController {
             if (loggedInUser != null) {
                 mainApp.saveAllData();
             }
+            mainApp.getDispatchEngine().removeListener(dispatchListener);
+            LanguageManager.localeProperty().removeListener(weakLocaleListener);
+            if (changeBatcher != null) {
+                changeBatcher.close();
+            }
+            sections.forEach(DashboardSection::cancel);
             mainApp.showLoginScreen();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Failed to load login screen", e);
@@ -355,7 +489,7 @@ public class GuideDashboardController {
     private void handleAvailabilityChange() {
         if (loggedInUser != null) {
             boolean newAvailability = availabilityCheckBox.isSelected();
-            loggedInUser.setAvailable(newAvailability);
+            mainApp.getDataService().updateUser(loggedInUser.getId(), u -> ((Guide) u).setAvailable(newAvailability));
             updateStatusAlert();
             logger.info("Guide " + loggedInUser.getName() + " availability set to " + newAvailability);
         }
@@ -380,6 +514,8 @@ public class GuideDashboardController {
     }
 
     private void handleUpdateBookingStatus(Booking booking) {
+        // Version as shown in the table, so a change made while the dialog is open is detected
+        long seenVersion = booking.getVersion();
         ChoiceDialog<String> dialog = new ChoiceDialog<>(booking.getStatus(), "Pending", "Confirmed", "Completed", "Cancelled");
         dialog.setTitle(LanguageManager.getString("dialog.update_booking_status_title"));
         dialog.setHeaderText(LanguageManager.getString("dialog.update_booking_status_header") + " " + booking.getId());
@@ -389,36 +525,87 @@ public class GuideDashboardController {
         if (result.isPresent()) {
             String newStatus = result.get();
             if (!newStatus.equals(booking.getStatus())) {
-                booking.setStatus(newStatus);
-                mainApp.saveAllData();
-                loadBookings();
-                loadDashboardData();
-                showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.status_updated_title"),
-                        LanguageManager.getString("alert.status_updated_message") + " " + newStatus);
+                UpdateResult<Booking> update = mainApp.getDataService().updateBookingStatus(booking.getId(), seenVersion, newStatus);
+                switch (update.getStatus()) {
+                    case UPDATED:
+                        showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.status_updated_title"),
+                                LanguageManager.getString("alert.status_updated_message") + " " + newStatus);
+                        break;
+                    case CONFLICT:
+                        showAlert(Alert.AlertType.WARNING,
+                                LanguageManager.getString("alert.booking_changed_title", "Booking Changed"),
+                                LanguageManager.getString("alert.booking_changed",
+                                        "Booking {0} was changed by someone else while you were editing it (status is now {1}). Please review it and try again.",
+                                        booking.getId(), update.getCurrent().getStatus()));
+                        break;
+                    default:
+                        showAlert(Alert.AlertType.WARNING,
+                                LanguageManager.getString("alert.booking_not_found_title", "Booking Not Found"),
+                                LanguageManager.getString("alert.booking_not_found", "Booking {0} no longer exists.",
+                                        booking.getId()));
+                }
             }
         }
     }
 
     private void handleAcknowledgeReport(EmergencyReport report) {
-        if ("Reported".equals(report.getStatus())) {
-            report.setStatus("Acknowledged");
-            mainApp.saveAllData();
-            loadEmergencyReports();
-            showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.report_acknowledged_title"),
-                    LanguageManager.getString("alert.report_acknowledged_message") + " " + report.getId());
+        UpdateResult<EmergencyReport> update = mainApp.getDataService().acknowledgeEmergency(report.getId(), loggedInUser.getId());
+        switch (update.getStatus()) {
+            case UPDATED:
+                showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.report_acknowledged_title"),
+                        LanguageManager.getString("alert.report_acknowledged_message") + " " + report.getId());
+                break;
+            case CONFLICT:
+                showReportUnavailable(EmergencyDispatchEngine.STATUS_RESOLVED.equals(update.getCurrent().getStatus())
+                        ? LanguageManager.getString("alert.report_already_resolved",
+                                "Report {0} has already been resolved.", report.getId())
+                        : LanguageManager.getString("alert.report_taken",
+                                "Report {0} has already been taken by another responder.", report.getId()));
+                break;
+            default:
+                showReportUnavailable(LanguageManager.getString("alert.report_not_found",
+                        "Report {0} no longer exists.", report.getId()));
         }
     }
 
     private void handleResolveReport(EmergencyReport report) {
-        if ("Acknowledged".equals(report.getStatus())) {
-            report.setStatus("Resolved");
-            mainApp.saveAllData();
-            loadEmergencyReports();
-            showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.report_resolved_title"),
-                    LanguageManager.getString("alert.report_resolved_message") + " " + report.getId());
+        UpdateResult<EmergencyReport> update = mainApp.getDataService().resolveEmergency(report.getId(), loggedInUser.getId());
+        switch (update.getStatus()) {
+            case UPDATED:
+                showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.report_resolved_title"),
+                        LanguageManager.getString("alert.report_resolved_message") + " " + report.getId());
+                break;
+            case CONFLICT:
+                showReportUnavailable(resolveConflictMessage(update.getCurrent()));
+                break;
+            default:
+                showReportUnavailable(LanguageManager.getString("alert.report_not_found",
+                        "Report {0} no longer exists.", report.getId()));
+        }
+    }
+
+    /**
+     * Why a report could not be resolved, from the status it has now.
+     */
+    private static String resolveConflictMessage(EmergencyReport current) {
+        switch (current.getStatus()) {
+            case EmergencyDispatchEngine.STATUS_REPORTED:
+                return LanguageManager.getString("alert.report_not_acknowledged",
+                        "Report {0} has not been acknowledged yet. Acknowledge it before resolving it.", current.getId());
+            case EmergencyDispatchEngine.STATUS_RESOLVED:
+                return LanguageManager.getString("alert.report_already_resolved",
+                        "Report {0} has already been resolved.", current.getId());
+            default:
+                return LanguageManager.getString("alert.report_held_by_other",
+                        "Report {0} is being handled by another responder.", current.getId());
         }
     }
 
+    private void showReportUnavailable(String message) {
+        showAlert(Alert.AlertType.WARNING,
+                LanguageManager.getString("alert.report_unavailable_title", "Report Unavailable"), message);
+    }
+
     private void handleUpdateProfile() {
         String name = nameField.getText().trim();
         String email = emailField.getText().trim();
@@ -431,21 +618,27 @@ public class GuideDashboardController {
             return;
         }
 
-        loggedInUser.setName(name);
-        loggedInUser.setEmail(email);
-        loggedInUser.setPhone(phone);
-        loggedInUser.setTourArea(tourArea);
-
+        Integer experience = null;
         try {
-            int experience = Integer.parseInt(experienceField.getText().trim());
-            loggedInUser.setExperience(experience);
+            experience = Integer.parseInt(experienceField.getText().trim());
         } catch (NumberFormatException e) {
             logger.info("Invalid experience number entered, keeping old value.");
         }
+        Integer newExperience = experience;
+        String languages = languagesField.getText().trim();
 
-        loggedInUser.setLanguages(languagesField.getText().trim());
-
-        mainApp.saveAllData();
+        // Saved and re-indexed by the data service (tour area may have moved)
+        mainApp.getDataService().updateUser(loggedInUser.getId(), u -> {
+            Guide guide = (Guide) u;
+            guide.setName(name);
+            guide.setEmail(email);
+            guide.setPhone(phone);
+            guide.setTourArea(tourArea);
+            if (newExperience != null) {
+                guide.setExperience(newExperience);
+            }
+            guide.setLanguages(languages);
+        });
         showAlert(Alert.AlertType.INFORMATION, LanguageManager.getString("alert.profile_updated_title"),
                 LanguageManager.getString("alert.profile_updated_message"));
     }
@@ -464,7 +657,24 @@ public class GuideDashboardController {
 
     @FXML
     private void handleLanguageSwitch() {
-        refreshUILanguage();
+        if (Locale.ENGLISH.equals(LanguageManager.getCurrentLocale())) {
+            LanguageManager.setLocale(new Locale("np"));
+        } else {
+            LanguageManager.setLocale(Locale.ENGLISH);
+        }
+        // Bound text follows by itself; charts and the status alert are redrawn by the locale listener
+    }
+
+    /**
+     * Redraws what is built from translated text: the month labels, series names and the status alert.
+     */
+    private void redrawForLocale() {
+        if (loggedInUser != null) {
+            updateStatusAlert();
+        }
+        if (overview != null) {
+            loadDashboardData();
+        }
     }
 
     public void setupDashboard() {
@@ -472,19 +682,24 @@ public class GuideDashboardController {
             System.out.println("MainApp or LoggedInUser is not set");
             return;
         }
-        loadBookings(); // Add guide-specific booking list logic
-        loadEmergencyReports(); // If the guide dashboard shows emergencies
-        // If you have guide-specific analytics
-    }
-    private void refreshUILanguage() {
-        if (loggedInUser != null) {
-            welcomeLabel.setText(LanguageManager.getString("guide.dashboard.welcome").replace("{0}", loggedInUser.getName()));
+        if (changeBatcher != null) {
+            return; // already set up
         }
-        resetProfileButton.setText(LanguageManager.getString("button.reset"));
-        updateProfileButton.setText(LanguageManager.getString("button.update"));
-
-        // You may want to refresh all other UI texts here as well.
-        // For example, column headers, buttons, labels etc.
+        // Here rather than in initialize(): the language is changed, and its listeners called, on the FX thread
+        LanguageManager.localeProperty().addListener(weakLocaleListener);
+        if (languageSwitchButton != null) {
+            languageSwitchButton.textProperty().bind(LanguageManager.localized(LanguageManager::getSwitchLanguageDisplayName));
+        }
+        resetProfileButton.textProperty().bind(LanguageManager.localized("button.reset"));
+        updateProfileButton.textProperty().bind(LanguageManager.localized("button.update"));
+        createSections();
+        // Subscribe before loading so changes made while a section loads are replayed, not lost
+        changeBatcher = new FxChangeBatcher(mainApp.getChangeEventBus(), this::applyChanges);
+        // Only the tab on screen loads now; the others load when first selected
+        sections.forEach(DashboardSection::loadIfVisible);
+        // Open emergencies come straight from the dispatch engine's in-memory queue
+        loadEmergencyReports();
+        // If you have guide-specific analytics
     }
 }
 
@@ -1,15 +1,13 @@
 package com.example.nepaltourism.controllers;
 
 import com.example.nepaltourism.Main;
+import com.example.nepaltourism.diagnostics.Metrics;
 import com.example.nepaltourism.models.Admin;
 import com.example.nepaltourism.models.Guide;
 import com.example.nepaltourism.models.Tourist;
 import com.example.nepaltourism.models.User;
 import com.example.nepaltourism.utils.LanguageManager;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -79,28 +77,36 @@ public class LoginController {
 
         User authenticatedUser = null;
 
-        // ✅ Authenticate user
-        for (User user : mainApp.getUsers()) {
-            if (user.getEmail().equalsIgnoreCase(email) && user.getPassword().equals(password)) {
-                if ((user instanceof Tourist && expectedTouristType.equals(selectedUserType)) ||
-                        (user instanceof Guide && expectedGuideType.equals(selectedUserType)) ||
-                        (user instanceof Admin && expectedAdminType.equals(selectedUserType))) {
-                    authenticatedUser = user;
-                    break;
+        // Timed from here to the dashboard being built, so a slow login shows up whichever part is slow
+        Metrics.Timer timer = Metrics.time("ui.login");
+        try {
+            // ✅ Authenticate user
+            for (User user : mainApp.getUsers()) {
+                if (user.getEmail().equalsIgnoreCase(email) && user.getPassword().equals(password)) {
+                    if ((user instanceof Tourist && expectedTouristType.equals(selectedUserType)) ||
+                            (user instanceof Guide && expectedGuideType.equals(selectedUserType)) ||
+                            (user instanceof Admin && expectedAdminType.equals(selectedUserType))) {
+                        authenticatedUser = user;
+                        break;
+                    }
                 }
             }
-        }
 
-        if (authenticatedUser != null) {
-            logger.info("User logged in: " + authenticatedUser.getName() + " (" + authenticatedUser.getUserType() + ")");
-            try {
-                showDashboard(authenticatedUser);
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, "Failed to load dashboard for user: " + authenticatedUser.getId(), e);
-                errorLabel.setText(LanguageManager.getString("An unexpected error occurred."));
+            if (authenticatedUser != null) {
+                Metrics.counter("login.success").increment();
+                logger.info("User logged in: " + authenticatedUser.getName() + " (" + authenticatedUser.getUserType() + ")");
+                try {
+                    mainApp.showDashboard(authenticatedUser);
+                } catch (IOException e) {
+                    logger.log(Level.SEVERE, "Failed to load dashboard for user: " + authenticatedUser.getId(), e);
+                    errorLabel.setText(LanguageManager.getString("An unexpected error occurred."));
+                }
+            } else {
+                Metrics.counter("login.failure").increment();
+                errorLabel.setText(LanguageManager.getString("Invalid email, password, or user type."));
             }
-        } else {
-            errorLabel.setText(LanguageManager.getString("Invalid email, password, or user type."));
+        } finally {
+            timer.close();
         }
     }
 
@@ -113,50 +119,6 @@ public class LoginController {
             errorLabel.setText("Error: Could not open signup page.");
         }
     }
-
-    private void showDashboard(User user) throws IOException {
-        String fxmlFile = null;
-        FXMLLoader loader;
-
-        if (user instanceof Tourist) {
-            fxmlFile = "/fxml/tourist-dashboard.fxml";
-        } else if (user instanceof Guide) {
-            fxmlFile = "/fxml/guide-dashboard.fxml";
-        } else if (user instanceof Admin) {
-            fxmlFile = "/fxml/admin-dashboard.fxml";
-        }
-
-        if (fxmlFile != null) {
-            loader = new FXMLLoader(getClass().getResource(fxmlFile));
-            Parent root = loader.load();
-
-            Object controller = loader.getController();
-
-            if (controller instanceof TouristDashboardController) {
-                TouristDashboardController c = (TouristDashboardController) controller;
-                c.setMainApp(mainApp);
-                c.setLoggedInUser((Tourist) user);
-                c.setupDashboard();
-
-            } else if (controller instanceof GuideDashboardController) {
-                GuideDashboardController c = (GuideDashboardController) controller;
-                c.setMainApp(mainApp);
-                c.setLoggedInUser((Guide) user);
-                c.setupDashboard();
-
-            } else if (controller instanceof AdminDashboardController) {
-                AdminDashboardController c = (AdminDashboardController) controller;
-                c.setMainApp(mainApp);
-                c.setLoggedInUser((Admin) user);
-                c.setupDashboard();
-            }
-
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            mainApp.getPrimaryStage().setScene(scene);
-            mainApp.getPrimaryStage().centerOnScreen();
-        }
-    }
 }
 
 
@@ -156,8 +156,7 @@ public class SignupController {
         }
 
         if (newUser != null) {
-            mainApp.getUsers().add(newUser);
-            mainApp.saveAllData();
+            mainApp.getDataService().addUser(newUser);
             logger.info("New user signed up: " + newUser.getName() + " (" + newUser.getUserType() + ")");
             showAlert(Alert.AlertType.INFORMATION, "Signup Successful", "Welcome, " + name + "! Your account has been created.");
             handleLoginLink();
@@ -2,12 +2,24 @@ package com.example.nepaltourism.controllers;
 
 import com.example.nepaltourism.Main;
 import com.example.nepaltourism.models.*;
+import com.example.nepaltourism.services.AttractionSearch;
+import com.example.nepaltourism.services.BookingRollup;
+import com.example.nepaltourism.services.ChangeEvent;
+import com.example.nepaltourism.services.DashboardCharts;
+import com.example.nepaltourism.utils.ChartUpdates;
+import com.example.nepaltourism.utils.DashboardSection;
+import com.example.nepaltourism.utils.DashboardTabs;
+import com.example.nepaltourism.utils.Downsampling;
+import com.example.nepaltourism.utils.FxChangeBatcher;
+import com.example.nepaltourism.utils.Formats;
 import com.example.nepaltourism.utils.LanguageManager;
+import com.example.nepaltourism.utils.MonthlyChart;
+import com.example.nepaltourism.utils.ViewFactory;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -17,7 +29,7 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -64,9 +76,19 @@ public class TouristDashboardController {
     private ObservableList<Attraction> attractionObservableList;
     private ObservableList<Booking> bookingObservableList;
     private ObservableList<Guide> guideObservableList;
+    private List<DashboardSection<?>> sections = Collections.emptyList();
+    // The tourist's own booking totals, kept current from change events
+    private Analytics analytics;
+    private FxChangeBatcher changeBatcher;
+    private MonthlyChart spendingTrend;
+    // Held here so the weak listener lives exactly as long as this dashboard
+    private final InvalidationListener localeListener = obs -> redrawForLocale();
+    private final WeakInvalidationListener weakLocaleListener = new WeakInvalidationListener(localeListener);
 
     @FXML
     private void initialize() {
+        // May run on the view prewarmer's thread, so nothing here may listen to shared state such as
+        // the language; table cells, and their localized text, are only created on the FX thread once shown
         setupTopNavigation();
         setupExploreTabUI();
         setupBookingsTabUI();
@@ -154,7 +176,9 @@ public class TouristDashboardController {
     }
 
     private void setupAnalyticsTabUI() {
-        // UI-only setup if needed; actual analytics data loaded later
+        // UI-only setup; actual analytics data loaded later
+        spendingTrend = new MonthlyChart(spendingChart, Downsampling.LTTB);
+        MonthlyChart.addRangeSelector(spendingTrend);
     }
 
     // Called after mainApp and loggedInUser are set
@@ -163,10 +187,41 @@ public class TouristDashboardController {
             logger.warning("Main app or logged in user not set before calling setupDashboard()");
             return;
         }
-        loadAttractions();
-        loadBookings();
-        loadGuides();
-        loadAnalytics();
+        if (changeBatcher != null) {
+            return; // already set up
+        }
+        // Here rather than in initialize(): the language is changed, and its listeners called, on the FX thread
+        LanguageManager.localeProperty().addListener(weakLocaleListener);
+        createSections();
+        // Subscribe before loading so changes made while a section loads are replayed, not lost
+        changeBatcher = new FxChangeBatcher(mainApp.getChangeEventBus(), this::applyChanges);
+        // Only the tab on screen loads now; the others load when first selected
+        sections.forEach(DashboardSection::loadIfVisible);
+        // So the first time a dialog is opened it is already loaded
+        ViewFactory.prewarm(ViewFactory.BOOKING_DIALOG, ViewFactory.EMERGENCY_DIALOG);
+    }
+
+    /**
+     * Each tab's data loads on a worker thread the first time the tab is selected and is
+     * shown in one update, then stays current from change events.
+     */
+    private void createSections() {
+        DashboardSection<Explore> exploreSection = new DashboardSection<>("explore",
+                this::loadAttractions, this::showAttractions, this::applyAttractionChanges)
+                .withPlaceholder(attractionsList);
+        DashboardSection<List<Booking>> bookingsSection = new DashboardSection<>("tourist bookings",
+                this::loadBookings, bookingObservableList::setAll, this::applyBookingChanges)
+                .withPlaceholder(bookingsTable);
+        DashboardSection<List<Guide>> guidesSection = new DashboardSection<>("available guides",
+                this::loadGuides, guideObservableList::setAll, this::applyGuideChanges)
+                .withPlaceholder(guidesList);
+        DashboardSection<Analytics> analyticsSection = new DashboardSection<>("tourist analytics",
+                this::computeAnalytics, this::showAnalytics, this::applyAnalyticsChanges);
+        DashboardTabs.tabContaining(attractionsList).ifPresent(exploreSection::showIn);
+        DashboardTabs.tabContaining(bookingsTable).ifPresent(bookingsSection::showIn);
+        DashboardTabs.tabContaining(guidesList).ifPresent(guidesSection::showIn);
+        DashboardTabs.tabContaining(totalSpentLabel).ifPresent(analyticsSection::showIn);
+        sections = List.of(exploreSection, bookingsSection, guidesSection, analyticsSection);
     }
 
     public void setMainApp(Main mainApp) {
@@ -175,106 +230,178 @@ public class TouristDashboardController {
 
     public void setLoggedInUser(Tourist user) {
         this.loggedInUser = user;
-        welcomeLabel.setText(LanguageManager.getString("tourist.dashboard.welcome").replace("{0}", user.getName()));
-        languageButton.setText(LanguageManager.getSwitchLanguageDisplayName());
+        welcomeLabel.textProperty().bind(LanguageManager.localized("tourist.dashboard.welcome", user.getName()));
+        languageButton.textProperty().bind(LanguageManager.localized(LanguageManager::getSwitchLanguageDisplayName));
     }
 
-    private void loadAttractions() {
-        attractionObservableList.setAll(
-                mainApp.getAttractions().stream()
-                        .filter(Attraction::isActive)
-                        .collect(Collectors.toList())
-        );
+    private void applyChanges(List<ChangeEvent<?>> events) {
+        for (DashboardSection<?> section : sections) {
+            section.applyChanges(events);
+        }
+    }
 
-        Set<String> regions = mainApp.getAttractions().stream()
-                .map(Attraction::getRegion)
-                .filter(r -> r != null && !r.isEmpty())
-                .collect(Collectors.toSet());
+    // --- Loaders run on a worker thread and touch no controls ---
 
-        regionFilter.getItems().setAll("All Regions");
-        regionFilter.getItems().addAll(regions);
+    /**
+     * The filter choices for the explore tab.
+     */
+    private static final class Explore {
+        final List<String> regions;
+        final List<String> categories;
 
-        Set<String> categories = mainApp.getAttractions().stream()
+        Explore(List<String> regions, List<String> categories) {
+            this.regions = regions;
+            this.categories = categories;
+        }
+    }
+
+    private Explore loadAttractions() {
+        List<Attraction> attractions = mainApp.getAttractions();
+        List<String> regions = attractions.stream()
+                .map(Attraction::getRegion)
+                .filter(r -> r != null && !r.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        List<String> categories = attractions.stream()
                 .map(Attraction::getCategory)
                 .filter(c -> c != null && !c.isEmpty())
-                .collect(Collectors.toSet());
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        return new Explore(regions, categories);
+    }
 
+    private void showAttractions(Explore explore) {
+        regionFilter.getItems().setAll("All Regions");
+        regionFilter.getItems().addAll(explore.regions);
         categoryFilter.getItems().setAll("All Categories");
-        categoryFilter.getItems().addAll(categories);
-
+        categoryFilter.getItems().addAll(explore.categories);
         filterAttractions();
     }
 
-    private void loadBookings() {
-        bookingObservableList.setAll(
-                mainApp.getBookings().stream()
-                        .filter(b -> b.getTouristId().equals(loggedInUser.getId()))
-                        .collect(Collectors.toList())
-        );
+    private void applyAttractionChanges(List<ChangeEvent<?>> events) {
+        if (events.stream().anyMatch(e -> e.getEntity() instanceof Attraction)) {
+            // Attractions rarely change; recomputing the filter choices is cheap
+            showAttractions(loadAttractions());
+        }
     }
 
-    private void loadGuides() {
-        guideObservableList.setAll(
-                mainApp.getUsers().stream()
-                        .filter(u -> u instanceof Guide && ((Guide) u).isAvailable())
-                        .map(u -> (Guide) u)
-                        .collect(Collectors.toList())
-        );
+    private boolean isMine(Booking booking) {
+        return loggedInUser.getId().equals(booking.getTouristId());
     }
 
-    private void loadAnalytics() {
-        List<Booking> userBookings = mainApp.getBookings().stream()
-                .filter(b -> b.getTouristId().equals(loggedInUser.getId()))
+    private List<Booking> loadBookings() {
+        return mainApp.getBookings().stream()
+                .filter(this::isMine)
                 .collect(Collectors.toList());
+    }
 
-        double totalSpent = userBookings.stream().mapToDouble(Booking::getTotalPrice).sum();
-        long totalTrips = userBookings.size();
-        long completedTrips = userBookings.stream().filter(b -> "Completed".equalsIgnoreCase(b.getStatus())).count();
-        double avgTripCost = totalTrips > 0 ? totalSpent / totalTrips : 0.0;
+    private void applyBookingChanges(List<ChangeEvent<?>> events) {
+        for (ChangeEvent<?> event : events) {
+            event.entityAs(Booking.class).ifPresent(booking -> {
+                bookingObservableList.removeIf(b -> b.getId().equals(booking.getId()));
+                if (event.getKind() != ChangeEvent.Kind.REMOVED && isMine(booking)) {
+                    bookingObservableList.add(booking);
+                }
+            });
+        }
+    }
 
-        totalSpentLabel.setText(String.format("$%.2f", totalSpent));
-        totalTripsLabel.setText(String.valueOf(totalTrips));
-        avgTripCostLabel.setText(String.format("$%.2f", avgTripCost));
-        completedTripsLabel.setText(String.valueOf(completedTrips));
+    private List<Guide> loadGuides() {
+        return mainApp.getUsers().stream()
+                .filter(u -> u instanceof Guide && ((Guide) u).isAvailable())
+                .map(u -> (Guide) u)
+                .collect(Collectors.toList());
+    }
 
-        // Spending Chart
-        spendingChart.getData().clear();
-        javafx.scene.chart.XYChart.Series<String, Number> spendingSeries = new javafx.scene.chart.XYChart.Series<>();
-        spendingSeries.setName("Spending");
-
-        Map<String, Double> monthlySpending = new LinkedHashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            String monthKey = LocalDate.now().minusMonths(i).format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-            monthlySpending.put(monthKey, 0.0);
-        }
-        for (Booking booking : userBookings) {
-            if (booking.getTourDate() != null) {
-                String monthKey = booking.getTourDate().format(DateTimeFormatter.ofPattern("MMM yy", LanguageManager.getCurrentLocale()));
-                monthlySpending.merge(monthKey, booking.getTotalPrice(), Double::sum);
-            }
+    private void applyGuideChanges(List<ChangeEvent<?>> events) {
+        for (ChangeEvent<?> event : events) {
+            event.entityAs(Guide.class).ifPresent(guide -> {
+                int index = -1;
+                for (int i = 0; i < guideObservableList.size(); i++) {
+                    if (guideObservableList.get(i).getId().equals(guide.getId())) {
+                        index = i;
+                        break;
+                    }
+                }
+                boolean shown = event.getKind() != ChangeEvent.Kind.REMOVED && guide.isAvailable();
+                if (shown && index >= 0) {
+                    guideObservableList.set(index, guide);
+                } else if (shown) {
+                    guideObservableList.add(guide);
+                } else if (index >= 0) {
+                    guideObservableList.remove(index);
+                }
+            });
         }
-        for (Map.Entry<String, Double> entry : monthlySpending.entrySet()) {
-            spendingSeries.getData().add(new javafx.scene.chart.XYChart.Data<>(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * The tourist's booking totals and the chart series computed from them.
+     */
+    private static final class Analytics {
+        final BookingRollup rollup;
+        SortedMap<YearMonth, Double> spendingByMonth;
+        Map<String, Double> spendingByCategory;
+
+        Analytics(BookingRollup rollup) {
+            this.rollup = rollup;
         }
-        spendingChart.getData().add(spendingSeries);
+    }
 
-        // Category Chart
-        categoryChart.getData().clear();
-        javafx.scene.chart.XYChart.Series<String, Number> categorySeries = new javafx.scene.chart.XYChart.Series<>();
-        categorySeries.setName("Spending by Category");
+    private Analytics computeAnalytics() {
+        Analytics analytics = new Analytics(new BookingRollup(this::isMine));
+        analytics.rollup.rebuild(mainApp.getBookings());
+        computeCharts(analytics);
+        return analytics;
+    }
 
-        Map<String, Double> categorySpending = new HashMap<>();
-        for (Booking booking : userBookings) {
-            String attractionId = booking.getAttractionId();
-            Optional<Attraction> attractionOpt = mainApp.getAttractions().stream()
-                    .filter(a -> a.getId().equals(attractionId)).findFirst();
-            String category = attractionOpt.map(Attraction::getCategory).orElse("Unknown");
-            categorySpending.merge(category, booking.getTotalPrice(), Double::sum);
+    private void computeCharts(Analytics analytics) {
+        analytics.spendingByMonth = analytics.rollup.getRevenueByMonth();
+        analytics.spendingByCategory = DashboardCharts.revenueByCategory(analytics.rollup,
+                mainApp.getDataService()::findAttraction);
+    }
+
+    private void showAnalytics(Analytics loaded) {
+        analytics = loaded;
+        loadAnalytics();
+    }
+
+    private void applyAnalyticsChanges(List<ChangeEvent<?>> events) {
+        boolean changed = false;
+        for (ChangeEvent<?> event : events) {
+            if (event.getEntity() instanceof Booking) {
+                boolean shown = event.getKind() != ChangeEvent.Kind.REMOVED && analytics.rollup.apply((Booking) event.getEntity());
+                changed |= shown || analytics.rollup.remove(event.getId());
+            } else if (event.getEntity() instanceof Attraction) {
+                // Categories label the spending chart
+                changed = true;
+            }
         }
-        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
-            categorySeries.getData().add(new javafx.scene.chart.XYChart.Data<>(entry.getKey(), entry.getValue()));
+        if (changed) {
+            computeCharts(analytics);
+            loadAnalytics();
         }
-        categoryChart.getData().add(categorySeries);
+    }
+
+    private void loadAnalytics() {
+        BookingRollup bookingRollup = analytics.rollup;
+        double totalSpent = bookingRollup.getTotalRevenue();
+        long totalTrips = bookingRollup.getCount();
+        long completedTrips = bookingRollup.getCount("Completed");
+        double avgTripCost = totalTrips > 0 ? totalSpent / totalTrips : 0.0;
+
+        totalSpentLabel.setText(Formats.currency(totalSpent));
+        totalTripsLabel.setText(String.valueOf(totalTrips));
+        avgTripCostLabel.setText(Formats.currency(avgTripCost));
+        completedTripsLabel.setText(String.valueOf(completedTrips));
+
+        // Spending Chart
+        spendingTrend.setData("Spending", analytics.spendingByMonth);
+
+        // Category Chart
+        ChartUpdates.setSeries(categoryChart, "Spending by Category", analytics.spendingByCategory);
 
         // Insights
         insightsBox.getChildren().clear();
@@ -291,34 +418,18 @@ public class TouristDashboardController {
     }
 
     private void filterAttractions() {
-        String searchText = searchField.getText().toLowerCase();
         String selectedRegion = regionFilter.getValue();
         String selectedCategory = categoryFilter.getValue();
-
-        ObservableList<Attraction> filteredList = FXCollections.observableArrayList();
-
-        for (Attraction attraction : mainApp.getAttractions()) {
-            if (!attraction.isActive()) continue;
-
-            boolean matchesSearch = searchText.isEmpty() ||
-                    attraction.getName().toLowerCase().contains(searchText) ||
-                    attraction.getDescription().toLowerCase().contains(searchText);
-
-            boolean matchesRegion = "All Regions".equals(selectedRegion) || selectedRegion == null ||
-                    (attraction.getRegion() != null && attraction.getRegion().equals(selectedRegion));
-
-            boolean matchesCategory = "All Categories".equals(selectedCategory) || selectedCategory == null ||
-                    (attraction.getCategory() != null && attraction.getCategory().equals(selectedCategory));
-
-            if (matchesSearch && matchesRegion && matchesCategory) {
-                filteredList.add(attraction);
-            }
-        }
-        attractionObservableList.setAll(filteredList);
+        AttractionSearch search = new AttractionSearch(searchField.getText(),
+                "All Regions".equals(selectedRegion) ? null : selectedRegion,
+                "All Categories".equals(selectedCategory) ? null : selectedCategory);
+        attractionObservableList.setAll(search.filter(mainApp.getAttractions()));
     }
 
     @FXML
     private void handleLogout() {
+        LanguageManager.localeProperty().removeListener(weakLocaleListener);
+        closeChangeBatcher();
         try {
             mainApp.showLoginScreen();
         } catch (IOException e) {
@@ -330,10 +441,8 @@ public class TouristDashboardController {
     @FXML
     private void handleEmergencyReport() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/emergency-dialog.fxml"));
-            Parent root = loader.load();
-
-            EmergencyDialogController controller = loader.getController();
+            ViewFactory.View<EmergencyDialogController> view = ViewFactory.load(ViewFactory.EMERGENCY_DIALOG);
+            EmergencyDialogController controller = view.getController();
             controller.setMainApp(mainApp);
             controller.setReporter(loggedInUser);
 
@@ -341,8 +450,7 @@ public class TouristDashboardController {
             dialogStage.setTitle(LanguageManager.getString("emergency.dialog.title"));
             dialogStage.initModality(Modality.WINDOW_MODAL);
             dialogStage.initOwner(mainApp.getPrimaryStage());
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+            Scene scene = view.createScene();
             dialogStage.setScene(scene);
             dialogStage.setResizable(false);
             dialogStage.showAndWait();
@@ -360,11 +468,7 @@ public class TouristDashboardController {
         } else {
             LanguageManager.setLocale(Locale.ENGLISH);
         }
-        try {
-            mainApp.showDashboard(loggedInUser); // reload with updated language
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Failed to reload dashboard after language switch", e);
-        }
+        // Bound text follows by itself; the month labels are redrawn by the locale listener
     }
 
 //    @FXML
@@ -385,10 +489,8 @@ public class TouristDashboardController {
 
     private void handleBookAttraction(Attraction attraction) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/booking-dialog.fxml"));
-            Parent root = loader.load();
-
-            BookingDialogController controller = loader.getController();
+            ViewFactory.View<BookingDialogController> view = ViewFactory.load(ViewFactory.BOOKING_DIALOG);
+            BookingDialogController controller = view.getController();
             controller.setMainApp(mainApp);
             controller.setTourist(loggedInUser);
             controller.setAttraction(attraction);
@@ -397,21 +499,31 @@ public class TouristDashboardController {
             dialogStage.setTitle(LanguageManager.getString("booking.dialog.title").replace("{0}", attraction.getName()));
             dialogStage.initModality(Modality.WINDOW_MODAL);
             dialogStage.initOwner(mainApp.getPrimaryStage());
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+            Scene scene = view.createScene();
             dialogStage.setScene(scene);
             dialogStage.setResizable(false);
             dialogStage.showAndWait();
 
-            loadBookings();
-            loadAnalytics();
-
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to load booking dialog for attraction: " + attraction.getId(), e);
             showAlert(Alert.AlertType.ERROR, "Dialog Error", "Could not open booking dialog.");
         }
     }
 
+    private void redrawForLocale() {
+        if (analytics != null) {
+            loadAnalytics();
+        }
+    }
+
+    private void closeChangeBatcher() {
+        if (changeBatcher != null) {
+            changeBatcher.close();
+            changeBatcher = null;
+        }
+        sections.forEach(DashboardSection::cancel);
+    }
+
     private void showAlert(Alert.AlertType alertType, String title, String message) {
         Alert alert = new Alert(alertType);
         alert.setTitle(title);
@@ -282,17 +282,19 @@ public class UserFormDialogController {
 
         // Create or update the user object
         if (isEditMode) {
-            // Update existing user
-            user.setName(name);
-            user.setEmail(email);
-            user.setPhone(phone);
-            // Password is handled above (kept the same or potentially updated if field was visible)
-
-            if (user instanceof Guide && expectedGuideType.equals(selectedUserType)) {
-                ((Guide) user).setTourArea(tourArea);
-                // Other Guide-specific fields (experience, languages) are managed in Guide's profile tab
-            }
-            // Tourist and Admin don't have additional fields managed here in this general form
+            // Update existing user (saved and re-indexed by the data service)
+            mainApp.getDataService().updateUser(user.getId(), u -> {
+                u.setName(name);
+                u.setEmail(email);
+                u.setPhone(phone);
+                // Password is handled above (kept the same or potentially updated if field was visible)
+
+                if (u instanceof Guide && expectedGuideType.equals(selectedUserType)) {
+                    ((Guide) u).setTourArea(tourArea);
+                    // Other Guide-specific fields (experience, languages) are managed in Guide's profile tab
+                }
+                // Tourist and Admin don't have additional fields managed here in this general form
+            });
 
             logger.info("User updated: " + user.getId());
         } else {
@@ -309,7 +311,7 @@ public class UserFormDialogController {
             }
 
             if (newUser != null) {
-                mainApp.getUsers().add(newUser);
+                mainApp.getDataService().addUser(newUser);
                 logger.info("New user created: " + newId + " (" + newUser.getUserType() + ")");
             } else {
                 errorLabel.setText(LanguageManager.getString("error.general"));
@@ -317,9 +319,6 @@ public class UserFormDialogController {
             }
         }
 
-        // Save all data
-        mainApp.saveAllData();
-
         showAlert(Alert.AlertType.INFORMATION, "Success",
                 isEditMode ? "User updated successfully." : "New user added successfully.");
         handleClose(); // Close the dialog
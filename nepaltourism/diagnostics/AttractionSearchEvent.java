@@ -0,0 +1,59 @@
+package com.example.nepaltourism.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One attraction search, from the tourist dashboard's filters or the API, spanning the scan.
+ */
+@Name("com.example.nepaltourism.AttractionSearch")
+@Label("Attraction Search")
+@Category({"Nepal Tourism", "Search"})
+@Description("Scanning the attractions for a search text, region and category")
+@StackTrace(false)
+public class AttractionSearchEvent extends Event {
+
+    @Label("Text")
+    String text;
+
+    @Label("Region")
+    String region;
+
+    @Label("Category")
+    String category;
+
+    @Label("Scanned")
+    @Description("Attractions looked at")
+    long scanned;
+
+    @Label("Matched")
+    long matched;
+
+    private AttractionSearchEvent() {
+    }
+
+    public static AttractionSearchEvent start() {
+        AttractionSearchEvent event = new AttractionSearchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the event if it is enabled and took at least its threshold.
+     */
+    public void end(String text, String region, String category, long scanned, long matched) {
+        end();
+        if (shouldCommit()) {
+            this.text = text;
+            this.region = region;
+            this.category = category;
+            this.scanned = scanned;
+            this.matched = matched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.nepaltourism.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Putting new values into a dashboard chart on the FX thread. The chart's own layout and
+ * animation happen afterwards, in the next pulse, and are not included.
+ */
+@Name("com.example.nepaltourism.ChartUpdate")
+@Label("Chart Update")
+@Category({"Nepal Tourism", "Dashboard"})
+@Description("Updating a dashboard chart's points in place")
+public class ChartUpdateEvent extends Event {
+
+    @Label("Chart")
+    String chart;
+
+    @Label("Points")
+    @Description("Points or slices shown after the update")
+    long points;
+
+    @Label("Added")
+    long added;
+
+    @Label("Removed")
+    long removed;
+
+    @Label("Changed")
+    @Description("Existing points whose value changed")
+    long changed;
+
+    private ChartUpdateEvent() {
+    }
+
+    /**
+     * @param chart What the chart shows, e.g. its series name.
+     */
+    public static ChartUpdateEvent start(String chart) {
+        ChartUpdateEvent event = new ChartUpdateEvent();
+        event.chart = chart;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the event if it is enabled and took at least its threshold.
+     */
+    public void end(long points, long added, long removed, long changed) {
+        end();
+        if (shouldCommit()) {
+            this.points = points;
+            this.added = added;
+            this.removed = removed;
+            this.changed = changed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.nepaltourism.diagnostics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Structured diagnostics, off unless started with {@code -Dnepaltourism.diagnostics=true}.
+ * Events are flat name/value records written as JSON lines to {@value #FILE_NAME} in the data
+ * directory, e.g.
+ * <pre>
+ * {"time":"2025-09-01T10:15:30Z","event":"load","section":"tourists","rows":120000,"millis":41,"anomalies":2,...}
+ * </pre>
+ * Recording only queues the event; a background thread does the formatting and writing, so the
+ * caller never waits on the disk. If the writer falls behind, events are dropped and counted
+ * rather than queued without limit.
+ * <p>
+ * When diagnostics are off {@link #isEnabled()} is a constant false, so guarded code costs
+ * nothing. See {@link LoadReport} for the per-row checks built on this.
+ */
+public final class Diagnostics {
+
+    private static final Logger logger = Logger.getLogger(Diagnostics.class.getName());
+
+    public static final String ENABLED_PROPERTY = "nepaltourism.diagnostics";
+    /** Record one row in this many as a {@code sample} event; 0 records none. */
+    public static final String SAMPLE_EVERY_PROPERTY = "nepaltourism.diagnostics.sampleEvery";
+    public static final int DEFAULT_SAMPLE_EVERY = 1000;
+    public static final String FILE_NAME = "diagnostics.jsonl";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final int SAMPLE_EVERY = Math.max(0, Integer.getInteger(SAMPLE_EVERY_PROPERTY, DEFAULT_SAMPLE_EVERY));
+    private static final int QUEUE_CAPACITY = 8192;
+
+    private static final BlockingQueue<Map<String, Object>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final LongAdder dropped = new LongAdder();
+    private static Thread writer;
+
+    private Diagnostics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return How many rows to skip between samples, or 0 if rows are not sampled.
+     */
+    public static int getSampleEvery() {
+        return ENABLED ? SAMPLE_EVERY : 0;
+    }
+
+    /**
+     * Starts writing events to {@value #FILE_NAME} in the directory, if diagnostics are on.
+     * Events recorded before this are kept and written once it starts.
+     */
+    public static synchronized void start(Path directory) {
+        if (!ENABLED || writer != null) {
+            return;
+        }
+        Path file = directory.resolve(FILE_NAME);
+        writer = new Thread(() -> writeLoop(file), "diagnostics-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Writing diagnostics to " + file + ", sampling one row in " + SAMPLE_EVERY);
+    }
+
+    /**
+     * Queues an event; does nothing if diagnostics are off.
+     * @param event What happened, e.g. "load".
+     * @param fields Names and values, alternating; values are written as JSON numbers,
+     *               booleans, strings or arrays (for collections).
+     */
+    public static void record(String event, Object... fields) {
+        if (!ENABLED) {
+            return;
+        }
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("time", Instant.now());
+        record.put("event", event);
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            record.put(String.valueOf(fields[i]), fields[i + 1]);
+        }
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private static void writeLoop(Path file) {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long lost = dropped.sumThenReset();
+            // Opened per batch so the file can be rotated or deleted while the app runs
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (lost > 0) {
+                    Map<String, Object> note = new LinkedHashMap<>();
+                    note.put("time", Instant.now());
+                    note.put("event", "dropped");
+                    note.put("count", lost);
+                    batch.add(0, note);
+                }
+                for (Map<String, Object> record : batch) {
+                    line.setLength(0);
+                    appendJson(line, record);
+                    out.write(line.toString());
+                    out.newLine();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to write diagnostics to " + file, e);
+            }
+            batch.clear();
+        }
+    }
+
+    private static void appendJson(StringBuilder sb, Map<String, Object> record) {
+        sb.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> field : record.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            appendString(sb, field.getKey());
+            sb.append(':');
+            appendValue(sb, field.getValue());
+        }
+        sb.append('}');
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : (Iterable<?>) value) {
+                if (!first) sb.append(',');
+                first = false;
+                appendValue(sb, item);
+            }
+            sb.append(']');
+        } else {
+            appendString(sb, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
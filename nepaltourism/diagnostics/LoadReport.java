@@ -0,0 +1,87 @@
+package com.example.nepaltourism.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Checks the rows a dashboard section loads and reports on them once, instead of logging every
+ * row. Rows that fail a check (e.g. a tourist without a name) are counted and always reported
+ * in a single warning naming the first few. With {@link Diagnostics} on, the load is also
+ * recorded as a {@code load} event (rows, time, anomalies) and one row in
+ * {@link Diagnostics#getSampleEvery()} as a {@code sample} event.
+ * <pre>
+ * LoadReport report = new LoadReport("tourists");
+ * for (Tourist t : tourists) {
+ *     report.check(t.getId(), t.getName() != null, "no name");
+ *     if (report.sampleNext()) {
+ *         Diagnostics.record("sample", "section", "tourists", "id", t.getId(), ...);
+ *     }
+ * }
+ * report.finish(tourists.size());
+ * </pre>
+ * Not thread-safe; one report per load.
+ */
+public class LoadReport {
+
+    private static final Logger logger = Logger.getLogger(LoadReport.class.getName());
+
+    // How many failing rows to name; the rest are only counted
+    private static final int EXAMPLES = 5;
+
+    private final String section;
+    private final long start = System.nanoTime();
+    private final int sampleEvery = Diagnostics.getSampleEvery();
+    private final List<String> examples = new ArrayList<>(EXAMPLES);
+    private long rows;
+    private long anomalies;
+
+    /**
+     * @param section What is being loaded, e.g. "tourists".
+     */
+    public LoadReport(String section) {
+        this.section = section;
+    }
+
+    /**
+     * Counts a row that fails the check; call once per check and row.
+     * @param id The row's id, named in the warning if it is among the first to fail.
+     * @param ok True if the row passes.
+     * @param problem What is wrong with a failing row, e.g. "no name".
+     */
+    public void check(String id, boolean ok, String problem) {
+        if (ok) {
+            return;
+        }
+        anomalies++;
+        if (examples.size() < EXAMPLES) {
+            examples.add(id + " (" + problem + ")");
+        }
+    }
+
+    /**
+     * Counts the next row.
+     * @return True if this row should be recorded as a sample; always false when diagnostics
+     *         are off.
+     */
+    public boolean sampleNext() {
+        return sampleEvery > 0 && rows++ % sampleEvery == 0;
+    }
+
+    /**
+     * Reports the load: a warning if any row failed a check, and a {@code load} event if
+     * diagnostics are on.
+     * @param rowCount How many rows were loaded.
+     */
+    public void finish(long rowCount) {
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (anomalies > 0) {
+            logger.warning("Loaded " + rowCount + " " + section + ", " + anomalies + " with problems, e.g. "
+                    + String.join(", ", examples));
+        } else {
+            logger.fine(() -> "Loaded " + rowCount + " " + section + " in " + millis + " ms");
+        }
+        Diagnostics.record("load", "section", section, "rows", rowCount, "millis", millis,
+                "anomalies", anomalies, "examples", examples);
+    }
+}
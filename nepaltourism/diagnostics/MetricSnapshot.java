@@ -0,0 +1,98 @@
+package com.example.nepaltourism.diagnostics;
+
+import java.util.Locale;
+
+/**
+ * One metric's value at a moment, ready to show or write out. Latencies are in milliseconds.
+ */
+public final class MetricSnapshot {
+
+    public enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private final String name;
+    private final Type type;
+    private final long count;
+    private final Number value;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    private MetricSnapshot(String name, Type type, long count, Number value, double meanMillis,
+                           double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+        this.name = name;
+        this.type = type;
+        this.count = count;
+        this.value = value;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    static MetricSnapshot counter(String name, long count) {
+        return new MetricSnapshot(name, Type.COUNTER, count, count, 0, 0, 0, 0, 0);
+    }
+
+    static MetricSnapshot gauge(String name, Number value) {
+        return new MetricSnapshot(name, Type.GAUGE, 0, value, 0, 0, 0, 0, 0);
+    }
+
+    static MetricSnapshot histogram(String name, LatencyHistogram histogram) {
+        return new MetricSnapshot(name, Type.HISTOGRAM, histogram.getCount(), null,
+                histogram.getMeanMicros() / 1000.0,
+                histogram.getPercentileMicros(50) / 1000.0,
+                histogram.getPercentileMicros(90) / 1000.0,
+                histogram.getPercentileMicros(99) / 1000.0,
+                histogram.getMaxMicros() / 1000.0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** @return How many times a counter was bumped or a histogram recorded. */
+    public long getCount() {
+        return count;
+    }
+
+    /** @return A counter's or gauge's value; null for histograms and unreadable gauges. */
+    public Number getValue() {
+        return value;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        if (type != Type.HISTOGRAM) {
+            return name + " " + type.name().toLowerCase() + " " + value;
+        }
+        return String.format(Locale.ROOT, "%s histogram count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms",
+                name, count, meanMillis, p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+}
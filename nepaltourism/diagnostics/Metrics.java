@@ -0,0 +1,189 @@
+package com.example.nepaltourism.diagnostics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The app's in-process metrics: counters, gauges and latency histograms by name, e.g.
+ * {@code csv.save.bookings} or {@code ui.login}. Cheap enough to record on every operation,
+ * safe from any thread, and shown on the admin dashboard's Metrics tab.
+ * <pre>
+ * Metrics.time("data.saveAll", () -&gt; ...);
+ *
+ * Metrics.Timer timer = Metrics.time("csv.load.users");
+ * try {
+ *     ...
+ * } finally {
+ *     timer.close();
+ * }
+ * </pre>
+ * {@link #startDumping} also appends a snapshot to a file every so often, so the numbers from
+ * a kiosk or the headless API can be collected later.
+ */
+public final class Metrics {
+
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    /** Seconds between dumps to the metrics file; 0 turns dumping off. */
+    public static final String DUMP_SECONDS_PROPERTY = "nepaltourism.metrics.dumpSeconds";
+    public static final long DEFAULT_DUMP_SECONDS = 300;
+    public static final String DUMP_FILE_NAME = "metrics.log";
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    /**
+     * A running count, e.g. failed logins.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Times one operation into a histogram when closed.
+     */
+    public static final class Timer implements AutoCloseable {
+        private final LatencyHistogram histogram;
+        private final long start = System.nanoTime();
+
+        private Timer(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void close() {
+            histogram.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a value read when metrics are shown, e.g. the number of bookings; replaces any
+     * gauge with the same name.
+     */
+    public static void gauge(String name, Supplier<? extends Number> value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return A timer recording into the named histogram when closed.
+     */
+    public static Timer time(String name) {
+        return new Timer(histogram(name));
+    }
+
+    /**
+     * Runs an action, recording how long it took into the named histogram (even if it throws).
+     */
+    public static void time(String name, Runnable action) {
+        Timer timer = time(name);
+        try {
+            action.run();
+        } finally {
+            timer.close();
+        }
+    }
+
+    /**
+     * @return Every metric's current value, by name.
+     */
+    public static List<MetricSnapshot> snapshot() {
+        Map<String, MetricSnapshot> byName = new TreeMap<>();
+        counters.forEach((name, counter) -> byName.put(name, MetricSnapshot.counter(name, counter.get())));
+        gauges.forEach((name, gauge) -> {
+            Number value;
+            try {
+                value = gauge.get();
+            } catch (RuntimeException e) {
+                value = null; // e.g. the data is being reloaded
+            }
+            byName.put(name, MetricSnapshot.gauge(name, value));
+        });
+        histograms.forEach((name, histogram) -> byName.put(name, MetricSnapshot.histogram(name, histogram)));
+        return new ArrayList<>(byName.values());
+    }
+
+    /**
+     * Appends a timestamped snapshot, one metric per line, to the file.
+     */
+    public static void dump(Path file) throws IOException {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (MetricSnapshot metric : snapshot()) {
+                writer.write(timestamp + " " + metric);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Dumps to {@value #DUMP_FILE_NAME} in the directory every
+     * {@value #DUMP_SECONDS_PROPERTY} seconds (default {@value #DEFAULT_DUMP_SECONDS}); does
+     * nothing if already dumping or turned off.
+     */
+    public static synchronized void startDumping(Path directory) {
+        long seconds = Long.getLong(DUMP_SECONDS_PROPERTY, DEFAULT_DUMP_SECONDS);
+        if (dumper != null || seconds <= 0) {
+            return;
+        }
+        Path file = directory.resolve(DUMP_FILE_NAME);
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dumper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try {
+                dump(file);
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to dump metrics to " + file, e);
+            }
+        }, seconds, seconds, TimeUnit.SECONDS);
+        logger.info("Dumping metrics to " + file + " every " + seconds + " s");
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.nepaltourism.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reading or writing one of the data files, spanning the whole load or save.
+ * <pre>
+ * PersistenceEvent event = PersistenceEvent.start(PersistenceEvent.SAVE, file);
+ * ...
+ * event.end(rows);
+ * </pre>
+ */
+@Name("com.example.nepaltourism.Persistence")
+@Label("Data File Load or Save")
+@Category({"Nepal Tourism", "Persistence"})
+@Description("Reading or writing a CSV data file")
+public class PersistenceEvent extends Event {
+
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("File")
+    String file;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    // Not recorded; the file to measure if the event is kept
+    private transient Path path;
+
+    private PersistenceEvent() {
+    }
+
+    /**
+     * @param operation {@link #LOAD} or {@link #SAVE}.
+     * @param file The data file.
+     */
+    public static PersistenceEvent start(String operation, Path file) {
+        PersistenceEvent event = new PersistenceEvent();
+        event.operation = operation;
+        event.path = file;
+        event.file = file.getFileName().toString();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the event, with the file's size, if it is enabled and took at least its threshold.
+     * @param rows Rows read or written, not counting the header.
+     */
+    public void end(long rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            try {
+                this.bytes = Files.size(path);
+            } catch (IOException e) {
+                this.bytes = -1; // e.g. the file was never written
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.nepaltourism.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One step of starting the app, as recorded by {@link StartupTimer}. Steps that take time
+ * (loading data, loading a screen) span that time; milestones (a screen painted) are instants.
+ */
+@Name("com.example.nepaltourism.StartupPhase")
+@Label("Startup Phase")
+@Category({"Nepal Tourism", "Startup"})
+@Description("A step of application startup, from JVM launch to the first dashboard paint")
+class StartupPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Since Launch")
+    @Description("Time from JVM launch to the end of this phase")
+    @Timespan(Timespan.MILLISECONDS)
+    long sinceLaunch;
+}
@@ -0,0 +1,125 @@
+package com.example.nepaltourism.diagnostics;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Times startup, from JVM launch to the first dashboard paint, so slow kiosk restarts can be
+ * traced to a phase.
+ * <p>
+ * Phases that take time are timed with {@link #begin}; milestones such as "login screen
+ * painted" are marked with {@link #milestone}. Each is recorded as a JFR
+ * {@code com.example.nepaltourism.StartupPhase} event, and each milestone logs a summary line,
+ * e.g. {@code Startup: init@310 loadData=905 loginScreenLoad=421 loginScreen@1830}
+ * ({@code name@ms} since launch, {@code name=ms} taken). Only the first occurrence of each name
+ * counts, so showing the login screen again after a logout neither logs nor commits an event.
+ * <p>
+ * For startup benchmarks, {@code -Dnepaltourism.startup.exitAt=<milestone>} ends the process
+ * as soon as that milestone is reached, without saving.
+ */
+public final class StartupTimer {
+
+    private static final Logger logger = Logger.getLogger(StartupTimer.class.getName());
+
+    /** System property naming the milestone to exit at. */
+    public static final String EXIT_AT_PROPERTY = "nepaltourism.startup.exitAt";
+
+    public static final String INIT = "init";
+    public static final String LOAD_DATA = "loadData";
+    public static final String LOGIN_SCREEN_LOAD = "loginScreenLoad";
+    public static final String LOGIN_SCREEN = "loginScreen";
+    public static final String DASHBOARD_LOAD = "dashboardLoad";
+    public static final String DASHBOARD = "dashboard";
+    public static final String API_READY = "apiReady";
+
+    // Wall clock at launch, mapped onto nanoTime once so every reading after uses the monotonic clock
+    private static final long LAUNCH_NANOS = System.nanoTime()
+            - Math.max(0, Instant.now().toEpochMilli() - launchEpochMillis()) * 1_000_000;
+
+    // Name to "name@ms" or "name=ms", in the order recorded
+    private static final Map<String, String> recorded = new LinkedHashMap<>();
+
+    private StartupTimer() {
+    }
+
+    /**
+     * A phase being timed; close it when the phase is done.
+     */
+    public static final class Phase implements AutoCloseable {
+        private final String name;
+        private final long start = System.nanoTime();
+        private final StartupPhaseEvent event = new StartupPhaseEvent();
+        private boolean closed;
+
+        private Phase(String name) {
+            this.name = name;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long end = System.nanoTime();
+            if (record(name, name + "=" + (end - start) / 1_000_000)) {
+                commit(event, name, end);
+            }
+        }
+    }
+
+    /**
+     * @param name The phase, e.g. {@link #LOAD_DATA}.
+     * @return The running phase; close it (e.g. with try-with-resources) when done.
+     */
+    public static Phase begin(String name) {
+        return new Phase(name);
+    }
+
+    /**
+     * Marks a point in startup, logs the summary so far, and exits if the benchmark asked to stop here.
+     * @param name The milestone, e.g. {@link #LOGIN_SCREEN}.
+     */
+    public static void milestone(String name) {
+        long now = System.nanoTime();
+        if (!record(name, name + "@" + (now - LAUNCH_NANOS) / 1_000_000)) {
+            return;
+        }
+        commit(new StartupPhaseEvent(), name, now);
+        if (!INIT.equals(name)) {
+            logger.info(summary());
+        }
+        if (name.equals(System.getProperty(EXIT_AT_PROPERTY))) {
+            // Halt rather than exit: shutdown hooks would save the data and skew the next run
+            Runtime.getRuntime().halt(0);
+        }
+    }
+
+    /**
+     * @return The summary line, e.g. {@code Startup: init@310 loadData=905 loginScreen@1830}.
+     */
+    public static synchronized String summary() {
+        return "Startup: " + String.join(" ", recorded.values());
+    }
+
+    private static synchronized boolean record(String name, String entry) {
+        return recorded.putIfAbsent(name, entry) == null;
+    }
+
+    private static void commit(StartupPhaseEvent event, String name, long nanos) {
+        if (event.shouldCommit()) {
+            event.phase = name;
+            event.sinceLaunch = (nanos - LAUNCH_NANOS) / 1_000_000;
+            event.commit();
+        }
+    }
+
+    private static long launchEpochMillis() {
+        return ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElseGet(System::currentTimeMillis);
+    }
+}
@@ -3,7 +3,7 @@ package com.example.nepaltourism.models;
 import java.time.LocalDate;
 import java.util.Objects;
 
-public class Booking {
+public class Booking implements Versioned {
     private String id; // Unique booking ID
     private String touristId; // ID of the Tourist
     private String guideId; // ID of the assigned Guide (can be null initially)
@@ -14,6 +14,7 @@ public class Booking {
     private String status; // e.g., "Pending", "Confirmed", "Completed", "Cancelled"
     private double totalPrice; // Final price after discounts
     private String discountApplied; // Description of discount (e.g., "Dashain 10%")
+    private volatile long version; // In-memory change counter, bumped by the data layer (not saved to CSV)
 
     public Booking() {
         // Default constructor
@@ -114,6 +115,16 @@ public class Booking {
         this.discountApplied = discountApplied;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
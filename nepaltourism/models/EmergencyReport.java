@@ -1,9 +1,11 @@
 package com.example.nepaltourism.models;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class EmergencyReport {
+public class EmergencyReport implements Versioned {
     private String id; // Unique report ID
     private String reporterId; // ID of the User (Tourist or Guide) reporting
     private String reporterType; // "Tourist" or "Guide"
@@ -14,6 +16,10 @@ public class EmergencyReport {
     private String contactNumber; // Contact number for the reporter
     private LocalDateTime timestamp; // When the report was submitted
     private String status; // Status of the report (e.g., "Reported", "Acknowledged", "Resolved")
+    // Copy-on-write: saving iterates these on other threads while a duplicate is being linked
+    private List<String> linkedReporterIds = new CopyOnWriteArrayList<>(); // Other users who reported the same incident
+    private List<LinkedReport> linkedReports = new CopyOnWriteArrayList<>(); // Contact and description of each merged duplicate
+    private volatile long version; // In-memory change counter, bumped by the data layer (not saved to CSV)
 
     public EmergencyReport() {
         // Default constructor
@@ -116,6 +122,55 @@ public class EmergencyReport {
         this.status = status;
     }
 
+    public List<String> getLinkedReporterIds() {
+        return linkedReporterIds;
+    }
+
+    public void setLinkedReporterIds(List<String> linkedReporterIds) {
+        this.linkedReporterIds = linkedReporterIds != null ? new CopyOnWriteArrayList<>(linkedReporterIds) : new CopyOnWriteArrayList<>();
+    }
+
+    public List<LinkedReport> getLinkedReports() {
+        return linkedReports;
+    }
+
+    public void setLinkedReports(List<LinkedReport> linkedReports) {
+        this.linkedReports = linkedReports != null ? new CopyOnWriteArrayList<>(linkedReports) : new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Merges a duplicate report into this incident, keeping its contact number and description
+     * (every duplicate, even a repeat call from the same reporter) and linking its reporter.
+     * @param duplicate The report that was folded into this one.
+     */
+    public void addLinkedReport(EmergencyReport duplicate) {
+        linkedReports.add(new LinkedReport(duplicate.getReporterId(), duplicate.getContactNumber(),
+                duplicate.getDescription(), duplicate.getTimestamp()));
+        addLinkedReporter(duplicate.getReporterId());
+    }
+
+    /**
+     * Links another reporter to this incident, ignoring the original reporter and repeats.
+     * @param reporterId The user who filed a duplicate report.
+     * @return True if the reporter was newly linked.
+     */
+    public boolean addLinkedReporter(String reporterId) {
+        if (reporterId == null || reporterId.equals(this.reporterId) || linkedReporterIds.contains(reporterId)) {
+            return false;
+        }
+        return linkedReporterIds.add(reporterId);
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -142,6 +197,8 @@ public class EmergencyReport {
                 ", contactNumber='" + contactNumber + '\'' +
                 ", timestamp=" + timestamp +
                 ", status='" + status + '\'' +
+                ", linkedReporterIds=" + linkedReporterIds +
+                ", linkedReports=" + linkedReports +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.nepaltourism.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * A duplicate emergency report merged into an open incident: who reported it, how to reach
+ * them and what they said, so responders can contact every caller, not just the first.
+ */
+public class LinkedReport {
+    private String reporterId; // ID of the User who filed the duplicate
+    private String contactNumber; // Contact number given with the duplicate
+    private String description; // The duplicate's own description of the situation
+    private LocalDateTime timestamp; // When the duplicate was submitted
+
+    public LinkedReport() {
+        // Default constructor
+    }
+
+    public LinkedReport(String reporterId, String contactNumber, String description, LocalDateTime timestamp) {
+        this.reporterId = reporterId;
+        this.contactNumber = contactNumber;
+        this.description = description;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getReporterId() {
+        return reporterId;
+    }
+
+    public void setReporterId(String reporterId) {
+        this.reporterId = reporterId;
+    }
+
+    public String getContactNumber() {
+        return contactNumber;
+    }
+
+    public void setContactNumber(String contactNumber) {
+        this.contactNumber = contactNumber;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkedReport{" +
+                "reporterId='" + reporterId + '\'' +
+                ", contactNumber='" + contactNumber + '\'' +
+                ", description='" + description + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
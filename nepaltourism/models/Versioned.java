@@ -0,0 +1,13 @@
+package com.example.nepaltourism.models;
+
+/**
+ * An entity whose changes are counted, so an update can check that nobody else
+ * changed the entity since it was read (optimistic concurrency).
+ * The version lives in memory only and starts at 0 when data is loaded.
+ */
+public interface Versioned {
+
+    long getVersion();
+
+    void setVersion(long version);
+}
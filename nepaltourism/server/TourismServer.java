@@ -0,0 +1,362 @@
+package com.example.nepaltourism.server;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.diagnostics.Diagnostics;
+import com.example.nepaltourism.diagnostics.Metrics;
+import com.example.nepaltourism.diagnostics.StartupTimer;
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.models.EmergencyReport;
+import com.example.nepaltourism.models.User;
+import com.example.nepaltourism.services.BookingQuery;
+import com.example.nepaltourism.services.Page;
+import com.example.nepaltourism.services.TourismDataService;
+import com.example.nepaltourism.services.UpdateResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless mode: serves booking and emergency operations over a local HTTP API so several
+ * front ends (front desk, kiosks, partner scripts) share one process and one in-memory index.
+ *
+ * <pre>
+ * GET  /api/attractions?q=&amp;region=&amp;category=   search active attractions
+ * GET  /api/bookings?status=&amp;sort=&amp;desc=&amp;offset=&amp;limit=   one page of bookings, sorted by id unless sort names a column
+ * POST /api/bookings                            {touristId, attractionId, guideId?, tourDate, numberOfPeople, specialRequests?}
+ * POST /api/bookings/{id}/status                {status, version?}   409 if the booking changed since that version
+ * POST /api/emergencies                         {reporterId, location, emergencyType, priority, description, contactNumber}
+ * </pre>
+ *
+ * Start with {@code --headless [--port=8085]}. The server binds to the loopback address only.
+ */
+public class TourismServer {
+
+    private static final Logger logger = Logger.getLogger(TourismServer.class.getName());
+
+    public static final int DEFAULT_PORT = 8085;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final TourismDataService dataService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public TourismServer(TourismDataService dataService, int port) throws IOException {
+        this.dataService = dataService;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/attractions", exchange -> handle(exchange, this::handleAttractions));
+        server.createContext("/api/bookings", exchange -> handle(exchange, this::handleBookings));
+        server.createContext("/api/emergencies", exchange -> handle(exchange, this::handleEmergencies));
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Tourism API listening on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for in-flight ones and saves all data.
+     */
+    public void stop() {
+        server.stop(2);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dataService.saveAllData();
+        logger.info("Tourism API stopped.");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * One virtual thread per request where the runtime has them (Java 21+); the project still
+     * targets Java 17, so older runtimes fall back to a cached pool of platform threads.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.info("Virtual threads unavailable on this runtime, using a cached thread pool.");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // --- Handlers ---
+
+    private Response handleAttractions(HttpExchange exchange) {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            return Response.error(405, "Use GET");
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Attraction attraction : dataService.searchAttractions(query.get("q"), query.get("region"), query.get("category"))) {
+            results.add(toJson(attraction));
+        }
+        return new Response(200, results);
+    }
+
+    private Response handleBookings(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if ("GET".equals(exchange.getRequestMethod()) && ("/api/bookings".equals(path) || "/api/bookings/".equals(path))) {
+            return listBookings(parseQuery(exchange.getRequestURI().getRawQuery()));
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            return Response.error(405, "Use GET or POST");
+        }
+        Map<String, String> body = readBody(exchange);
+
+        if ("/api/bookings".equals(path) || "/api/bookings/".equals(path)) {
+            LocalDate tourDate;
+            int numberOfPeople;
+            try {
+                tourDate = LocalDate.parse(require(body, "tourDate"));
+                numberOfPeople = Integer.parseInt(require(body, "numberOfPeople"));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return Response.error(400, "tourDate must be yyyy-MM-dd and numberOfPeople a whole number");
+            }
+            Booking booking = dataService.createBooking(require(body, "touristId"), require(body, "attractionId"),
+                    body.get("guideId"), tourDate, numberOfPeople, body.get("specialRequests"));
+            return new Response(201, toJson(booking));
+        }
+
+        String[] segments = path.split("/");
+        // "", "api", "bookings", "{id}", "status"
+        if (segments.length == 5 && "status".equals(segments[4])) {
+            long expectedVersion;
+            try {
+                expectedVersion = body.containsKey("version") ? Long.parseLong(body.get("version")) : TourismDataService.ANY_VERSION;
+            } catch (NumberFormatException e) {
+                return Response.error(400, "version must be a whole number");
+            }
+            UpdateResult<Booking> result = dataService.updateBookingStatus(segments[3], expectedVersion, require(body, "status"));
+            switch (result.getStatus()) {
+                case UPDATED:
+                    return new Response(200, toJson(result.getCurrent()));
+                case CONFLICT:
+                    // Send the current state back so the client can retry against it
+                    return new Response(409, toJson(result.getCurrent()));
+                default:
+                    return Response.error(404, "Booking not found: " + segments[3]);
+            }
+        }
+        return Response.error(404, "Not found");
+    }
+
+    private Response listBookings(Map<String, String> params) {
+        BookingQuery.SortKey sortKey;
+        int offset;
+        int limit;
+        try {
+            sortKey = BookingQuery.SortKey.valueOf(params.getOrDefault("sort", "id").toUpperCase(Locale.ROOT));
+            offset = Integer.parseInt(params.getOrDefault("offset", "0"));
+            limit = Integer.parseInt(params.getOrDefault("limit", "50"));
+        } catch (IllegalArgumentException e) {
+            return Response.error(400, "sort must be one of " + Arrays.toString(BookingQuery.SortKey.values())
+                    + ", offset and limit whole numbers");
+        }
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Response.error(400, "offset must be 0 or more and limit between 1 and " + MAX_PAGE_SIZE);
+        }
+        BookingQuery query = new BookingQuery(params.get("status"), sortKey, !"true".equals(params.get("desc")));
+        Page<Booking> page = dataService.pageBookings(query, offset, limit);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Booking booking : page.getRows()) {
+            rows.add(toJson(booking));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("offset", page.getOffset());
+        json.put("total", page.getTotal());
+        json.put("bookings", rows);
+        return new Response(200, json);
+    }
+
+    private Response handleEmergencies(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            return Response.error(405, "Use POST");
+        }
+        Map<String, String> body = readBody(exchange);
+        String reporterId = require(body, "reporterId");
+        User reporter = dataService.findUser(reporterId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown reporter: " + reporterId));
+
+        String reportId = "ER" + UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
+        EmergencyReport report = new EmergencyReport(reportId, reporterId, reporter.getUserType(),
+                require(body, "location"), require(body, "emergencyType"), require(body, "priority"),
+                require(body, "description"), require(body, "contactNumber"));
+
+        TourismDataService.EmergencySubmission submission = dataService.submitEmergency(report);
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", submission.getIncident().getId());
+        json.put("merged", submission.isMerged());
+        json.put("priority", submission.getIncident().getPriority());
+        json.put("status", submission.getIncident().getStatus());
+        json.put("version", submission.getIncident().getVersion());
+        json.put("notifiedGuides", submission.getNotifiedGuides());
+        return new Response(submission.isMerged() ? 200 : 201, json);
+    }
+
+    // --- Plumbing ---
+
+    private interface Endpoint {
+        Response serve(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        final int status;
+        final Object body;
+
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Map.of("error", message));
+        }
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        Response response;
+        try {
+            response = endpoint.serve(exchange);
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Request failed: " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+            response = Response.error(500, "Internal error");
+        }
+        byte[] bytes = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a JSON object body, or a form-encoded one for simple scripts.
+     */
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body too large");
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8).trim();
+        // Many clients label JSON as form data by default, so go by the body itself
+        return text.startsWith("{") ? Json.parseObject(text) : parseQuery(text);
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            if (!value.isEmpty()) {
+                params.put(key, value);
+            }
+        }
+        return params;
+    }
+
+    private static String require(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing field: " + field);
+        }
+        return value.trim();
+    }
+
+    private static Map<String, Object> toJson(Attraction attraction) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", attraction.getId());
+        json.put("name", attraction.getName());
+        json.put("region", attraction.getRegion());
+        json.put("category", attraction.getCategory());
+        json.put("difficulty", attraction.getDifficulty());
+        json.put("durationDays", attraction.getDurationDays());
+        json.put("priceUSD", attraction.getPriceUSD());
+        json.put("rating", attraction.getRating());
+        json.put("altitudeMeters", attraction.getAltitudeMeters());
+        json.put("description", attraction.getDescription());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Booking booking) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", booking.getId());
+        json.put("touristId", booking.getTouristId());
+        json.put("guideId", booking.getGuideId());
+        json.put("attractionId", booking.getAttractionId());
+        json.put("tourDate", booking.getTourDate());
+        json.put("numberOfPeople", booking.getNumberOfPeople());
+        json.put("specialRequests", booking.getSpecialRequests());
+        json.put("status", booking.getStatus());
+        json.put("totalPrice", booking.getTotalPrice());
+        json.put("discountApplied", booking.getDiscountApplied());
+        json.put("version", booking.getVersion());
+        return json;
+    }
+
+    /**
+     * Loads the CSV data and serves it until the process is stopped.
+     * @param args Optional {@code --port=NNNN}.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            }
+        }
+        StartupTimer.milestone(StartupTimer.INIT);
+        TourismDataService dataService;
+        StartupTimer.Phase loading = StartupTimer.begin(StartupTimer.LOAD_DATA);
+        try {
+            dataService = new TourismDataService(new CSVDataManager());
+            dataService.load();
+        } finally {
+            loading.close();
+        }
+        Metrics.startDumping(dataService.getDataManager().getDataDir());
+        Diagnostics.start(dataService.getDataManager().getDataDir());
+        try {
+            TourismServer server = new TourismServer(dataService, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "tourism-api-shutdown"));
+            server.start();
+            StartupTimer.milestone(StartupTimer.API_READY);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to start the tourism API on port " + port, e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.diagnostics.AttractionSearchEvent;
+import com.example.nepaltourism.models.Attraction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The attraction search shared by the tourist dashboard and the API: active attractions whose
+ * name or description contains the text (ignoring case), in a region and category if given.
+ * <p>
+ * The text is compared in place rather than lower-casing every name and description, so a
+ * search, which runs on every keystroke, allocates nothing per attraction.
+ */
+public final class AttractionSearch {
+
+    private final String text;
+    private final String region;
+    private final String category;
+
+    /**
+     * @param text Text to find in the name or description; null or empty matches all.
+     * @param region Exact region, or null for all regions.
+     * @param category Exact category, or null for all categories.
+     */
+    public AttractionSearch(String text, String region, String category) {
+        this.text = text != null ? text : "";
+        this.region = region;
+        this.category = category;
+    }
+
+    public boolean matches(Attraction attraction) {
+        if (!attraction.isActive()) {
+            return false;
+        }
+        if (region != null && !region.equals(attraction.getRegion())) {
+            return false;
+        }
+        if (category != null && !category.equals(attraction.getCategory())) {
+            return false;
+        }
+        return text.isEmpty() || containsIgnoreCase(attraction.getName(), text)
+                || containsIgnoreCase(attraction.getDescription(), text);
+    }
+
+    /**
+     * @return The matching attractions, in the order given.
+     */
+    public List<Attraction> filter(Collection<Attraction> attractions) {
+        AttractionSearchEvent event = AttractionSearchEvent.start();
+        List<Attraction> matches = new ArrayList<>();
+        for (Attraction attraction : attractions) {
+            if (matches(attraction)) {
+                matches.add(attraction);
+            }
+        }
+        event.end(text, region, category, attractions.size(), matches.size());
+        return matches;
+    }
+
+    static boolean containsIgnoreCase(String value, String part) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0, last = value.length() - part.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
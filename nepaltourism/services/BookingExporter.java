@@ -0,0 +1,260 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.utils.Formats;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes bookings to a file row by row as they are read, so an export never builds the whole
+ * file in memory and can run on a background thread while the UI stays responsive.
+ * <p>
+ * The file is written next to the target under a temporary name and moved into place only
+ * when complete, so a cancelled or failed export never leaves a half-written file behind.
+ * <p>
+ * The columnar format is gzip-compressed and stores the rows in groups of {@value #ROW_GROUP},
+ * each group column by column, so repeated values (statuses, guides, dates) sit together and
+ * compress well, and a reader can skip the columns it does not need:
+ * <pre>
+ * "NTCOL" version:byte columnCount:short (name:UTF type:byte)*   type is S, D, I or F
+ * (rowCount:int column*)*  0:int
+ *   S: (present:boolean UTF?)*   D: epochDay:long, Long.MIN_VALUE if none
+ *   I: int*                      F: double*
+ * </pre>
+ */
+public class BookingExporter {
+
+    private static final Logger logger = Logger.getLogger(BookingExporter.class.getName());
+
+    public enum Format {
+        CSV("CSV Files", ".csv"),
+        CSV_GZIP("Compressed CSV Files", ".csv.gz"),
+        COLUMNAR("Columnar Files", ".ntcol");
+
+        private final String description;
+        private final String extension;
+
+        Format(String description, String extension) {
+            this.description = description;
+            this.extension = extension;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @return The format whose extension the file name ends with, or null.
+         */
+        public static Format forFileName(String fileName) {
+            Format match = null;
+            for (Format format : values()) {
+                // Longest match wins, so "x.csv.gz" is compressed CSV rather than plain CSV
+                if (fileName.toLowerCase().endsWith(format.extension)
+                        && (match == null || format.extension.length() > match.extension.length())) {
+                    match = format;
+                }
+            }
+            return match;
+        }
+    }
+
+    /**
+     * Lets the caller follow and stop an export.
+     */
+    public interface Progress {
+        /**
+         * @param done Bookings looked at so far.
+         * @param total Bookings to look at.
+         */
+        void update(long done, long total);
+
+        boolean isCancelled();
+    }
+
+    public static final String CSV_HEADER = "Booking ID,Tourist ID,Guide ID,Attraction ID,Tour Date,Number of People,Special Requests,Status,Total Price,Discount Applied";
+
+    private static final String[] COLUMN_NAMES = {"id", "touristId", "guideId", "attractionId", "tourDate",
+            "numberOfPeople", "specialRequests", "status", "totalPrice", "discountApplied"};
+    private static final byte[] COLUMN_TYPES = {'S', 'S', 'S', 'S', 'D', 'I', 'S', 'S', 'F', 'S'};
+    private static final byte COLUMNAR_VERSION = 1;
+
+    private static final int BUFFER_BYTES = 256 * 1024;
+    static final int ROW_GROUP = 4096;
+    // How often to report progress and check for cancellation
+    private static final int PROGRESS_EVERY = 1024;
+
+    /**
+     * @param bookings The bookings to export, in file order; a snapshot, since it is read
+     *                 while other threads may change the data.
+     * @param from First tour date to include, or null for no lower bound.
+     * @param to Last tour date to include, or null for no upper bound.
+     * @param format How to write the file.
+     * @param target The file to create or replace.
+     * @param progress Told how far the export got; may stop it.
+     * @return The number of bookings written.
+     * @throws CancellationException If the export was cancelled; nothing is written.
+     */
+    public long export(List<Booking> bookings, LocalDate from, LocalDate to, Format format, Path target,
+                       Progress progress) throws IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long start = System.nanoTime();
+        long written;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES);
+            if (format != Format.CSV) {
+                out = new GZIPOutputStream(out, BUFFER_BYTES);
+            }
+            try (OutputStream stream = out) {
+                written = format == Format.COLUMNAR
+                        ? writeColumnar(bookings, from, to, stream, progress)
+                        : writeCsv(bookings, from, to, stream, progress);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Exported " + written + " bookings to " + target + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return written;
+    }
+
+    private long writeCsv(List<Booking> bookings, LocalDate from, LocalDate to, OutputStream out,
+                          Progress progress) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        StringBuilder row = new StringBuilder(256);
+        long written = 0;
+        int total = bookings.size();
+        for (int i = 0; i < total; i++) {
+            checkProgress(i, total, progress);
+            Booking booking = bookings.get(i);
+            if (!inRange(booking, from, to)) continue;
+
+            row.setLength(0);
+            appendCsv(row, booking.getId()).append(',');
+            appendCsv(row, booking.getTouristId()).append(',');
+            appendCsv(row, booking.getGuideId()).append(',');
+            appendCsv(row, booking.getAttractionId()).append(',');
+            row.append(booking.getTourDate() != null ? booking.getTourDate().toString() : "").append(',');
+            row.append(booking.getNumberOfPeople()).append(',');
+            appendCsv(row, booking.getSpecialRequests()).append(',');
+            appendCsv(row, booking.getStatus()).append(',');
+            Formats.appendTwoDecimals(row, booking.getTotalPrice()).append(',');
+            appendCsv(row, booking.getDiscountApplied()).append('\n');
+            writer.append(row);
+            written++;
+        }
+        writer.flush();
+        progress.update(total, total);
+        return written;
+    }
+
+    private long writeColumnar(List<Booking> bookings, LocalDate from, LocalDate to, OutputStream out,
+                               Progress progress) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeBytes("NTCOL");
+        data.writeByte(COLUMNAR_VERSION);
+        data.writeShort(COLUMN_NAMES.length);
+        for (int c = 0; c < COLUMN_NAMES.length; c++) {
+            data.writeUTF(COLUMN_NAMES[c]);
+            data.writeByte(COLUMN_TYPES[c]);
+        }
+        List<Booking> group = new ArrayList<>(ROW_GROUP);
+        long written = 0;
+        int total = bookings.size();
+        for (int i = 0; i < total; i++) {
+            checkProgress(i, total, progress);
+            Booking booking = bookings.get(i);
+            if (!inRange(booking, from, to)) continue;
+            group.add(booking);
+            if (group.size() == ROW_GROUP) {
+                writeRowGroup(group, data);
+                written += group.size();
+                group.clear();
+            }
+        }
+        if (!group.isEmpty()) {
+            writeRowGroup(group, data);
+            written += group.size();
+        }
+        data.writeInt(0);
+        data.flush();
+        progress.update(total, total);
+        return written;
+    }
+
+    private static void writeRowGroup(List<Booking> group, DataOutputStream data) throws IOException {
+        data.writeInt(group.size());
+        for (Booking b : group) writeString(data, b.getId());
+        for (Booking b : group) writeString(data, b.getTouristId());
+        for (Booking b : group) writeString(data, b.getGuideId());
+        for (Booking b : group) writeString(data, b.getAttractionId());
+        for (Booking b : group) data.writeLong(b.getTourDate() != null ? b.getTourDate().toEpochDay() : Long.MIN_VALUE);
+        for (Booking b : group) data.writeInt(b.getNumberOfPeople());
+        for (Booking b : group) writeString(data, b.getSpecialRequests());
+        for (Booking b : group) writeString(data, b.getStatus());
+        for (Booking b : group) data.writeDouble(b.getTotalPrice());
+        for (Booking b : group) writeString(data, b.getDiscountApplied());
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        data.writeBoolean(value != null);
+        if (value != null) {
+            data.writeUTF(value);
+        }
+    }
+
+    private static void checkProgress(int done, int total, Progress progress) {
+        if (done % PROGRESS_EVERY == 0) {
+            if (progress.isCancelled()) {
+                throw new CancellationException("Export cancelled");
+            }
+            progress.update(done, total);
+        }
+    }
+
+    private static boolean inRange(Booking booking, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        LocalDate date = booking.getTourDate();
+        return date != null && (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    private static StringBuilder appendCsv(StringBuilder sb, String field) {
+        if (field == null) {
+            return sb;
+        }
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0) {
+            sb.append('"');
+            for (int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                if (c == '"') sb.append('"');
+                sb.append(c);
+            }
+            return sb.append('"');
+        }
+        return sb.append(field);
+    }
+}
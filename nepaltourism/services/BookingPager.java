@@ -0,0 +1,258 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.models.User;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Serves bookings a page at a time, filtered and sorted, so a table never has to hold or
+ * sort every booking itself.
+ * <p>
+ * Each sort that is asked for gets a sorted index of every booking, split into one bucket per
+ * status, so filtering by status just picks a bucket and never re-tests the bookings. The index
+ * is kept up to date from the change events (a changed booking moves to its new place, and to
+ * its new status bucket, with binary searches) and the few most recently used sorts are kept,
+ * so switching back to a recent sort is immediate. Sorts by tourist, guide or attraction name
+ * are dropped whenever a user or attraction changes, and built again when next asked for.
+ * Safe to call from any thread.
+ */
+public class BookingPager implements ChangeEventBus.Listener {
+
+    private static final Logger logger = Logger.getLogger(BookingPager.class.getName());
+
+    /** How many sorted indexes to keep; one per recently used column and direction. */
+    private static final int MAX_INDEXES = 3;
+
+    private final Supplier<List<Booking>> source;
+    private final BookingQuery.Names names;
+    // Keyed by the sort alone (status null); every status filter for that sort shares the index
+    private final Map<BookingQuery, Index> indexes = new LinkedHashMap<>(MAX_INDEXES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BookingQuery, Index> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+    // Changes seen while an index is being built outside the lock; replayed onto it afterwards
+    private final List<ChangeEvent<?>> buildLog = new ArrayList<>();
+    private int building;
+    // Counts user and attraction changes, so a name sort built across one is not kept
+    private long namesVersion;
+
+    /**
+     * @param source The current bookings, e.g. the booking store's snapshot.
+     * @param names Looks up the names that the tourist, guide and attraction sorts order by.
+     */
+    public BookingPager(Supplier<List<Booking>> source, BookingQuery.Names names) {
+        this.source = source;
+        this.names = names;
+    }
+
+    /**
+     * @param offset Index of the first row wanted.
+     * @param limit At most this many rows.
+     * @return The rows in that range (fewer at the end) and the query's total row count.
+     */
+    public Page<Booking> page(BookingQuery query, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        Index index = index(query);
+        synchronized (this) {
+            List<Row> matching = index.rows(query.getStatus());
+            int total = matching.size();
+            int from = Math.min(offset, total);
+            int to = (int) Math.min((long) from + limit, total);
+            List<Booking> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                rows.add(matching.get(i).booking);
+            }
+            return new Page<>(rows, from, total);
+        }
+    }
+
+    /**
+     * @return How many bookings match the query.
+     */
+    public int count(BookingQuery query) {
+        Index index = index(query);
+        synchronized (this) {
+            return index.rows(query.getStatus()).size();
+        }
+    }
+
+    /**
+     * @return How many bookings have each status, read off the status buckets of the query's
+     *         sort (its status filter is ignored). Statuses with no bookings are left out.
+     */
+    public Map<String, Integer> countByStatus(BookingQuery query) {
+        Index index = index(query);
+        synchronized (this) {
+            Map<String, Integer> counts = new HashMap<>();
+            index.byStatus.forEach((status, rows) -> {
+                if (!rows.isEmpty()) {
+                    counts.put(status, rows.size());
+                }
+            });
+            return counts;
+        }
+    }
+
+    /**
+     * Drops every index, e.g. after the bookings were reloaded from disk.
+     */
+    public synchronized void invalidate() {
+        indexes.clear();
+    }
+
+    @Override
+    public void onChange(ChangeEvent<?> event) {
+        if (User.class.isAssignableFrom(event.getType()) || event.getType() == Attraction.class) {
+            synchronized (this) {
+                namesVersion++;
+                indexes.keySet().removeIf(sort -> sort.getSortKey().sortsByName());
+            }
+            return;
+        }
+        if (event.getType() != Booking.class) {
+            return;
+        }
+        synchronized (this) {
+            for (Index index : indexes.values()) {
+                index.apply(event);
+            }
+            if (building > 0) {
+                buildLog.add(event);
+            }
+        }
+    }
+
+    private Index index(BookingQuery query) {
+        BookingQuery sort = query.withStatus(null);
+        int logStart;
+        long namesSeen;
+        synchronized (this) {
+            Index cached = indexes.get(sort);
+            if (cached != null) {
+                return cached;
+            }
+            building++;
+            logStart = buildLog.size();
+            namesSeen = namesVersion;
+        }
+        // Sorting every booking can take a while, so do it without holding up writers and other pages
+        long start = System.nanoTime();
+        Index built = new Index(sort, source.get(), names);
+        synchronized (this) {
+            building--;
+            // Anything published since the snapshot was taken; applying a change twice is harmless
+            for (ChangeEvent<?> event : buildLog.subList(logStart, buildLog.size())) {
+                built.apply(event);
+            }
+            if (building == 0) {
+                buildLog.clear();
+            }
+            Index raced = indexes.get(sort);
+            if (raced != null) {
+                return raced;
+            }
+            if (sort.getSortKey().sortsByName() && namesVersion != namesSeen) {
+                // Some rows may be placed by a name that has since changed; good for this page only
+                return built;
+            }
+            indexes.put(sort, built);
+        }
+        logger.fine(() -> "Indexed " + built.all.size() + " bookings by " + sort
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return built;
+    }
+
+    /**
+     * Every booking sorted one way, plus the same order split by status. Each row remembers the
+     * sort value and status it was placed by, since bookings are changed in place and the old
+     * values are needed to find it again.
+     */
+    private static final class Index {
+        final BookingQuery.SortKey key;
+        final BookingQuery.Names names;
+        final Comparator<Row> order;
+        final List<Row> all;
+        final Map<String, List<Row>> byStatus = new HashMap<>();
+        final Map<String, Row> byId = new HashMap<>();
+
+        Index(BookingQuery sort, List<Booking> bookings, BookingQuery.Names names) {
+            this.key = sort.getSortKey();
+            this.names = names;
+            Comparator<Comparable<?>> values = sort.valueOrder();
+            // Ties broken by id so every row has exactly one place
+            this.order = Comparator.<Row, Comparable<?>>comparing(row -> row.key, values)
+                    .thenComparing(row -> row.id);
+            this.all = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                Row row = new Row(key.valueOf(booking, names), booking.getId(), booking.getStatus(), booking);
+                all.add(row);
+                byId.put(row.id, row);
+            }
+            all.sort(order);
+            // Splitting the sorted list keeps each bucket sorted without sorting again
+            for (Row row : all) {
+                bucket(row.status).add(row);
+            }
+        }
+
+        List<Row> rows(String status) {
+            if (status == null) {
+                return all;
+            }
+            return byStatus.getOrDefault(status, Collections.emptyList());
+        }
+
+        void apply(ChangeEvent<?> event) {
+            Row previous = byId.remove(event.getId());
+            if (previous != null) {
+                remove(all, previous);
+                remove(bucket(previous.status), previous);
+            }
+            Booking booking = (Booking) event.getEntity();
+            if (event.getKind() != ChangeEvent.Kind.REMOVED && booking != null) {
+                Row row = new Row(key.valueOf(booking, names), event.getId(), booking.getStatus(), booking);
+                insert(all, row);
+                insert(bucket(row.status), row);
+                byId.put(row.id, row);
+            }
+        }
+
+        private List<Row> bucket(String status) {
+            return byStatus.computeIfAbsent(status, s -> new ArrayList<>());
+        }
+
+        private void remove(List<Row> rows, Row row) {
+            int index = Collections.binarySearch(rows, row, order);
+            if (index >= 0) {
+                rows.remove(index);
+            }
+        }
+
+        private void insert(List<Row> rows, Row row) {
+            int index = Collections.binarySearch(rows, row, order);
+            rows.add(index >= 0 ? index : -index - 1, row);
+        }
+    }
+
+    private static final class Row {
+        final Comparable<?> key;
+        final String id;
+        final String status;
+        final Booking booking;
+
+        Row(Comparable<?> key, String id, String status, Booking booking) {
+            this.key = key;
+            this.id = id;
+            this.status = status != null ? status : "";
+            this.booking = booking;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Booking;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Which bookings to list and in what order: an optional status filter plus a sort key.
+ * Immutable, so it can key cached views in {@link BookingPager}.
+ */
+public final class BookingQuery {
+
+    /**
+     * Looks up the names the bookings table shows in place of ids.
+     */
+    public interface Names {
+        /** @return The user's name, or null if there is no such user. */
+        String userName(String userId);
+
+        /** @return The attraction's name, or null if there is no such attraction. */
+        String attractionName(String attractionId);
+    }
+
+    /**
+     * Columns bookings can be sorted by. Tourist, guide and attraction sort by the name the
+     * table shows, ignoring case; bookings whose name cannot be found (e.g. no guide) go last.
+     */
+    public enum SortKey {
+        ID((b, names) -> b.getId()),
+        TOURIST((b, names) -> sortable(names.userName(b.getTouristId()))),
+        GUIDE((b, names) -> sortable(names.userName(b.getGuideId()))),
+        ATTRACTION((b, names) -> sortable(names.attractionName(b.getAttractionId()))),
+        TOUR_DATE((b, names) -> b.getTourDate()),
+        STATUS((b, names) -> b.getStatus()),
+        PRICE((b, names) -> b.getTotalPrice());
+
+        private final BiFunction<Booking, Names, ? extends Comparable<?>> extractor;
+
+        SortKey(BiFunction<Booking, Names, ? extends Comparable<?>> extractor) {
+            this.extractor = extractor;
+        }
+
+        /**
+         * @return The booking's current value for this key; may be null.
+         */
+        public Comparable<?> valueOf(Booking booking, Names names) {
+            return extractor.apply(booking, names);
+        }
+
+        /**
+         * @return True if the key's values depend on user or attraction names as well as the booking.
+         */
+        public boolean sortsByName() {
+            return this == TOURIST || this == GUIDE || this == ATTRACTION;
+        }
+
+        private static String sortable(String name) {
+            return name != null ? name.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+
+    /** Every booking, in id order. */
+    public static final BookingQuery ALL = new BookingQuery(null, SortKey.ID, true);
+
+    private final String status;
+    private final SortKey sortKey;
+    private final boolean ascending;
+
+    /**
+     * @param status Only bookings with this status, or null for all.
+     * @param sortKey What to sort by.
+     * @param ascending Sort direction.
+     */
+    public BookingQuery(String status, SortKey sortKey, boolean ascending) {
+        this.status = status;
+        this.sortKey = Objects.requireNonNull(sortKey);
+        this.ascending = ascending;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public BookingQuery withStatus(String status) {
+        return new BookingQuery(status, sortKey, ascending);
+    }
+
+    public BookingQuery withSort(SortKey sortKey, boolean ascending) {
+        return new BookingQuery(status, sortKey, ascending);
+    }
+
+    public boolean matches(Booking booking) {
+        return status == null || status.equals(booking.getStatus());
+    }
+
+    /**
+     * Orders sort values the way the query asks, nulls (e.g. no guide) last either way.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Comparator<Comparable<?>> valueOrder() {
+        Comparator<Comparable> natural = Comparator.naturalOrder();
+        Comparator order = Comparator.nullsLast(ascending ? natural : natural.reversed());
+        return order;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookingQuery)) return false;
+        BookingQuery that = (BookingQuery) o;
+        return ascending == that.ascending && Objects.equals(status, that.status) && sortKey == that.sortKey;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, sortKey, ascending);
+    }
+
+    @Override
+    public String toString() {
+        return (status != null ? status : "all") + " by " + sortKey + (ascending ? " asc" : " desc");
+    }
+}
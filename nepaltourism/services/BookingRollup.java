@@ -0,0 +1,271 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.utils.ChartRange;
+import com.example.nepaltourism.utils.Downsampling;
+import com.example.nepaltourism.utils.Formats;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Running totals over a set of bookings (all of them for the admin, one guide's or one
+ * tourist's for their dashboards), kept up to date one booking at a time so dashboards
+ * don't rescan every booking after each change.
+ * <p>
+ * Not thread-safe: each dashboard owns one and updates it on the FX thread.
+ */
+public class BookingRollup {
+
+    private final Predicate<Booking> scope;
+    // What each booking currently contributes, so an update can take the old values back out
+    private final Map<String, Contribution> contributions = new HashMap<>();
+
+    private double totalRevenue;
+    private final Map<String, Long> countByStatus = new HashMap<>();
+    private final Map<String, Sum> byTourist = new HashMap<>();
+    private long repeatCustomers;
+    private final SortedMap<YearMonth, Sum> byMonth = new TreeMap<>();
+    private final SortedMap<YearMonth, Sum> completedByMonth = new TreeMap<>();
+    private final Map<String, Sum> byAttraction = new HashMap<>();
+
+    /**
+     * @param scope Which bookings count, e.g. {@code b -> guideId.equals(b.getGuideId())}.
+     */
+    public BookingRollup(Predicate<Booking> scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * Starts over from a full list of bookings.
+     */
+    public void rebuild(Collection<Booking> bookings) {
+        contributions.clear();
+        totalRevenue = 0;
+        countByStatus.clear();
+        byTourist.clear();
+        repeatCustomers = 0;
+        byMonth.clear();
+        completedByMonth.clear();
+        byAttraction.clear();
+        for (Booking booking : bookings) {
+            apply(booking);
+        }
+    }
+
+    /**
+     * Adds or refreshes one booking. A booking that no longer matches the scope
+     * (e.g. reassigned to another guide) is taken out.
+     * @return True if the booking is in scope after the change.
+     */
+    public boolean apply(Booking booking) {
+        remove(booking.getId());
+        if (!scope.test(booking)) {
+            return false;
+        }
+        Contribution contribution = new Contribution(booking);
+        contributions.put(booking.getId(), contribution);
+        add(contribution, 1);
+        return true;
+    }
+
+    /**
+     * Takes a booking out of the totals.
+     * @return True if the booking was counted before.
+     */
+    public boolean remove(String bookingId) {
+        Contribution previous = contributions.remove(bookingId);
+        if (previous == null) {
+            return false;
+        }
+        add(previous, -1);
+        return true;
+    }
+
+    public boolean contains(String bookingId) {
+        return contributions.containsKey(bookingId);
+    }
+
+    private void add(Contribution c, int sign) {
+        totalRevenue += sign * c.price;
+        if (contributions.isEmpty()) {
+            totalRevenue = 0; // don't let rounding drift linger once nothing is counted
+        }
+        adjust(countByStatus, c.status, sign);
+        if (c.touristId != null) {
+            Sum tourist = byTourist.get(c.touristId);
+            long before = tourist != null ? tourist.count : 0;
+            adjust(byTourist, c.touristId, sign, c.price);
+            long after = before + sign;
+            if (before <= 1 && after > 1) repeatCustomers++;
+            if (before > 1 && after <= 1) repeatCustomers--;
+        }
+        if (c.attractionId != null) {
+            adjust(byAttraction, c.attractionId, sign, c.price);
+        }
+        if (c.month != null) {
+            adjust(byMonth, c.month, sign, c.price);
+            if (c.completed) {
+                adjust(completedByMonth, c.month, sign, c.price);
+            }
+        }
+    }
+
+    private static <K> void adjust(Map<K, Long> map, K key, long delta) {
+        map.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static <K> void adjust(Map<K, Sum> map, K key, int sign, double amount) {
+        Sum sum = map.computeIfAbsent(key, k -> new Sum());
+        sum.count += sign;
+        sum.total += sign * amount;
+        if (sum.count == 0) {
+            // Nothing left in this month, attraction or tourist, so it drops out of the charts and tables
+            map.remove(key);
+        }
+    }
+
+    public long getCount() {
+        return contributions.size();
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public long getCount(String status) {
+        return countByStatus.getOrDefault(status, 0L);
+    }
+
+    public long getRepeatCustomers() {
+        return repeatCustomers;
+    }
+
+    /**
+     * @return The tourist of a counted booking, or null if the booking is not counted.
+     */
+    public String getTouristId(String bookingId) {
+        Contribution contribution = contributions.get(bookingId);
+        return contribution != null ? contribution.touristId : null;
+    }
+
+    public long getCountByTourist(String touristId) {
+        Sum sum = byTourist.get(touristId);
+        return sum != null ? sum.count : 0;
+    }
+
+    public double getRevenueByTourist(String touristId) {
+        Sum sum = byTourist.get(touristId);
+        return sum != null ? sum.total : 0;
+    }
+
+    public Map<String, Long> getCountByAttraction() {
+        Map<String, Long> counts = new HashMap<>();
+        byAttraction.forEach((id, sum) -> counts.put(id, sum.count));
+        return counts;
+    }
+
+    public Map<String, Double> getRevenueByAttraction() {
+        Map<String, Double> revenue = new HashMap<>();
+        byAttraction.forEach((id, sum) -> revenue.put(id, sum.total));
+        return revenue;
+    }
+
+    public SortedMap<YearMonth, Double> getRevenueByMonth() {
+        SortedMap<YearMonth, Double> revenue = new TreeMap<>();
+        byMonth.forEach((month, sum) -> revenue.put(month, sum.total));
+        return revenue;
+    }
+
+    public SortedMap<YearMonth, Double> getCompletedRevenueByMonth() {
+        SortedMap<YearMonth, Double> revenue = new TreeMap<>();
+        completedByMonth.forEach((month, sum) -> revenue.put(month, sum.total));
+        return revenue;
+    }
+
+    public SortedMap<YearMonth, Long> getCompletedCountByMonth() {
+        SortedMap<YearMonth, Long> counts = new TreeMap<>();
+        completedByMonth.forEach((month, sum) -> counts.put(month, sum.count));
+        return counts;
+    }
+
+    /**
+     * Labels monthly totals for a chart: every month of the range in calendar order, with 0 for
+     * months without data, thinned out to the points there is room for. With
+     * {@link Downsampling#SUM} each point is the total of a run of months, labelled with its
+     * first and last month (e.g. "Jan 25–Mar 25"); otherwise each kept point is one month.
+     * @param byMonth Totals by month.
+     * @param range Which months to show.
+     * @param downsampling How to thin out the months when there are more than maxPoints.
+     * @param maxPoints How many points the chart has room for.
+     * @param locale Language of the month labels, e.g. "Jan 25".
+     * @return Label to value, in calendar order.
+     */
+    public static <N extends Number> Map<String, Number> monthlySeries(SortedMap<YearMonth, N> byMonth, ChartRange range,
+                                                                       Downsampling downsampling, int maxPoints, Locale locale) {
+        YearMonth now = YearMonth.now();
+        YearMonth from = range.getFrom(byMonth, now);
+        int months = (int) from.until(range.getTo(byMonth, now), ChronoUnit.MONTHS) + 1;
+        Number[] totals = new Number[months];
+        double[] values = new double[months];
+        for (int i = 0; i < months; i++) {
+            N total = byMonth.get(from.plusMonths(i));
+            totals[i] = total != null ? total : 0;
+            values[i] = totals[i].doubleValue();
+        }
+
+        Formats.MonthLabels labels = Formats.monthLabels(locale);
+        Map<String, Number> series = new LinkedHashMap<>();
+        int[] kept = downsampling.select(values, maxPoints);
+        for (int k = 0; k < kept.length; k++) {
+            int i = kept[k];
+            String label = labels.label(from.plusMonths(i));
+            Number value = totals[i];
+            int runEnd = k + 1 < kept.length ? kept[k + 1] : months;
+            if (downsampling == Downsampling.SUM && runEnd - i > 1) {
+                label += "\u2013" + labels.label(from.plusMonths(runEnd - 1));
+                value = sum(totals, i, runEnd);
+            }
+            series.merge(label, value, (a, b) -> a.doubleValue() + b.doubleValue());
+        }
+        return series;
+    }
+
+    // Whole-number totals (e.g. counts) stay whole
+    private static Number sum(Number[] totals, int from, int to) {
+        boolean whole = true;
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            whole &= totals[i] instanceof Long || totals[i] instanceof Integer;
+            sum += totals[i].doubleValue();
+        }
+        return whole ? (Number) Math.round(sum) : (Number) sum;
+    }
+
+    private static final class Sum {
+        long count;
+        double total;
+    }
+
+    private static final class Contribution {
+        final double price;
+        final String status;
+        final String touristId;
+        final String attractionId;
+        final YearMonth month;
+        final boolean completed;
+
+        Contribution(Booking booking) {
+            this.price = booking.getTotalPrice();
+            this.status = booking.getStatus() != null ? booking.getStatus() : "";
+            this.touristId = booking.getTouristId();
+            this.attractionId = booking.getAttractionId();
+            LocalDate date = booking.getTourDate();
+            this.month = date != null ? YearMonth.from(date) : null;
+            this.completed = "Completed".equalsIgnoreCase(status);
+        }
+    }
+}
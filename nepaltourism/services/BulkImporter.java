@@ -0,0 +1,322 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.models.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Imports users, attractions or bookings in bulk from a file in the same CSV format the app
+ * saves (header included), e.g. a partner's catalogue of treks.
+ * <p>
+ * Rows are parsed and checked in parallel, then checked in file order for ids and emails that
+ * are already taken (in the data or earlier in the file), and everything that passed is added
+ * in one batch with a single save. Rows that fail are reported with their line number and the
+ * reason, and nothing about them is changed.
+ */
+public class BulkImporter {
+
+    private static final Logger logger = Logger.getLogger(BulkImporter.class.getName());
+
+    public enum Kind {
+        USERS(CSVDataManager.USER_HEADER),
+        ATTRACTIONS(CSVDataManager.ATTRACTION_HEADER),
+        BOOKINGS(CSVDataManager.BOOKING_HEADER);
+
+        private final String header;
+
+        Kind(String header) {
+            this.header = header;
+        }
+
+        /**
+         * @return The header line the import file must start with.
+         */
+        public String getHeader() {
+            return header;
+        }
+    }
+
+    private final TourismDataService dataService;
+    private final CSVDataManager csv;
+
+    public BulkImporter(TourismDataService dataService) {
+        this.dataService = dataService;
+        this.csv = dataService.getDataManager();
+    }
+
+    /**
+     * @param kind What the file holds.
+     * @param file A CSV file with the matching header.
+     * @return How many rows were imported, and the rows that were not.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the header does not match.
+     */
+    public ImportResult importFile(Kind kind, Path file) throws IOException {
+        long start = System.nanoTime();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !kind.getHeader().equals(stripBom(lines.get(0)))) {
+            throw new IllegalArgumentException("The file does not start with the " + kind.name().toLowerCase()
+                    + " header: " + kind.getHeader());
+        }
+
+        // Parsing and per-row checks don't depend on each other, so they run on every core
+        List<Row> rows = IntStream.range(1, lines.size()).parallel()
+                .filter(i -> !lines.get(i).isBlank())
+                .mapToObj(i -> validate(kind, i + 1, lines.get(i)))
+                .collect(Collectors.toList());
+
+        List<Reject> rejects = new ArrayList<>();
+        List<Object> accepted = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        // In file order, so the first of two duplicate rows is the one kept
+        for (Row row : rows) {
+            String reason = row.reason != null ? row.reason : duplicateReason(kind, row.entity, seenIds, seenEmails);
+            if (reason != null) {
+                rejects.add(new Reject(row.line, reason, row.text));
+            } else {
+                accepted.add(row.entity);
+            }
+        }
+
+        int imported = commit(kind, accepted);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Imported " + imported + " " + kind.name().toLowerCase() + " from " + file + ", rejected "
+                + rejects.size() + ", in " + elapsedMillis + " ms");
+        return new ImportResult(kind, imported, rejects, elapsedMillis);
+    }
+
+    private Row validate(Kind kind, int line, String text) {
+        try {
+            String[] parts = csv.parseCSVLine(text);
+            Object entity;
+            switch (kind) {
+                case USERS:
+                    entity = checkUser(csv.parseUser(parts, true));
+                    break;
+                case ATTRACTIONS:
+                    entity = checkAttraction(csv.parseAttraction(parts, true));
+                    break;
+                default:
+                    entity = checkBooking(csv.parseBooking(parts, true));
+                    break;
+            }
+            return new Row(line, text, entity, null);
+        } catch (IllegalArgumentException e) {
+            return new Row(line, text, null, e.getMessage());
+        }
+    }
+
+    private static User checkUser(User user) {
+        require(user.getId(), "id");
+        require(user.getName(), "name");
+        require(user.getEmail(), "email");
+        if (!user.getEmail().contains("@")) {
+            throw new IllegalArgumentException("email is not an email address: '" + user.getEmail() + "'");
+        }
+        if (user instanceof Guide && ((Guide) user).getExperience() < 0) {
+            throw new IllegalArgumentException("experience must not be negative");
+        }
+        return user;
+    }
+
+    private static Attraction checkAttraction(Attraction attraction) {
+        require(attraction.getId(), "id");
+        require(attraction.getName(), "name");
+        require(attraction.getRegion(), "region");
+        if (attraction.getDurationDays() < 0 || attraction.getPriceUSD() < 0) {
+            throw new IllegalArgumentException("durationDays and priceUSD must not be negative");
+        }
+        return attraction;
+    }
+
+    private Booking checkBooking(Booking booking) {
+        require(booking.getId(), "id");
+        if (!TourismDataService.BOOKING_STATUSES.contains(booking.getStatus())) {
+            throw new IllegalArgumentException("status must be one of " + TourismDataService.BOOKING_STATUSES
+                    + ", found '" + booking.getStatus() + "'");
+        }
+        if (booking.getNumberOfPeople() < 1) {
+            throw new IllegalArgumentException("numberOfPeople must be at least 1");
+        }
+        // Lookups by id against the stores' indexes, safe from any thread
+        if (!(dataService.findUser(booking.getTouristId()).orElse(null) instanceof Tourist)) {
+            throw new IllegalArgumentException("no tourist with id '" + booking.getTouristId() + "'");
+        }
+        if (booking.getGuideId() != null && !(dataService.findUser(booking.getGuideId()).orElse(null) instanceof Guide)) {
+            throw new IllegalArgumentException("no guide with id '" + booking.getGuideId() + "'");
+        }
+        if (dataService.findAttraction(booking.getAttractionId()).isEmpty()) {
+            throw new IllegalArgumentException("no attraction with id '" + booking.getAttractionId() + "'");
+        }
+        return booking;
+    }
+
+    private static void require(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is empty");
+        }
+    }
+
+    private String duplicateReason(Kind kind, Object entity, Set<String> seenIds, Set<String> seenEmails) {
+        String id = idOf(entity);
+        boolean taken;
+        switch (kind) {
+            case USERS:
+                taken = dataService.findUser(id).isPresent();
+                break;
+            case ATTRACTIONS:
+                taken = dataService.findAttraction(id).isPresent();
+                break;
+            default:
+                taken = dataService.findBooking(id).isPresent();
+                break;
+        }
+        if (taken) {
+            return "id '" + id + "' already exists";
+        }
+        if (!seenIds.add(id)) {
+            return "id '" + id + "' appears earlier in the file";
+        }
+        if (entity instanceof User) {
+            String email = ((User) entity).getEmail();
+            if (dataService.findUserByEmail(email).isPresent()) {
+                return "email '" + email + "' is already registered";
+            }
+            if (!seenEmails.add(email.trim().toLowerCase(Locale.ROOT))) {
+                return "email '" + email + "' appears earlier in the file";
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int commit(Kind kind, List<Object> accepted) {
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+        switch (kind) {
+            case USERS:
+                return dataService.addUsers((List<User>) (List<?>) accepted).size();
+            case ATTRACTIONS:
+                return dataService.addAttractions((List<Attraction>) (List<?>) accepted).size();
+            default:
+                return dataService.addBookings((List<Booking>) (List<?>) accepted).size();
+        }
+    }
+
+    private static String idOf(Object entity) {
+        if (entity instanceof User) return ((User) entity).getId();
+        if (entity instanceof Attraction) return ((Attraction) entity).getId();
+        return ((Booking) entity).getId();
+    }
+
+    private static String stripBom(String header) {
+        // Spreadsheet exports often start with a byte order mark
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    private static final class Row {
+        final int line;
+        final String text;
+        final Object entity;
+        final String reason;
+
+        Row(int line, String text, Object entity, String reason) {
+            this.line = line;
+            this.text = text;
+            this.entity = entity;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * A row that was not imported.
+     */
+    public static final class Reject {
+        private final int line;
+        private final String reason;
+        private final String text;
+
+        Reject(int line, String reason, String text) {
+            this.line = line;
+            this.reason = reason;
+            this.text = text;
+        }
+
+        /** @return The row's line number in the file, counting the header as line 1. */
+        public int getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        /** @return The row as it appeared in the file. */
+        public String getText() {
+            return text;
+        }
+    }
+
+    /**
+     * What an import did.
+     */
+    public static final class ImportResult {
+        private final Kind kind;
+        private final int imported;
+        private final List<Reject> rejects;
+        private final long elapsedMillis;
+
+        ImportResult(Kind kind, int imported, List<Reject> rejects, long elapsedMillis) {
+            this.kind = kind;
+            this.imported = imported;
+            this.rejects = Collections.unmodifiableList(rejects);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public List<Reject> getRejects() {
+            return rejects;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Writes the rejected rows as CSV (line, reason, original row) so they can be fixed and
+         * imported again.
+         */
+        public void writeRejects(Path target) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                writer.write("line,reason,row");
+                writer.newLine();
+                for (Reject reject : rejects) {
+                    writer.write(reject.line + "," + quote(reject.reason) + "," + quote(reject.text));
+                    writer.newLine();
+                }
+            }
+        }
+
+        private static String quote(String field) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.nepaltourism.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A change to one entity in the data service: added, updated or removed.
+ *
+ * @param <T> The entity type.
+ */
+public final class ChangeEvent<T> {
+
+    public enum Kind { ADDED, UPDATED, REMOVED }
+
+    private final Kind kind;
+    private final Class<T> type;
+    private final String id;
+    private final T entity;
+
+    private ChangeEvent(Kind kind, Class<T> type, String id, T entity) {
+        this.kind = kind;
+        this.type = type;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public static <T> ChangeEvent<T> added(Class<T> type, String id, T entity) {
+        return new ChangeEvent<>(Kind.ADDED, type, id, entity);
+    }
+
+    public static <T> ChangeEvent<T> updated(Class<T> type, String id, T entity) {
+        return new ChangeEvent<>(Kind.UPDATED, type, id, entity);
+    }
+
+    public static <T> ChangeEvent<T> removed(Class<T> type, String id, T entity) {
+        return new ChangeEvent<>(Kind.REMOVED, type, id, entity);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The entity; for REMOVED, its last state before removal.
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return The entity if this event is about the given type (or a subtype, e.g. Guide for User).
+     */
+    public <E> Optional<E> entityAs(Class<E> wanted) {
+        return wanted.isInstance(entity) ? Optional.of(wanted.cast(entity)) : Optional.empty();
+    }
+
+    /**
+     * Collapses a burst of events so each entity appears once, with the net effect:
+     * added then updated is still an add, added then removed cancels out, removed then
+     * added again is an update.
+     * @param events Events in the order they were published.
+     * @return At most one event per entity, in order of first appearance.
+     */
+    public static List<ChangeEvent<?>> coalesce(List<ChangeEvent<?>> events) {
+        Map<String, ChangeEvent<?>> latest = new LinkedHashMap<>();
+        for (ChangeEvent<?> event : events) {
+            String key = event.type.getName() + "#" + event.id;
+            ChangeEvent<?> previous = latest.get(key);
+            if (previous == null) {
+                latest.put(key, event);
+            } else if (previous.kind == Kind.ADDED && event.kind == Kind.REMOVED) {
+                latest.remove(key);
+            } else if (previous.kind == Kind.ADDED) {
+                latest.put(key, withKind(event, Kind.ADDED));
+            } else if (previous.kind == Kind.REMOVED && event.kind == Kind.ADDED) {
+                latest.put(key, withKind(event, Kind.UPDATED));
+            } else {
+                latest.put(key, event);
+            }
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private static <T> ChangeEvent<T> withKind(ChangeEvent<T> event, Kind kind) {
+        return new ChangeEvent<>(kind, event.type, event.id, event.entity);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + type.getSimpleName() + " " + id;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.nepaltourism.services;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers entity changes from the data service to whoever is interested: dashboards
+ * (through {@code FxChangeBatcher}), the API server, background jobs. Events are delivered
+ * on the publishing thread; listeners that touch the UI must hop to the FX thread themselves.
+ */
+public class ChangeEventBus {
+
+    private static final Logger logger = Logger.getLogger(ChangeEventBus.class.getName());
+
+    public interface Listener {
+        void onChange(ChangeEvent<?> event);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void publish(ChangeEvent<?> event) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                // One broken listener must not stop the others or fail the write that published the event
+                logger.log(Level.WARNING, "Change listener failed on " + event, e);
+            }
+        }
+    }
+}
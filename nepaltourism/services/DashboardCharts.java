@@ -0,0 +1,73 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Attraction;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Chart series the dashboards build from a {@link BookingRollup}, labelled with attraction
+ * names, regions or categories. Kept apart from the controllers so they can be measured and
+ * tested without JavaFX.
+ */
+public final class DashboardCharts {
+
+    private DashboardCharts() {
+    }
+
+    /**
+     * @param limit How many attractions to show.
+     * @param attractions Looks an attraction up by id, e.g. {@code dataService::findAttraction}.
+     * @return Attraction name to booking count, most booked first.
+     */
+    public static Map<String, Long> topAttractions(BookingRollup rollup, int limit,
+                                                   Function<String, Optional<Attraction>> attractions) {
+        // A bounded heap of the current leaders, rather than sorting every attraction
+        PriorityQueue<Map.Entry<String, Long>> leaders = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> entry : rollup.getCountByAttraction().entrySet()) {
+            leaders.add(entry);
+            if (leaders.size() > limit) {
+                leaders.poll();
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(leaders);
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        Map<String, Long> series = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : top) {
+            String attractionId = entry.getKey();
+            String name = attractions.apply(attractionId)
+                    .map(Attraction::getName).orElse("Unknown (" + attractionId + ")");
+            series.merge(name, entry.getValue(), Long::sum);
+        }
+        return series;
+    }
+
+    /**
+     * @return Region to booking count.
+     */
+    public static Map<String, Long> bookingsByRegion(BookingRollup rollup,
+                                                     Function<String, Optional<Attraction>> attractions) {
+        Map<String, Long> regionBookings = new HashMap<>();
+        rollup.getCountByAttraction().forEach((attractionId, count) -> {
+            String region = attractions.apply(attractionId)
+                    .map(Attraction::getRegion).orElse("Unknown Region");
+            regionBookings.merge(region, count, Long::sum);
+        });
+        return regionBookings;
+    }
+
+    /**
+     * @return Attraction category to the bookings' total price.
+     */
+    public static Map<String, Double> revenueByCategory(BookingRollup rollup,
+                                                        Function<String, Optional<Attraction>> attractions) {
+        Map<String, Double> categorySpending = new HashMap<>();
+        rollup.getRevenueByAttraction().forEach((attractionId, spent) -> {
+            String category = attractions.apply(attractionId)
+                    .map(Attraction::getCategory).orElse("Unknown");
+            categorySpending.merge(category, spent, Double::sum);
+        });
+        return categorySpending;
+    }
+}
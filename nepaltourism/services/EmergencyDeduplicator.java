@@ -0,0 +1,104 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.EmergencyReport;
+import com.example.nepaltourism.utils.RegionLocator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Folds bursts of reports about the same incident into one report.
+ * Reports are bucketed by normalized location and emergency type; within each bucket a
+ * sliding time window keeps recent open incidents, and a new report that lands in the
+ * window is merged into the latest one instead of becoming a separate record.
+ */
+public class EmergencyDeduplicator {
+
+    /** How long after a report further reports of the same kind and place count as duplicates. */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(30);
+
+    private final GuideLocator locator;
+    private final Duration window;
+    private final Map<String, Deque<EmergencyReport>> windows = new ConcurrentHashMap<>();
+
+    public EmergencyDeduplicator(GuideLocator locator) {
+        this(locator, DEFAULT_WINDOW);
+    }
+
+    public EmergencyDeduplicator(GuideLocator locator, Duration window) {
+        this.locator = locator;
+        this.window = window;
+    }
+
+    /**
+     * Indexes an existing report without merging, e.g. reports loaded at startup.
+     * @param report The report to remember.
+     */
+    public void seed(EmergencyReport report) {
+        if (report.getTimestamp() == null || EmergencyDispatchEngine.STATUS_RESOLVED.equals(report.getStatus())) {
+            return;
+        }
+        windows.compute(keyFor(report), (key, recent) -> {
+            Deque<EmergencyReport> deque = recent != null ? recent : new ArrayDeque<>();
+            evict(deque, report.getTimestamp());
+            deque.addLast(report);
+            return deque;
+        });
+    }
+
+    /**
+     * Offers a new report to the stream. A report that matches an open incident is not linked to it
+     * here; the caller does that through the report store, which owns edits to stored reports.
+     * @param report The incoming report.
+     * @param register Stores and dispatches the report if it starts a new incident. Runs before the
+     *                 report can become a merge target, so a duplicate never finds it half set up.
+     * @return The open incident the report was merged into, or the report itself if it starts a new incident.
+     */
+    public EmergencyReport offer(EmergencyReport report, Runnable register) {
+        LocalDateTime now = report.getTimestamp() != null ? report.getTimestamp() : LocalDateTime.now();
+        EmergencyReport[] incident = {report};
+        windows.compute(keyFor(report), (key, recent) -> {
+            Deque<EmergencyReport> deque = recent != null ? recent : new ArrayDeque<>();
+            evict(deque, now);
+            Iterator<EmergencyReport> newestFirst = deque.descendingIterator();
+            while (newestFirst.hasNext()) {
+                EmergencyReport candidate = newestFirst.next();
+                if (!EmergencyDispatchEngine.STATUS_RESOLVED.equals(candidate.getStatus())) {
+                    incident[0] = candidate;
+                    break;
+                }
+            }
+            if (incident[0] == report) {
+                register.run();
+                deque.addLast(report);
+            }
+            return deque;
+        });
+        return incident[0];
+    }
+
+    private void evict(Deque<EmergencyReport> deque, LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(window);
+        while (!deque.isEmpty() && deque.peekFirst().getTimestamp().isBefore(cutoff)) {
+            deque.pollFirst();
+        }
+    }
+
+    private String keyFor(EmergencyReport report) {
+        String place = locator.locate(report.getLocation())
+                .map(RegionLocator.Region::getName)
+                .orElseGet(() -> normalize(report.getLocation()));
+        return place + "|" + normalize(report.getEmergencyType());
+    }
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.EmergencyReport;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds open emergency reports in dispatch order (highest priority first, then oldest first).
+ * Claiming and status changes are compare-and-set operations, so two guides can never
+ * acknowledge the same report, and listeners are told about each change as it happens.
+ * Reports can be routed to a set of nearby guides; unrouted reports are visible to every guide.
+ */
+public class EmergencyDispatchEngine {
+
+    public static final String STATUS_REPORTED = "Reported";
+    public static final String STATUS_ACKNOWLEDGED = "Acknowledged";
+    public static final String STATUS_RESOLVED = "Resolved";
+
+    /** Order in which open reports should be handled. */
+    public static final Comparator<EmergencyReport> DISPATCH_ORDER = Comparator
+            .comparingInt((EmergencyReport r) -> -priorityRank(r.getPriority()))
+            .thenComparing(EmergencyReport::getTimestamp, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(EmergencyReport::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    public enum ChangeType { OPENED, CLAIMED, ACKNOWLEDGED, UPDATED, CLOSED }
+
+    /**
+     * Receives dispatch changes. May be called from any thread.
+     */
+    public interface Listener {
+        void onChange(EmergencyReport report, ChangeType type);
+    }
+
+    private final ConcurrentSkipListSet<Ticket> open = new ConcurrentSkipListSet<>();
+    private final Map<String, Ticket> ticketsById = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a report to the queue for every guide, unless it is already resolved or queued.
+     * @param report The report to dispatch.
+     */
+    public void submit(EmergencyReport report) {
+        submit(report, Collections.emptySet());
+    }
+
+    /**
+     * Adds a report to the queue, routed to the given guides.
+     * @param report The report to dispatch.
+     * @param guideIds Guides who should see it; empty to show it to everyone.
+     */
+    public void submit(EmergencyReport report, Collection<String> guideIds) {
+        if (report == null || report.getId() == null || STATUS_RESOLVED.equals(report.getStatus())) {
+            return;
+        }
+        Ticket ticket = new Ticket(report, guideIds);
+        if (ticketsById.putIfAbsent(report.getId(), ticket) == null) {
+            open.add(ticket);
+            fire(report, ChangeType.OPENED);
+        }
+    }
+
+    /**
+     * Claims a report for a guide. Succeeds only if nobody else holds it.
+     * @param reportId The report id.
+     * @param guideId The guide claiming it.
+     * @return True if the guide now holds the report.
+     */
+    public boolean claim(String reportId, String guideId) {
+        Ticket ticket = ticketsById.get(reportId);
+        if (ticket == null || guideId == null) {
+            return false;
+        }
+        if (ticket.claimedBy.compareAndSet(null, guideId)) {
+            fire(ticket.report, ChangeType.CLAIMED);
+            return true;
+        }
+        return guideId.equals(ticket.claimedBy.get());
+    }
+
+    /**
+     * Claims the most urgent report nobody holds yet.
+     * @param guideId The guide claiming it.
+     * @return The claimed report, or empty if every open report is taken.
+     */
+    public Optional<EmergencyReport> claimNext(String guideId) {
+        for (Ticket ticket : open) {
+            if (STATUS_REPORTED.equals(ticket.stage.get()) && ticket.claimedBy.compareAndSet(null, guideId)) {
+                fire(ticket.report, ChangeType.CLAIMED);
+                return Optional.of(ticket.report);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Claims (if needed) and acknowledges a report.
+     * @return True if this guide moved the report from Reported to Acknowledged.
+     */
+    public boolean acknowledge(String reportId, String guideId) {
+        Ticket ticket = ticketsById.get(reportId);
+        // Checked before claiming: a report acknowledged in an earlier session has no claimant,
+        // and claiming it here would lock every other guide out of resolving it
+        if (ticket == null || guideId == null || !STATUS_REPORTED.equals(ticket.stage.get())) {
+            return false;
+        }
+        boolean claimedNow = ticket.claimedBy.compareAndSet(null, guideId);
+        if (!claimedNow && !guideId.equals(ticket.claimedBy.get())) {
+            return false;
+        }
+        if (claimedNow) {
+            fire(ticket.report, ChangeType.CLAIMED);
+        }
+        if (ticket.stage.compareAndSet(STATUS_REPORTED, STATUS_ACKNOWLEDGED)) {
+            ticket.report.setStatus(STATUS_ACKNOWLEDGED);
+            fire(ticket.report, ChangeType.ACKNOWLEDGED);
+            return true;
+        }
+        if (claimedNow) {
+            // Don't keep a claim this call took on a report it could not acknowledge
+            ticket.claimedBy.compareAndSet(guideId, null);
+        }
+        return false;
+    }
+
+    /**
+     * Resolves an acknowledged report and removes it from the queue.
+     * Reports acknowledged in an earlier session have no claimant and can be resolved by any guide.
+     * @return True if this call resolved the report.
+     */
+    public boolean resolve(String reportId, String guideId) {
+        Ticket ticket = ticketsById.get(reportId);
+        if (ticket == null) {
+            return false;
+        }
+        String claimant = ticket.claimedBy.get();
+        if (claimant != null && !claimant.equals(guideId)) {
+            return false;
+        }
+        if (ticket.stage.compareAndSet(STATUS_ACKNOWLEDGED, STATUS_RESOLVED)) {
+            ticket.report.setStatus(STATUS_RESOLVED);
+            // By id: a merge may have swapped in a re-ranked ticket since we looked this one up
+            Ticket current = ticketsById.remove(reportId);
+            open.remove(ticket);
+            if (current != null && current != ticket) {
+                open.remove(current);
+            }
+            fire(ticket.report, ChangeType.CLOSED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that a duplicate report was merged into an open one, moving it up the queue if the
+     * duplicate was more urgent. The report's own priority is the caller's to change, under the
+     * store's lock like any other edit; this only re-ranks the ticket.
+     * @param reportId The open report that absorbed the duplicate.
+     * @param priority The duplicate's priority.
+     */
+    public void merge(String reportId, String priority) {
+        Ticket ticket = ticketsById.get(reportId);
+        if (ticket == null) {
+            return;
+        }
+        int rank = priorityRank(priority);
+        if (rank > ticket.rank) {
+            // The replacement shares the claim and stage references, so concurrent claims are not lost
+            Ticket raised = new Ticket(ticket, rank);
+            if (ticketsById.replace(reportId, ticket, raised)) {
+                open.remove(ticket);
+                open.add(raised);
+                if (STATUS_RESOLVED.equals(raised.stage.get())) {
+                    // Resolved while we were swapping; don't leave the replacement behind
+                    open.remove(raised);
+                    ticketsById.remove(reportId, raised);
+                }
+            }
+        }
+        fire(ticket.report, ChangeType.UPDATED);
+    }
+
+    /**
+     * @param reportId The report id.
+     * @return The id of the guide holding the report, or null if unclaimed or unknown.
+     */
+    public String getClaimant(String reportId) {
+        Ticket ticket = ticketsById.get(reportId);
+        return ticket != null ? ticket.claimedBy.get() : null;
+    }
+
+    /**
+     * @param reportId The report id.
+     * @param guideId The guide id.
+     * @return True if the report is open and either routed to this guide or to everyone.
+     */
+    public boolean isRoutedTo(String reportId, String guideId) {
+        Ticket ticket = ticketsById.get(reportId);
+        return ticket != null && ticket.isRoutedTo(guideId);
+    }
+
+    /**
+     * @return A snapshot of open reports routed to the guide, in dispatch order.
+     */
+    public List<EmergencyReport> getOpenReportsFor(String guideId) {
+        List<EmergencyReport> reports = new ArrayList<>();
+        for (Ticket ticket : open) {
+            if (ticket.isRoutedTo(guideId)) {
+                reports.add(ticket.report);
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * @return A snapshot of open reports in dispatch order.
+     */
+    public List<EmergencyReport> getOpenReports() {
+        List<EmergencyReport> reports = new ArrayList<>();
+        for (Ticket ticket : open) {
+            reports.add(ticket.report);
+        }
+        return reports;
+    }
+
+    public int getOpenCount() {
+        return ticketsById.size();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fire(EmergencyReport report, ChangeType type) {
+        for (Listener listener : listeners) {
+            listener.onChange(report, type);
+        }
+    }
+
+    /**
+     * Maps the priority labels used by the emergency dialog to a sortable rank.
+     * @param priority "Critical", "High", "Medium" or "Low".
+     * @return A higher number for more urgent reports.
+     */
+    public static int priorityRank(String priority) {
+        if (priority == null) return 0;
+        switch (priority) {
+            case "Critical": return 4;
+            case "High": return 3;
+            case "Medium": return 2;
+            case "Low": return 1;
+            default: return 0;
+        }
+    }
+
+    private static final class Ticket implements Comparable<Ticket> {
+        final EmergencyReport report;
+        // Captured once so the ordering key never changes while the ticket is in the skip list
+        final int rank;
+        final LocalDateTime timestamp;
+        final AtomicReference<String> claimedBy;
+        final AtomicReference<String> stage;
+        final Set<String> routedTo;
+
+        Ticket(EmergencyReport report, Collection<String> guideIds) {
+            this.report = report;
+            this.routedTo = Set.copyOf(guideIds);
+            this.claimedBy = new AtomicReference<>();
+            this.rank = priorityRank(report.getPriority());
+            this.timestamp = report.getTimestamp() != null ? report.getTimestamp() : LocalDateTime.MAX;
+            this.stage = new AtomicReference<>(STATUS_ACKNOWLEDGED.equals(report.getStatus()) ? STATUS_ACKNOWLEDGED : STATUS_REPORTED);
+        }
+
+        Ticket(Ticket previous, int rank) {
+            this.report = previous.report;
+            this.rank = rank;
+            this.timestamp = previous.timestamp;
+            this.claimedBy = previous.claimedBy;
+            this.stage = previous.stage;
+            this.routedTo = previous.routedTo;
+        }
+
+        boolean isRoutedTo(String guideId) {
+            return routedTo.isEmpty() || routedTo.contains(guideId);
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int cmp = Integer.compare(other.rank, rank);
+            if (cmp != 0) return cmp;
+            cmp = timestamp.compareTo(other.timestamp);
+            if (cmp != 0) return cmp;
+            return report.getId().compareTo(other.report.getId());
+        }
+    }
+}
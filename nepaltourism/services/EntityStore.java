@@ -0,0 +1,256 @@
+package com.example.nepaltourism.services;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe store for one kind of entity, keyed by id.
+ * Readers get an immutable snapshot of which entities are stored and never block. Entities are
+ * kept in an append-only list of fixed-size chunks, so adding one publishes a new snapshot
+ * without copying the others; removing one rebuilds the list. Changes to an existing entity
+ * hold a lock striped by id, so writers only contend when they touch entities that hash to the
+ * same stripe.
+ *
+ * @param <T> The entity type.
+ */
+public class EntityStore<T> {
+
+    private static final Logger logger = Logger.getLogger(EntityStore.class.getName());
+    private static final int STRIPES = 32;
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final String name;
+    private final Function<T, String> idOf;
+    private final Map<String, T> byId = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Object membershipLock = new Object();
+    private final Object persistLock = new Object();
+    // Entities in order, written only under membershipLock; a snapshot sees the first count of them
+    private Object[][] chunks = new Object[0][];
+    private int count;
+    private volatile List<T> snapshot = Collections.emptyList();
+
+    /**
+     * @param name What the store holds, for log messages.
+     * @param idOf Extracts an entity's id.
+     * @param initial Entities loaded from disk, in display order. Later duplicates of an id are dropped.
+     */
+    public EntityStore(String name, Function<T, String> idOf, Collection<T> initial) {
+        this.name = name;
+        this.idOf = idOf;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        synchronized (membershipLock) {
+            for (T entity : initial) {
+                String id = idOf.apply(entity);
+                if (id == null || byId.putIfAbsent(id, entity) != null) {
+                    logger.warning("Skipping " + name + " with missing or duplicate id: " + id);
+                    continue;
+                }
+                append(entity);
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Which entities are in the view is fixed at the time of the call: later adds and removes
+     * do not show up in it. The entities themselves are the live, shared objects, so changes
+     * made through {@link #update} since are visible.
+     * @return An unmodifiable view of every entity stored at the time of the call.
+     */
+    public List<T> snapshot() {
+        return snapshot;
+    }
+
+    public Optional<T> find(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Appends an entity.
+     * @return False if an entity with the same id is already stored, or it has no id.
+     */
+    public boolean add(T entity) {
+        String id = idOf.apply(entity);
+        if (id == null) {
+            logger.warning("Not adding " + name + " without an id");
+            return false;
+        }
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            if (byId.putIfAbsent(id, entity) != null) {
+                return false;
+            }
+            synchronized (membershipLock) {
+                append(entity);
+                publish();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends many entities at once, publishing a single new snapshot for the whole batch.
+     * @return The entities that were added, in order; those without an id or whose id is already
+     *         stored are skipped.
+     */
+    public List<T> addAll(Collection<T> entities) {
+        List<T> added = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            String id = idOf.apply(entity);
+            if (id == null) {
+                logger.warning("Skipping " + name + " without an id");
+                continue;
+            }
+            ReentrantLock lock = stripeFor(id);
+            lock.lock();
+            try {
+                if (byId.putIfAbsent(id, entity) == null) {
+                    // Appended while the id is still locked, so a remove of it cannot slip in between
+                    synchronized (membershipLock) {
+                        append(entity);
+                    }
+                    added.add(entity);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (!added.isEmpty()) {
+            synchronized (membershipLock) {
+                publish();
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes an entity by id.
+     * @return The removed entity, or empty if none had that id.
+     */
+    public Optional<T> remove(String id) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            T removed = byId.remove(id);
+            if (removed == null) {
+                return Optional.empty();
+            }
+            synchronized (membershipLock) {
+                // Earlier snapshots share the chunks, so removing starts a new list rather than shifting in place.
+                // Rebuilt from everything appended, not the last snapshot: addAll may not have published yet
+                List<T> remaining = new Snapshot<>(chunks, count);
+                chunks = new Object[0][];
+                count = 0;
+                for (T entity : remaining) {
+                    if (entity != removed) {
+                        append(entity);
+                    }
+                }
+                publish();
+            }
+            return Optional.of(removed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes an entity while holding its stripe lock, so concurrent updates to the
+     * same entity apply one after the other.
+     * @param id The entity id.
+     * @param mutation Changes the entity and returns a result for the caller.
+     * @return The mutation's result, or empty if no entity has that id.
+     */
+    public <R> Optional<R> update(String id, Function<? super T, R> mutation) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            T entity = byId.get(id);
+            return entity == null ? Optional.empty() : Optional.ofNullable(mutation.apply(entity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the current snapshot to a writer. Writes are serialized, and each one takes its
+     * snapshot inside the lock, so the last write on disk is never older than an earlier one.
+     */
+    public void persist(Consumer<List<T>> writer) {
+        synchronized (persistLock) {
+            writer.accept(snapshot);
+        }
+    }
+
+    /**
+     * Writes past the end of every published snapshot, so none of them sees the entity until
+     * {@link #publish()}. Call holding membershipLock.
+     */
+    private void append(T entity) {
+        int chunk = count >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new Object[CHUNK_SIZE];
+        }
+        chunks[chunk][count & (CHUNK_SIZE - 1)] = entity;
+        count++;
+    }
+
+    /** Call holding membershipLock. */
+    private void publish() {
+        snapshot = new Snapshot<>(chunks, count);
+    }
+
+    private ReentrantLock stripeFor(String id) {
+        int hash = id == null ? 0 : id.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return name + " store (" + size() + ")";
+    }
+
+    /**
+     * The first {@code size} entities of the chunks as they were when published. Slots past
+     * {@code size} may be filled later, but are never read through this view.
+     */
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[][] chunks;
+        private final int size;
+
+        Snapshot(Object[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return (T) chunks[index >>> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
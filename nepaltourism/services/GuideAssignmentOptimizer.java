@@ -0,0 +1,320 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Booking;
+import com.example.nepaltourism.models.Guide;
+import com.example.nepaltourism.models.User;
+import com.example.nepaltourism.utils.RegionLocator;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns guides to every Pending booking that has no guide yet.
+ * Candidate guides are worked out in parallel (fork/join via parallel streams),
+ * then bookings are placed greedily, most constrained first, with a one-step repair
+ * that moves an earlier assignment to another guide when a booking would otherwise stay unassigned.
+ * The optimizer never mutates the bookings; callers apply the returned plan and save once.
+ */
+public class GuideAssignmentOptimizer {
+
+    private final List<Guide> guides;
+    private final Map<String, Attraction> attractionsById;
+    private final List<Booking> bookings;
+    private final LocalDate today;
+
+    public GuideAssignmentOptimizer(List<User> users, List<Attraction> attractions, List<Booking> bookings) {
+        this(users, attractions, bookings, LocalDate.now());
+    }
+
+    public GuideAssignmentOptimizer(List<User> users, List<Attraction> attractions, List<Booking> bookings, LocalDate today) {
+        this.guides = users.stream()
+                .filter(u -> u instanceof Guide && ((Guide) u).isAvailable())
+                .map(u -> (Guide) u)
+                .collect(Collectors.toList());
+        this.attractionsById = new HashMap<>();
+        for (Attraction attraction : attractions) {
+            attractionsById.put(attraction.getId(), attraction);
+        }
+        this.bookings = bookings;
+        this.today = today;
+    }
+
+    /**
+     * Computes a guide for each unassigned Pending booking.
+     * @return The assignment plan together with run statistics.
+     */
+    public AssignmentResult optimize() {
+        long start = System.nanoTime();
+
+        // Existing Pending/Confirmed bookings block out days on their guide's calendar
+        Map<String, GuideCalendar> calendars = new HashMap<>();
+        Map<String, Integer> load = new HashMap<>();
+        for (Guide guide : guides) {
+            calendars.put(guide.getId(), new GuideCalendar());
+            load.put(guide.getId(), 0);
+        }
+        List<Booking> pending = new ArrayList<>();
+        for (Booking booking : bookings) {
+            String guideId = booking.getGuideId();
+            if (guideId == null || guideId.isEmpty()) {
+                if ("Pending".equalsIgnoreCase(booking.getStatus())) {
+                    pending.add(booking);
+                }
+            } else if (isActive(booking) && calendars.containsKey(guideId) && booking.getTourDate() != null) {
+                calendars.get(guideId).occupy(booking.getTourDate(), endDate(booking));
+                load.merge(guideId, 1, Integer::sum);
+            }
+        }
+
+        Map<String, String> unassignedReasons = new LinkedHashMap<>();
+        Map<Booking, List<Guide>> candidates = pending.parallelStream()
+                .collect(Collectors.toConcurrentMap(b -> b, this::regionCandidates, (a, b) -> a));
+
+        List<Booking> schedulable = new ArrayList<>();
+        for (Booking booking : pending) {
+            if (booking.getTourDate() == null || booking.getTourDate().isBefore(today)) {
+                unassignedReasons.put(booking.getId(), "No upcoming tour date");
+            } else if (candidates.get(booking).isEmpty()) {
+                unassignedReasons.put(booking.getId(), "No available guide covers this region");
+            } else {
+                schedulable.add(booking);
+            }
+        }
+
+        // Most constrained bookings first, earlier tours breaking ties
+        schedulable.sort(Comparator.<Booking>comparingInt(b -> candidates.get(b).size())
+                .thenComparing(Booking::getTourDate));
+
+        Map<String, String> plan = new LinkedHashMap<>();
+        Map<String, List<Booking>> plannedByGuide = new HashMap<>();
+        int repaired = 0;
+        for (Booking booking : schedulable) {
+            LocalDate from = booking.getTourDate();
+            LocalDate to = endDate(booking);
+            Guide chosen = pickLeastLoaded(candidates.get(booking), calendars, load, from, to);
+            if (chosen == null && repair(booking, candidates, calendars, load, plan, plannedByGuide)) {
+                repaired++;
+                continue;
+            }
+            if (chosen == null) {
+                unassignedReasons.put(booking.getId(), "All matching guides are booked on these dates");
+                continue;
+            }
+            assign(booking, chosen.getId(), calendars, load, plan, plannedByGuide);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        return new AssignmentResult(plan, unassignedReasons, pending.size(), repaired, elapsedNanos);
+    }
+
+    /**
+     * Tries to free a guide for the booking by moving one of that guide's bookings
+     * from this run to a different guide who is free on those dates.
+     */
+    private boolean repair(Booking booking, Map<Booking, List<Guide>> candidates, Map<String, GuideCalendar> calendars,
+                           Map<String, Integer> load, Map<String, String> plan, Map<String, List<Booking>> plannedByGuide) {
+        LocalDate from = booking.getTourDate();
+        LocalDate to = endDate(booking);
+        for (Guide guide : candidates.get(booking)) {
+            List<Booking> planned = plannedByGuide.getOrDefault(guide.getId(), Collections.emptyList());
+            for (Booking blocker : new ArrayList<>(planned)) {
+                if (!overlaps(blocker.getTourDate(), endDate(blocker), from, to)) continue;
+
+                GuideCalendar calendar = calendars.get(guide.getId());
+                calendar.release(blocker.getTourDate(), endDate(blocker));
+                if (!calendar.isFree(from, to)) {
+                    // Another booking also blocks these dates; moving one is not enough
+                    calendar.occupy(blocker.getTourDate(), endDate(blocker));
+                    continue;
+                }
+                List<Guide> alternatives = new ArrayList<>(candidates.get(blocker));
+                alternatives.remove(guide);
+                Guide replacement = pickLeastLoaded(alternatives, calendars, load, blocker.getTourDate(), endDate(blocker));
+                if (replacement == null) {
+                    calendar.occupy(blocker.getTourDate(), endDate(blocker));
+                    continue;
+                }
+                planned.remove(blocker);
+                load.merge(guide.getId(), -1, Integer::sum);
+                assign(blocker, replacement.getId(), calendars, load, plan, plannedByGuide);
+                assign(booking, guide.getId(), calendars, load, plan, plannedByGuide);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void assign(Booking booking, String guideId, Map<String, GuideCalendar> calendars, Map<String, Integer> load,
+                        Map<String, String> plan, Map<String, List<Booking>> plannedByGuide) {
+        calendars.get(guideId).occupy(booking.getTourDate(), endDate(booking));
+        load.merge(guideId, 1, Integer::sum);
+        plan.put(booking.getId(), guideId);
+        plannedByGuide.computeIfAbsent(guideId, k -> new ArrayList<>()).add(booking);
+    }
+
+    private Guide pickLeastLoaded(List<Guide> options, Map<String, GuideCalendar> calendars, Map<String, Integer> load,
+                                  LocalDate from, LocalDate to) {
+        Guide best = null;
+        for (Guide guide : options) {
+            if (!calendars.get(guide.getId()).isFree(from, to)) continue;
+            if (best == null) {
+                best = guide;
+                continue;
+            }
+            int cmp = Integer.compare(load.get(guide.getId()), load.get(best.getId()));
+            if (cmp < 0 || (cmp == 0 && guide.getRating() > best.getRating())) {
+                best = guide;
+            }
+        }
+        return best;
+    }
+
+    private List<Guide> regionCandidates(Booking booking) {
+        Attraction attraction = attractionsById.get(booking.getAttractionId());
+        if (attraction == null) {
+            return Collections.emptyList();
+        }
+        return guides.stream()
+                .filter(g -> coversRegion(g.getTourArea(), attraction.getRegion()))
+                .collect(Collectors.toList());
+    }
+
+    private LocalDate endDate(Booking booking) {
+        Attraction attraction = attractionsById.get(booking.getAttractionId());
+        int days = attraction != null ? Math.max(1, attraction.getDurationDays()) : 1;
+        return booking.getTourDate().plusDays(days - 1L);
+    }
+
+    private static boolean isActive(Booking booking) {
+        return "Pending".equalsIgnoreCase(booking.getStatus()) || "Confirmed".equalsIgnoreCase(booking.getStatus());
+    }
+
+    private static boolean overlaps(LocalDate aFrom, LocalDate aTo, LocalDate bFrom, LocalDate bTo) {
+        return !aFrom.isAfter(bTo) && !bFrom.isAfter(aTo);
+    }
+
+    // Tour areas are free text ("Everest", "Namche", "Pokhara Valley"), so resolve both sides to known regions
+    private static boolean coversRegion(String tourArea, String region) {
+        Optional<RegionLocator.Region> areaRegion = RegionLocator.resolve(tourArea);
+        Optional<RegionLocator.Region> attractionRegion = RegionLocator.byName(region);
+        if (areaRegion.isPresent() && attractionRegion.isPresent()) {
+            return areaRegion.get() == attractionRegion.get();
+        }
+        String area = normalize(tourArea);
+        String target = normalize(region);
+        if (area.isEmpty() || target.isEmpty()) return false;
+        return area.contains(target) || target.contains(area);
+    }
+
+    private static String normalize(String value) {
+        if (value == null) return "";
+        return value.toLowerCase(Locale.ROOT)
+                .replace("region", "")
+                .replace("valley", "")
+                .trim();
+    }
+
+    /**
+     * Busy date ranges for one guide, kept merged so overlap checks are a single floor lookup.
+     */
+    private static class GuideCalendar {
+        private final TreeMap<LocalDate, LocalDate> busy = new TreeMap<>();
+
+        boolean isFree(LocalDate from, LocalDate to) {
+            Map.Entry<LocalDate, LocalDate> before = busy.floorEntry(to);
+            return before == null || before.getValue().isBefore(from);
+        }
+
+        void occupy(LocalDate from, LocalDate to) {
+            LocalDate start = from;
+            LocalDate end = to;
+            Map.Entry<LocalDate, LocalDate> entry = busy.floorEntry(end);
+            while (entry != null && !entry.getValue().isBefore(start.minusDays(1))) {
+                if (entry.getKey().isBefore(start)) start = entry.getKey();
+                if (entry.getValue().isAfter(end)) end = entry.getValue();
+                busy.remove(entry.getKey());
+                entry = busy.floorEntry(end);
+            }
+            busy.put(start, end);
+        }
+
+        void release(LocalDate from, LocalDate to) {
+            LocalDate first = busy.floorKey(from);
+            List<LocalDate> starts = new ArrayList<>(busy.subMap(first != null ? first : from, true, to, true).keySet());
+            for (LocalDate key : starts) {
+                LocalDate value = busy.get(key);
+                if (value.isBefore(from)) continue;
+                busy.remove(key);
+                if (key.isBefore(from)) {
+                    busy.put(key, from.minusDays(1));
+                }
+                if (value.isAfter(to)) {
+                    busy.put(to.plusDays(1), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Outcome of an optimizer run: the booking-to-guide plan plus throughput figures.
+     */
+    public static class AssignmentResult {
+        private final Map<String, String> assignments;
+        private final Map<String, String> unassignedReasons;
+        private final int considered;
+        private final int repaired;
+        private final long elapsedNanos;
+
+        AssignmentResult(Map<String, String> assignments, Map<String, String> unassignedReasons,
+                         int considered, int repaired, long elapsedNanos) {
+            this.assignments = Collections.unmodifiableMap(assignments);
+            this.unassignedReasons = Collections.unmodifiableMap(unassignedReasons);
+            this.considered = considered;
+            this.repaired = repaired;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return Booking id mapped to the chosen guide id. */
+        public Map<String, String> getAssignments() {
+            return assignments;
+        }
+
+        /** @return Booking id mapped to why no guide could be found. */
+        public Map<String, String> getUnassignedReasons() {
+            return unassignedReasons;
+        }
+
+        public int getConsidered() {
+            return considered;
+        }
+
+        public int getAssignedCount() {
+            return assignments.size();
+        }
+
+        public int getUnassignedCount() {
+            return unassignedReasons.size();
+        }
+
+        public int getRepairedCount() {
+            return repaired;
+        }
+
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        /** @return Bookings processed per second for this run. */
+        public double getThroughputPerSecond() {
+            return elapsedNanos > 0 ? considered / (elapsedNanos / 1_000_000_000.0) : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Assigned %d of %d pending bookings (%d via repair), %d left unassigned in %.1f ms (%.0f bookings/s)",
+                    getAssignedCount(), considered, repaired, getUnassignedCount(), getElapsedMillis(), getThroughputPerSecond());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.models.Attraction;
+import com.example.nepaltourism.models.Guide;
+import com.example.nepaltourism.models.User;
+import com.example.nepaltourism.utils.RegionLocator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grid index of guides (placed by their tour area) used to find the closest
+ * available responders for an emergency location. Attraction names are indexed too,
+ * so a location like "Poon Hill trek, day 3" still resolves to a region.
+ */
+public class GuideLocator {
+
+    /** How many guides a new emergency report is routed to. */
+    public static final int DEFAULT_FAN_OUT = 3;
+
+    // Roughly 55 km cells; Nepal fits in about 16 x 8 of them
+    private static final double CELL_DEGREES = 0.5;
+    private static final int MAX_RING = 16;
+
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+    private final Map<String, IndexedGuide> guidesById = new ConcurrentHashMap<>();
+    private final Map<String, RegionLocator.Region> attractionRegions = new ConcurrentHashMap<>();
+    // Attraction id to the name it is indexed under, so a rename or removal can drop the old name
+    private final Map<String, String> attractionNames = new ConcurrentHashMap<>();
+
+    public GuideLocator(List<User> users, List<Attraction> attractions) {
+        for (User user : users) {
+            if (user instanceof Guide) {
+                indexGuide((Guide) user);
+            }
+        }
+        for (Attraction attraction : attractions) {
+            indexAttraction(attraction);
+        }
+    }
+
+    /**
+     * Adds a guide or moves it after its tour area changed.
+     * Guides whose tour area cannot be resolved are left out of the index.
+     * @param guide The guide to (re)index.
+     */
+    public void indexGuide(Guide guide) {
+        removeGuide(guide.getId());
+        RegionLocator.resolve(guide.getTourArea()).ifPresent(region -> {
+            IndexedGuide entry = new IndexedGuide(guide, region);
+            guidesById.put(guide.getId(), entry);
+            cells.computeIfAbsent(cellKey(region.getLatitude(), region.getLongitude()), k -> ConcurrentHashMap.newKeySet())
+                    .add(guide.getId());
+        });
+    }
+
+    public void removeGuide(String guideId) {
+        IndexedGuide previous = guidesById.remove(guideId);
+        if (previous != null) {
+            Set<String> cell = cells.get(cellKey(previous.region.getLatitude(), previous.region.getLongitude()));
+            if (cell != null) {
+                cell.remove(guideId);
+            }
+        }
+    }
+
+    /**
+     * Adds an attraction's name or re-indexes it after its name or region changed.
+     * @param attraction The attraction to (re)index.
+     */
+    public void indexAttraction(Attraction attraction) {
+        removeAttraction(attraction);
+        if (attraction.getName() == null || attraction.getName().isBlank()) return;
+        String name = attraction.getName().toLowerCase(Locale.ROOT);
+        RegionLocator.byName(attraction.getRegion()).ifPresent(region -> {
+            attractionRegions.put(name, region);
+            attractionNames.put(attraction.getId(), name);
+        });
+    }
+
+    /**
+     * Drops the name an attraction was indexed under, unless another attraction shares it.
+     * @param attraction The attraction that was removed or is about to be re-indexed.
+     */
+    public void removeAttraction(Attraction attraction) {
+        String name = attraction.getId() != null ? attractionNames.remove(attraction.getId()) : null;
+        if (name != null && !attractionNames.containsValue(name)) {
+            attractionRegions.remove(name);
+        }
+    }
+
+    /**
+     * Resolves a free-text location using region aliases first, then attraction names.
+     * @param location The reported location.
+     * @return The region, or empty if the text cannot be placed.
+     */
+    public Optional<RegionLocator.Region> locate(String location) {
+        Optional<RegionLocator.Region> region = RegionLocator.resolve(location);
+        if (region.isPresent() || location == null) {
+            return region;
+        }
+        String text = location.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, RegionLocator.Region> entry : attractionRegions.entrySet()) {
+            if (text.contains(entry.getKey())) {
+                return Optional.of(entry.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the closest available guides to a location, searching grid rings outward.
+     * @param location The reported location.
+     * @param limit The maximum number of guides to return.
+     * @return Guides ordered by distance; empty if the location cannot be resolved.
+     */
+    public List<Guide> nearestAvailableGuides(String location, int limit) {
+        Optional<RegionLocator.Region> origin = locate(location);
+        if (origin.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        double lat = origin.get().getLatitude();
+        double lon = origin.get().getLongitude();
+        int row = cellIndex(lat);
+        int col = cellIndex(lon);
+
+        List<IndexedGuide> found = new ArrayList<>();
+        int extraRings = -1;
+        for (int ring = 0; ring <= MAX_RING && extraRings != 0; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                for (int c = col - ring; c <= col + ring; c++) {
+                    // Only the border of this ring; inner cells were visited already
+                    if (Math.abs(r - row) != ring && Math.abs(c - col) != ring) continue;
+                    Set<String> cell = cells.get(pack(r, c));
+                    if (cell == null) continue;
+                    for (String guideId : cell) {
+                        IndexedGuide entry = guidesById.get(guideId);
+                        if (entry != null && entry.guide.isAvailable()) {
+                            found.add(entry);
+                        }
+                    }
+                }
+            }
+            if (extraRings > 0) {
+                extraRings--;
+            } else if (extraRings < 0 && found.size() >= limit) {
+                // A guide one ring further out can still be closer than one in a cell corner
+                extraRings = 1;
+            }
+        }
+
+        found.sort(Comparator.comparingDouble(e -> RegionLocator.distanceKm(lat, lon,
+                e.region.getLatitude(), e.region.getLongitude())));
+        List<Guide> nearest = new ArrayList<>();
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            nearest.add(found.get(i).guide);
+        }
+        return nearest;
+    }
+
+    private static long cellKey(double lat, double lon) {
+        return pack(cellIndex(lat), cellIndex(lon));
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static final class IndexedGuide {
+        final Guide guide;
+        final RegionLocator.Region region;
+
+        IndexedGuide(Guide guide, RegionLocator.Region region) {
+            this.guide = guide;
+            this.region = region;
+        }
+    }
+}
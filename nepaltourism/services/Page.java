@@ -0,0 +1,34 @@
+package com.example.nepaltourism.services;
+
+import java.util.List;
+
+/**
+ * One window of a longer result: the rows from {@code offset} on, and how many rows
+ * the whole result has.
+ *
+ * @param <T> The row type.
+ */
+public final class Page<T> {
+
+    private final List<T> rows;
+    private final int offset;
+    private final int total;
+
+    public Page(List<T> rows, int offset, int total) {
+        this.rows = List.copyOf(rows);
+        this.offset = offset;
+        this.total = total;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,661 @@
+package com.example.nepaltourism.services;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.diagnostics.Metrics;
+import com.example.nepaltourism.models.*;
+import com.example.nepaltourism.utils.FestivalManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owns the in-memory data stores and the indexes built over them, independent of any UI.
+ * The desktop application and the headless HTTP server both work through one instance,
+ * so bookings and reports created from either side share the same stores, dispatch queue
+ * and guide index.
+ * <p>
+ * Readers get immutable snapshots and never lock. All changes go through the methods here,
+ * which lock only the entity being changed (see {@link EntityStore}) and save the affected file.
+ * Bookings and emergency reports carry a version; status changes are compare-and-set against
+ * the version the caller last saw and report a conflict instead of overwriting someone else's change.
+ * Every change is published on the {@link ChangeEventBus} after it is applied.
+ */
+public class TourismDataService {
+
+    private static final Logger logger = Logger.getLogger(TourismDataService.class.getName());
+
+    /** Expected version that matches any version, for callers that want last-write-wins. */
+    public static final long ANY_VERSION = -1;
+
+    public static final List<String> BOOKING_STATUSES = List.of("Pending", "Confirmed", "Completed", "Cancelled");
+
+    private final CSVDataManager dataManager;
+
+    private EntityStore<User> users;
+    private EntityStore<Attraction> attractions;
+    private EntityStore<Booking> bookings;
+    private EntityStore<EmergencyReport> emergencyReports;
+    private EmergencyDispatchEngine dispatchEngine;
+    private GuideLocator guideLocator;
+    private EmergencyDeduplicator emergencyDeduplicator;
+    private final ChangeEventBus changeEventBus = new ChangeEventBus();
+    private final BookingPager bookingPager = new BookingPager(this::getBookings, new BookingQuery.Names() {
+        @Override
+        public String userName(String userId) {
+            return findUser(userId).map(User::getName).orElse(null);
+        }
+
+        @Override
+        public String attractionName(String attractionId) {
+            return findAttraction(attractionId).map(Attraction::getName).orElse(null);
+        }
+    });
+    // Lower-cased email to user id, so sign-up and imports can check for a taken email without a scan
+    private final Map<String, String> userIdsByEmail = new ConcurrentHashMap<>();
+
+    public TourismDataService(CSVDataManager dataManager) {
+        this.dataManager = dataManager;
+        changeEventBus.subscribe(bookingPager);
+        // Read when metrics are shown; unreadable (and shown empty) until the first load
+        Metrics.gauge("data.users", () -> users.size());
+        Metrics.gauge("data.attractions", () -> attractions.size());
+        Metrics.gauge("data.bookings", () -> bookings.size());
+        Metrics.gauge("data.emergencyReports", () -> emergencyReports.size());
+    }
+
+    /**
+     * Loads data from CSV files into memory and builds the dispatch queue and guide index.
+     */
+    public void load() {
+        List<User> loadedUsers;
+        try {
+            loadedUsers = dataManager.loadUsers();
+            logger.info("Loaded " + loadedUsers.size() + " users.");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to load users", e);
+            loadedUsers = new ArrayList<>(); // Initialize with empty list on failure
+        }
+
+        List<Attraction> loadedAttractions;
+        try {
+            loadedAttractions = dataManager.loadAttractions();
+            logger.info("Loaded " + loadedAttractions.size() + " attractions.");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to load attractions", e);
+            loadedAttractions = new ArrayList<>();
+        }
+
+        List<Booking> loadedBookings;
+        try {
+            loadedBookings = dataManager.loadBookings();
+            logger.info("Loaded " + loadedBookings.size() + " bookings.");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to load bookings", e);
+            loadedBookings = new ArrayList<>();
+        }
+
+        List<EmergencyReport> loadedReports;
+        try {
+            loadedReports = dataManager.loadEmergencyReports();
+            logger.info("Loaded " + loadedReports.size() + " emergency reports.");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to load emergency reports", e);
+            loadedReports = new ArrayList<>();
+        }
+
+        users = new EntityStore<>("user", User::getId, loadedUsers);
+        attractions = new EntityStore<>("attraction", Attraction::getId, loadedAttractions);
+        bookings = new EntityStore<>("booking", Booking::getId, loadedBookings);
+        emergencyReports = new EntityStore<>("emergency report", EmergencyReport::getId, loadedReports);
+        bookingPager.invalidate();
+        userIdsByEmail.clear();
+
+        // Create sample data if files are empty (for first run)
+        createSampleDataIfEmpty();
+        users.snapshot().forEach(this::indexEmail);
+
+        // Queue every open emergency report for dispatch, routed to the guides nearest to it
+        guideLocator = new GuideLocator(users.snapshot(), attractions.snapshot());
+        dispatchEngine = new EmergencyDispatchEngine();
+        emergencyDeduplicator = new EmergencyDeduplicator(guideLocator);
+        for (EmergencyReport report : emergencyReports.snapshot()) {
+            dispatchEngine.submit(report, nearestGuideIds(report.getLocation()));
+            emergencyDeduplicator.seed(report);
+        }
+    }
+
+    /**
+     * Creates sample data if the loaded lists are empty.
+     * This is useful for the first run of the application.
+     */
+    private void createSampleDataIfEmpty() {
+        if (users.size() == 0) {
+            // Add a sample admin user (password is "admin123" - in real app, this should be hashed)
+            User admin = new Admin("ADM001", "Admin User", "admin@example.com", "9800000000", "admin123");
+            users.add(admin);
+            logger.info("Created sample admin user.");
+        }
+        // Sample data for other entities can be added here if needed
+    }
+
+    /**
+     * Saves all data back to CSV files.
+     */
+    public void saveAllData() {
+        Metrics.time("data.saveAll", () -> {
+            users.persist(dataManager::saveUsers);
+            attractions.persist(dataManager::saveAttractions);
+            bookings.persist(dataManager::saveBookings);
+            emergencyReports.persist(dataManager::saveEmergencyReports);
+        });
+        logger.info("All data saved to CSV files.");
+    }
+
+    // --- Users ---
+
+    /**
+     * Adds a user, indexes it if it is a guide and saves the users file.
+     * @return False if a user with the same id already exists.
+     */
+    public boolean addUser(User user) {
+        if (!users.add(user)) {
+            return false;
+        }
+        indexEmail(user);
+        if (user instanceof Guide) {
+            guideLocator.indexGuide((Guide) user);
+        }
+        users.persist(dataManager::saveUsers);
+        changeEventBus.publish(ChangeEvent.added(User.class, user.getId(), user));
+        return true;
+    }
+
+    /**
+     * Applies changes to a user under its lock, re-indexes guides (their tour area may
+     * have moved) and saves the users file.
+     * @return False if no user has that id.
+     */
+    public boolean updateUser(String userId, Consumer<? super User> changes) {
+        Optional<User> updated = users.update(userId, user -> {
+            userIdsByEmail.remove(emailKey(user.getEmail()), userId);
+            changes.accept(user);
+            indexEmail(user);
+            return user;
+        });
+        updated.ifPresent(user -> {
+            if (user instanceof Guide) {
+                guideLocator.indexGuide((Guide) user);
+            }
+            users.persist(dataManager::saveUsers);
+            changeEventBus.publish(ChangeEvent.updated(User.class, userId, user));
+        });
+        return updated.isPresent();
+    }
+
+    /**
+     * Removes a user and saves the users file.
+     * @return False if no user has that id.
+     */
+    public boolean removeUser(String userId) {
+        Optional<User> removed = users.remove(userId);
+        removed.ifPresent(user -> {
+            userIdsByEmail.remove(emailKey(user.getEmail()), userId);
+            guideLocator.removeGuide(userId);
+            users.persist(dataManager::saveUsers);
+            changeEventBus.publish(ChangeEvent.removed(User.class, userId, user));
+        });
+        return removed.isPresent();
+    }
+
+    private void indexEmail(User user) {
+        String key = emailKey(user.getEmail());
+        if (key != null) {
+            userIdsByEmail.putIfAbsent(key, user.getId());
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // --- Attractions ---
+
+    public boolean addAttraction(Attraction attraction) {
+        if (!attractions.add(attraction)) {
+            return false;
+        }
+        guideLocator.indexAttraction(attraction);
+        attractions.persist(dataManager::saveAttractions);
+        changeEventBus.publish(ChangeEvent.added(Attraction.class, attraction.getId(), attraction));
+        return true;
+    }
+
+    public boolean updateAttraction(String attractionId, Consumer<? super Attraction> changes) {
+        Optional<Attraction> updated = attractions.update(attractionId, attraction -> {
+            changes.accept(attraction);
+            return attraction;
+        });
+        updated.ifPresent(attraction -> {
+            guideLocator.indexAttraction(attraction);
+            attractions.persist(dataManager::saveAttractions);
+            changeEventBus.publish(ChangeEvent.updated(Attraction.class, attractionId, attraction));
+        });
+        return updated.isPresent();
+    }
+
+    public boolean removeAttraction(String attractionId) {
+        Optional<Attraction> removed = attractions.remove(attractionId);
+        removed.ifPresent(attraction -> {
+            guideLocator.removeAttraction(attraction);
+            attractions.persist(dataManager::saveAttractions);
+            changeEventBus.publish(ChangeEvent.removed(Attraction.class, attractionId, attraction));
+        });
+        return removed.isPresent();
+    }
+
+    // --- Bookings ---
+
+    /**
+     * Adds an already priced booking (e.g. from the booking dialog) and saves the bookings file.
+     * @return False if a booking with the same id already exists.
+     */
+    public boolean addBooking(Booking booking) {
+        if (!bookings.add(booking)) {
+            return false;
+        }
+        bookings.persist(dataManager::saveBookings);
+        changeEventBus.publish(ChangeEvent.added(Booking.class, booking.getId(), booking));
+        return true;
+    }
+
+    /**
+     * Creates a Pending booking, pricing it the same way as the booking dialog.
+     * @param touristId The tourist making the booking.
+     * @param attractionId The attraction to book.
+     * @param guideId The requested guide, or null for none.
+     * @param tourDate The tour date; must not be in the past.
+     * @param numberOfPeople At least one.
+     * @param specialRequests Optional requests.
+     * @return The saved booking.
+     * @throws IllegalArgumentException if any of the references or values are invalid.
+     */
+    public Booking createBooking(String touristId, String attractionId, String guideId, LocalDate tourDate,
+                                              int numberOfPeople, String specialRequests) {
+        User tourist = findUser(touristId).orElse(null);
+        if (!(tourist instanceof Tourist)) {
+            throw new IllegalArgumentException("Unknown tourist: " + touristId);
+        }
+        Attraction attraction = findAttraction(attractionId).orElse(null);
+        if (attraction == null || !attraction.isActive()) {
+            throw new IllegalArgumentException("Unknown or inactive attraction: " + attractionId);
+        }
+        if (guideId != null && !guideId.isBlank()) {
+            User guide = findUser(guideId).orElse(null);
+            if (!(guide instanceof Guide) || !((Guide) guide).isAvailable()) {
+                throw new IllegalArgumentException("Guide is not available: " + guideId);
+            }
+        } else {
+            guideId = null;
+        }
+        if (tourDate == null || tourDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Tour date cannot be in the past.");
+        }
+        if (numberOfPeople < 1) {
+            throw new IllegalArgumentException("Number of people must be at least 1.");
+        }
+
+        double discount = FestivalManager.getFestivalDiscount(tourDate);
+        String discountInfo = discount > 0 ? FestivalManager.getFestivalDiscountMessage(tourDate) : "";
+        // Rounded to cents like the price shown in the booking dialog
+        double totalPrice = Math.round(attraction.getPriceUSD() * numberOfPeople * (1 - discount) * 100) / 100.0;
+
+        String bookingId = "BK" + UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
+        Booking booking = new Booking(bookingId, touristId, guideId, attractionId, tourDate, numberOfPeople,
+                specialRequests != null ? specialRequests.trim() : "", "Pending", totalPrice, discountInfo);
+        bookings.add(booking);
+        bookings.persist(dataManager::saveBookings);
+        changeEventBus.publish(ChangeEvent.added(Booking.class, bookingId, booking));
+        logger.info("New booking created: " + bookingId + " for tourist " + touristId);
+        return booking;
+    }
+
+    /**
+     * Changes a booking's status if nobody changed the booking since the caller read it,
+     * and saves the bookings file.
+     * @param bookingId The booking id.
+     * @param expectedVersion The version the caller saw, or {@link #ANY_VERSION}.
+     * @param status One of {@link #BOOKING_STATUSES}.
+     * @return UPDATED, CONFLICT with the booking as it is now, or NOT_FOUND.
+     * @throws IllegalArgumentException if the status is not recognized.
+     */
+    public UpdateResult<Booking> updateBookingStatus(String bookingId, long expectedVersion, String status) {
+        if (!BOOKING_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Unknown booking status: " + status);
+        }
+        UpdateResult<Booking> result = compareAndUpdate(bookings, bookingId, expectedVersion, b -> b.setStatus(status));
+        if (result.isUpdated()) {
+            bookings.persist(dataManager::saveBookings);
+            changeEventBus.publish(ChangeEvent.updated(Booking.class, bookingId, result.getCurrent()));
+            logger.info("Booking " + bookingId + " status updated to " + status);
+        } else if (result.getStatus() == UpdateResult.Status.CONFLICT) {
+            logger.info("Booking " + bookingId + " status change to " + status + " rejected: expected version "
+                    + expectedVersion + " but found " + result.getCurrent().getVersion());
+        }
+        return result;
+    }
+
+    /**
+     * Gives each booking its planned guide, unless someone assigned a guide in the meantime.
+     * @param assignments Booking id to guide id, as planned by {@link GuideAssignmentOptimizer}.
+     * @return The number of bookings that were updated.
+     */
+    public int applyGuideAssignments(Map<String, String> assignments) {
+        List<Booking> updated = new ArrayList<>();
+        for (Map.Entry<String, String> assignment : assignments.entrySet()) {
+            bookings.update(assignment.getKey(), booking -> {
+                if (booking.getGuideId() == null || booking.getGuideId().isEmpty()) {
+                    booking.setGuideId(assignment.getValue());
+                    booking.setVersion(booking.getVersion() + 1);
+                    return booking;
+                }
+                return null;
+            }).ifPresent(updated::add);
+        }
+        if (!updated.isEmpty()) {
+            bookings.persist(dataManager::saveBookings);
+            for (Booking booking : updated) {
+                changeEventBus.publish(ChangeEvent.updated(Booking.class, booking.getId(), booking));
+            }
+        }
+        return updated.size();
+    }
+
+    // --- Bulk adds (imports) ---
+
+    /**
+     * Adds a batch of users, e.g. from an import, with one save of the users file.
+     * @return The users that were added; ids already taken are skipped.
+     */
+    public List<User> addUsers(Collection<User> batch) {
+        List<User> added = users.addAll(batch);
+        for (User user : added) {
+            indexEmail(user);
+            if (user instanceof Guide) {
+                guideLocator.indexGuide((Guide) user);
+            }
+        }
+        if (!added.isEmpty()) {
+            users.persist(dataManager::saveUsers);
+            publishAdded(User.class, added, User::getId);
+        }
+        return added;
+    }
+
+    /**
+     * Adds a batch of attractions with one save of the attractions file.
+     * @return The attractions that were added; ids already taken are skipped.
+     */
+    public List<Attraction> addAttractions(Collection<Attraction> batch) {
+        List<Attraction> added = attractions.addAll(batch);
+        added.forEach(guideLocator::indexAttraction);
+        if (!added.isEmpty()) {
+            attractions.persist(dataManager::saveAttractions);
+            publishAdded(Attraction.class, added, Attraction::getId);
+        }
+        return added;
+    }
+
+    /**
+     * Adds a batch of already priced bookings with one save of the bookings file.
+     * @return The bookings that were added; ids already taken are skipped.
+     */
+    public List<Booking> addBookings(Collection<Booking> batch) {
+        List<Booking> added = bookings.addAll(batch);
+        if (!added.isEmpty()) {
+            bookings.persist(dataManager::saveBookings);
+            // Re-sorting once on the next page request beats inserting a large batch row by row
+            bookingPager.invalidate();
+            publishAdded(Booking.class, added, Booking::getId);
+        }
+        return added;
+    }
+
+    private <T> void publishAdded(Class<T> type, List<? extends T> added, Function<T, String> idOf) {
+        for (T entity : added) {
+            changeEventBus.publish(ChangeEvent.added(type, idOf.apply(entity), entity));
+        }
+    }
+
+    /**
+     * Searches active attractions with the same rules as the tourist dashboard filter.
+     * @param searchText Text to find in the name or description; null or empty matches all.
+     * @param region Exact region, or null for all regions.
+     * @param category Exact category, or null for all categories.
+     * @return Matching attractions in list order.
+     */
+    public List<Attraction> searchAttractions(String searchText, String region, String category) {
+        return new AttractionSearch(searchText, region, category).filter(attractions.snapshot());
+    }
+
+    /**
+     * Records a new emergency report: merges it into an open incident when it is a duplicate,
+     * otherwise stores it and routes it to the nearest guides.
+     * @param report The new report.
+     * @return What happened to the report.
+     */
+    public EmergencySubmission submitEmergency(EmergencyReport report) {
+        List<String> notifiedGuides = new ArrayList<>();
+        EmergencyReport incident = emergencyDeduplicator.offer(report, () -> {
+            emergencyReports.add(report);
+            // Put it in front of the nearest responders right away
+            notifiedGuides.addAll(nearestGuideIds(report.getLocation()));
+            dispatchEngine.submit(report, notifiedGuides);
+        });
+        if (incident != report) {
+            emergencyReports.update(incident.getId(), open -> {
+                open.addLinkedReport(report);
+                if (EmergencyDispatchEngine.priorityRank(report.getPriority())
+                        > EmergencyDispatchEngine.priorityRank(open.getPriority())) {
+                    open.setPriority(report.getPriority());
+                }
+                open.setVersion(open.getVersion() + 1);
+                return open;
+            });
+            dispatchEngine.merge(incident.getId(), report.getPriority());
+            emergencyReports.persist(dataManager::saveEmergencyReports);
+            changeEventBus.publish(ChangeEvent.updated(EmergencyReport.class, incident.getId(), incident));
+            logger.info("Emergency report by " + report.getReporterId() + " linked to open report " + incident.getId());
+            return new EmergencySubmission(incident, true, Collections.emptyList());
+        }
+        // Only the emergency file changed
+        emergencyReports.persist(dataManager::saveEmergencyReports);
+        changeEventBus.publish(ChangeEvent.added(EmergencyReport.class, report.getId(), report));
+        logger.info("New emergency report submitted: " + report.getId() + " by " + report.getReporterId()
+                + (notifiedGuides.isEmpty() ? ", routed to all guides" : ", routed to " + notifiedGuides));
+        return new EmergencySubmission(report, false, notifiedGuides);
+    }
+
+    /**
+     * Acknowledges a report on behalf of a guide and saves the reports file.
+     * The dispatch engine's claim decides who wins when guides race for the same report.
+     * @return UPDATED, CONFLICT if another guide got there first, or NOT_FOUND.
+     */
+    public UpdateResult<EmergencyReport> acknowledgeEmergency(String reportId, String guideId) {
+        return emergencyTransition(reportId, dispatchEngine.acknowledge(reportId, guideId));
+    }
+
+    /**
+     * Resolves a report on behalf of a guide and saves the reports file.
+     * @return UPDATED, CONFLICT if the report is held by another guide or not yet acknowledged, or NOT_FOUND.
+     */
+    public UpdateResult<EmergencyReport> resolveEmergency(String reportId, String guideId) {
+        return emergencyTransition(reportId, dispatchEngine.resolve(reportId, guideId));
+    }
+
+    private UpdateResult<EmergencyReport> emergencyTransition(String reportId, boolean applied) {
+        Optional<EmergencyReport> report = emergencyReports.find(reportId);
+        if (report.isEmpty()) {
+            return UpdateResult.notFound();
+        }
+        if (!applied) {
+            return UpdateResult.conflict(report.get());
+        }
+        bumpVersion(emergencyReports, reportId);
+        emergencyReports.persist(dataManager::saveEmergencyReports);
+        changeEventBus.publish(ChangeEvent.updated(EmergencyReport.class, reportId, report.get()));
+        return UpdateResult.updated(report.get());
+    }
+
+    /**
+     * Applies a change under the entity's lock if its version still matches, then bumps the version.
+     */
+    private static <T extends Versioned> UpdateResult<T> compareAndUpdate(EntityStore<T> store, String id, long expectedVersion,
+                                                                         Consumer<? super T> change) {
+        return store.update(id, entity -> {
+            if (expectedVersion != ANY_VERSION && entity.getVersion() != expectedVersion) {
+                return UpdateResult.conflict(entity);
+            }
+            change.accept(entity);
+            entity.setVersion(entity.getVersion() + 1);
+            return UpdateResult.updated(entity);
+        }).orElseGet(UpdateResult::notFound);
+    }
+
+    private static <T extends Versioned> void bumpVersion(EntityStore<T> store, String id) {
+        store.update(id, entity -> {
+            entity.setVersion(entity.getVersion() + 1);
+            return entity;
+        });
+    }
+
+    /**
+     * Finds the guides an emergency at this location should be routed to.
+     * @param location The free-text location from the report.
+     * @return Ids of the nearest available guides, or an empty list to notify every guide.
+     */
+    public List<String> nearestGuideIds(String location) {
+        List<String> ids = new ArrayList<>();
+        for (Guide guide : guideLocator.nearestAvailableGuides(location, GuideLocator.DEFAULT_FAN_OUT)) {
+            ids.add(guide.getId());
+        }
+        return ids;
+    }
+
+    public Optional<User> findUser(String id) {
+        return users.find(id);
+    }
+
+    /**
+     * @return The user with this email, ignoring case.
+     */
+    public Optional<User> findUserByEmail(String email) {
+        String key = emailKey(email);
+        return key == null ? Optional.empty() : users.find(userIdsByEmail.get(key));
+    }
+
+    public Optional<Attraction> findAttraction(String id) {
+        return attractions.find(id);
+    }
+
+    public Optional<Booking> findBooking(String id) {
+        return bookings.find(id);
+    }
+
+    // Snapshots: immutable and safe to iterate while other threads make changes
+
+    public List<User> getUsers() {
+        return users.snapshot();
+    }
+
+    public List<Attraction> getAttractions() {
+        return attractions.snapshot();
+    }
+
+    public List<Booking> getBookings() {
+        return bookings != null ? bookings.snapshot() : Collections.emptyList();
+    }
+
+    /**
+     * One page of bookings, filtered and sorted from a maintained index rather than by
+     * scanning every booking.
+     * @param offset Index of the first row wanted.
+     * @param limit At most this many rows.
+     */
+    public Page<Booking> pageBookings(BookingQuery query, int offset, int limit) {
+        return bookingPager.page(query, offset, limit);
+    }
+
+    /**
+     * @return How many bookings match the query.
+     */
+    public int countBookings(BookingQuery query) {
+        return bookingPager.count(query);
+    }
+
+    /**
+     * @param query Whose index to read the counts from; its status filter is ignored.
+     * @return How many bookings have each status, kept as the index is updated rather than counted.
+     */
+    public Map<String, Integer> countBookingsByStatus(BookingQuery query) {
+        return bookingPager.countByStatus(query);
+    }
+
+    public List<EmergencyReport> getEmergencyReports() {
+        return emergencyReports.snapshot();
+    }
+
+    public EmergencyDispatchEngine getDispatchEngine() {
+        return dispatchEngine;
+    }
+
+    public EmergencyDeduplicator getEmergencyDeduplicator() {
+        return emergencyDeduplicator;
+    }
+
+    public GuideLocator getGuideLocator() {
+        return guideLocator;
+    }
+
+    public ChangeEventBus getChangeEventBus() {
+        return changeEventBus;
+    }
+
+    public CSVDataManager getDataManager() {
+        return dataManager;
+    }
+
+    /**
+     * Outcome of {@link #submitEmergency(EmergencyReport)}.
+     */
+    public static final class EmergencySubmission {
+        private final EmergencyReport incident;
+        private final boolean merged;
+        private final List<String> notifiedGuides;
+
+        EmergencySubmission(EmergencyReport incident, boolean merged, List<String> notifiedGuides) {
+            this.incident = incident;
+            this.merged = merged;
+            this.notifiedGuides = notifiedGuides;
+        }
+
+        /** @return The stored report, or the open incident the new report was linked to. */
+        public EmergencyReport getIncident() {
+            return incident;
+        }
+
+        /** @return True if the report was a duplicate and was linked to an existing incident. */
+        public boolean isMerged() {
+            return merged;
+        }
+
+        /** @return Guides the new report was routed to; empty if merged or routed to everyone. */
+        public List<String> getNotifiedGuides() {
+            return notifiedGuides;
+        }
+    }
+}
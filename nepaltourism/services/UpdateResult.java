@@ -0,0 +1,46 @@
+package com.example.nepaltourism.services;
+
+/**
+ * Outcome of a compare-and-set update in {@link TourismDataService}.
+ *
+ * @param <T> The entity type.
+ */
+public final class UpdateResult<T> {
+
+    public enum Status { UPDATED, CONFLICT, NOT_FOUND }
+
+    private final Status status;
+    private final T current;
+
+    private UpdateResult(Status status, T current) {
+        this.status = status;
+        this.current = current;
+    }
+
+    static <T> UpdateResult<T> updated(T current) {
+        return new UpdateResult<>(Status.UPDATED, current);
+    }
+
+    static <T> UpdateResult<T> conflict(T current) {
+        return new UpdateResult<>(Status.CONFLICT, current);
+    }
+
+    static <T> UpdateResult<T> notFound() {
+        return new UpdateResult<>(Status.NOT_FOUND, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isUpdated() {
+        return status == Status.UPDATED;
+    }
+
+    /**
+     * @return The entity as it is now (after the update, or as someone else left it on a conflict); null if not found.
+     */
+    public T getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,622 @@
+package com.example.nepaltourism.tools;
+
+import com.example.nepaltourism.CSVDataManager;
+import com.example.nepaltourism.utils.FestivalManager;
+import com.example.nepaltourism.utils.Formats;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes a synthetic but realistic data set (users, attractions, bookings and emergency
+ * reports) in exactly the CSV formats {@link CSVDataManager} reads, for load and performance
+ * testing at production volumes.
+ * <p>
+ * The same seed, size and reference date always produce byte-for-byte the same files. Bookings
+ * follow the trekking seasons (busy in spring and around Dashain and Tihar in autumn, quiet in
+ * the monsoon), favour the popular regions and attractions, go to the guides of the
+ * attraction's region (more to experienced ones), get the festival discount the app would give,
+ * and have statuses that fit their date: mostly completed in the past, pending or confirmed in
+ * the future. The other files are sized from the booking count.
+ * <p>
+ * Rows are generated in chunks on every core, each chunk from its own random stream, and
+ * written in order, so ten million bookings take seconds rather than minutes.
+ * <pre>
+ * java com.example.nepaltourism.tools.DataGenerator --dir=bench-data --bookings=1000000 [--seed=42] [--as-of=2025-09-01]
+ * </pre>
+ */
+public class DataGenerator {
+
+    private static final Logger logger = Logger.getLogger(DataGenerator.class.getName());
+
+    public static final long DEFAULT_SEED = 42;
+    /** "Today" for the generated data; fixed so the statuses don't depend on when it is run. */
+    public static final LocalDate DEFAULT_AS_OF = LocalDate.of(2025, 9, 1);
+    public static final int MAX_BOOKINGS = 50_000_000;
+
+    private static final int CHUNK_ROWS = 50_000;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final String NEWLINE = System.lineSeparator();
+    private static final String TOURIST_PREFIX = "TR";
+    private static final String GUIDE_PREFIX = "GD";
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Salts keep each file's random streams apart
+    private static final long USERS_SALT = 1;
+    private static final long BOOKINGS_SALT = 2;
+    private static final long REPORTS_SALT = 3;
+    private static final long PLAN_SALT = 4;
+
+    // Regions as the attraction form lists them, with their share of attractions and guides and
+    // place names that RegionLocator recognises
+    private static final String[] REGIONS = {"Everest Region", "Annapurna Region", "Kathmandu Valley", "Pokhara",
+            "Chitwan", "Langtang Region", "Mustang", "Manaslu", "Lumbini", "Ilam"};
+    private static final double[] REGION_WEIGHTS = {20, 22, 18, 12, 8, 6, 4, 4, 4, 2};
+    private static final String[][] PLACES = {
+            {"Namche", "Lukla", "Tengboche", "Dingboche", "Gorak Shep", "Khumbu"},
+            {"Ghorepani", "Poon Hill", "Ghandruk", "Manang", "Thorong", "Annapurna"},
+            {"Thamel", "Patan", "Bhaktapur", "Boudha", "Swayambhu", "Nagarkot"},
+            {"Phewa", "Sarangkot", "Lakeside", "Pokhara"},
+            {"Sauraha", "Rapti", "Chitwan"},
+            {"Kyanjin", "Helambu", "Gosaikunda", "Langtang"},
+            {"Jomsom", "Kagbeni", "Muktinath", "Lo Manthang"},
+            {"Samagaun", "Tsum", "Manaslu"},
+            {"Lumbini", "Bhairahawa"},
+            {"Ilam", "Kanyam"}};
+    private static final int[] REGION_ALTITUDE = {4500, 3800, 1400, 1600, 150, 3800, 3700, 4200, 150, 1300};
+    private static final String[][] REGION_CATEGORIES = {
+            {"Trek", "Trek", "Adventure"}, {"Trek", "Trek", "Adventure", "Cultural"},
+            {"Heritage", "Cultural", "Religious"}, {"Adventure", "Cultural", "Trek"},
+            {"Wildlife", "Wildlife", "Adventure"}, {"Trek", "Religious"}, {"Trek", "Cultural", "Religious"},
+            {"Trek", "Adventure"}, {"Religious", "Heritage"}, {"Cultural", "Trek"}};
+    private static final String[] DIFFICULTIES = {"Easy", "Moderate", "Hard", "Expert"};
+
+    // Tour months, January first: spring and autumn peaks, monsoon lull
+    private static final double[] MONTH_WEIGHTS = {5, 7, 13, 15, 11, 4, 3, 4, 9, 18, 15, 8};
+    private static final double[] PARTY_SIZE_WEIGHTS = {30, 35, 12, 12, 4, 3, 2, 1, 0.5, 0.3, 0.1, 0.1};
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Sita", "Ram", "Gita", "Bikash", "Anjali", "Pemba", "Dawa",
+            "Mingma", "Sunita", "Emma", "Liam", "Olivia", "Noah", "Mia", "Lucas", "Hannah", "Kenji", "Yuki", "Wei",
+            "Priya", "Arjun", "Sofia", "Mateo", "Chloe", "Jack", "Amelia", "Ethan", "Nora", "Felix"};
+    private static final String[] LAST_NAMES = {"Sherpa", "Gurung", "Thapa", "Shrestha", "Tamang", "Rai", "Magar",
+            "Karki", "Adhikari", "Lama", "Smith", "Schmidt", "Rossi", "Tanaka", "Chen", "Kumar", "Garcia", "Martin",
+            "Brown", "Dubois", "Novak", "Jensen", "Silva", "Kim", "Walsh"};
+    private static final String[] LANGUAGES = {"English", "Nepali", "Hindi", "German", "French", "Japanese",
+            "Chinese", "Spanish", "Korean"};
+    private static final String[] SPECIAL_REQUESTS = {"Vegetarian meals", "Airport pickup",
+            "Vegetarian meals, no spicy food", "Porter needed", "Travelling with children",
+            "Need \"tea house\" stays only", "Extra acclimatisation day", "Private room"};
+
+    private static final String[] EMERGENCY_TYPES = {"Medical Emergency", "Lost/Navigation",
+            "Weather/Environmental", "Accident", "Security Threat", "Other"};
+    private static final double[] EMERGENCY_TYPE_WEIGHTS = {35, 20, 18, 15, 4, 8};
+    private static final String[] PRIORITIES = {"Low", "Medium", "High", "Critical"};
+    private static final double[] PRIORITY_WEIGHTS = {30, 40, 22, 8};
+    private static final String[] EMERGENCY_DESCRIPTIONS = {"Altitude sickness, headache and nausea",
+            "Twisted ankle on the descent", "Lost the trail after snowfall", "Landslide blocking the path",
+            "Fever since last night", "Separated from the group", "Fell, possible broken wrist",
+            "Stolen passport, needs help"};
+
+    private final long seed;
+    private final int bookingCount;
+    private final LocalDate asOf;
+    private final int touristCount;
+    private final int guideCount;
+    private final int attractionCount;
+    private final int reportCount;
+
+    // The parts bookings refer to, worked out before any file is written
+    private PlannedAttraction[] attractions;
+    private double[] attractionPopularity;
+    private int[] guideRegion;
+    private int[] guideExperience;
+    private int[][] guidesByRegion;
+    private double[][] guideWeightsByRegion;
+    private final double[] monthWeights = cumulative(MONTH_WEIGHTS);
+    private final double[] regionWeights = cumulative(REGION_WEIGHTS);
+    private final double[] partySizeWeights = cumulative(PARTY_SIZE_WEIGHTS);
+    private final double[] emergencyTypeWeights = cumulative(EMERGENCY_TYPE_WEIGHTS);
+    private final double[] priorityWeights = cumulative(PRIORITY_WEIGHTS);
+
+    /**
+     * @param seed Seeds every random choice; the same seed gives the same files.
+     * @param bookingCount How many bookings to write; everything else is scaled from it.
+     * @param asOf The day the data set is "taken" on; tour dates run from two years before to
+     *             one year after it.
+     */
+    public DataGenerator(long seed, int bookingCount, LocalDate asOf) {
+        if (bookingCount < 1 || bookingCount > MAX_BOOKINGS) {
+            throw new IllegalArgumentException("bookingCount must be between 1 and " + MAX_BOOKINGS);
+        }
+        this.seed = seed;
+        this.bookingCount = bookingCount;
+        this.asOf = asOf;
+        this.touristCount = Math.max(20, bookingCount / 4);
+        this.guideCount = Math.max(REGIONS.length, bookingCount / 250);
+        this.attractionCount = Math.min(2000, Math.max(30, bookingCount / 200));
+        this.reportCount = Math.max(10, bookingCount / 500);
+    }
+
+    /**
+     * Writes users.csv, attractions.csv, bookings.csv and emergency_reports.csv, replacing any
+     * that are there.
+     * @param dataDir The directory to write to; created if missing.
+     * @return How many rows of each were written.
+     */
+    public Summary generate(Path dataDir) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(dataDir);
+        plan();
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "data-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            writeChunked(pool, threads, dataDir.resolve(CSVDataManager.USERS_FILE_NAME), CSVDataManager.USER_HEADER,
+                    1 + guideCount + touristCount, USERS_SALT, this::writeUsers);
+            writeChunked(pool, threads, dataDir.resolve(CSVDataManager.ATTRACTIONS_FILE_NAME),
+                    CSVDataManager.ATTRACTION_HEADER, attractionCount, 0, this::writeAttractions);
+            writeChunked(pool, threads, dataDir.resolve(CSVDataManager.BOOKINGS_FILE_NAME),
+                    CSVDataManager.BOOKING_HEADER, bookingCount, BOOKINGS_SALT, this::writeBookings);
+            writeChunked(pool, threads, dataDir.resolve(CSVDataManager.EMERGENCY_REPORTS_FILE_NAME),
+                    CSVDataManager.EMERGENCY_REPORT_HEADER, reportCount, REPORTS_SALT, this::writeReports);
+        } finally {
+            pool.shutdownNow();
+        }
+        Summary summary = new Summary(1 + guideCount + touristCount, attractionCount, bookingCount, reportCount,
+                (System.nanoTime() - start) / 1_000_000);
+        logger.info("Generated " + summary + " in " + dataDir + " (seed " + seed + ")");
+        return summary;
+    }
+
+    // --- Planning ---
+
+    private void plan() {
+        SplittableRandom random = new SplittableRandom(mix(seed, PLAN_SALT, 0));
+
+        attractions = new PlannedAttraction[attractionCount];
+        for (int i = 0; i < attractionCount; i++) {
+            // The first few cover every region once, so every region has something to book
+            int region = i < REGIONS.length ? i : pick(random, regionWeights);
+            String[] places = PLACES[region];
+            String[] categories = REGION_CATEGORIES[region];
+            String category = categories[random.nextInt(categories.length)];
+            // Numbered past the first few, so names stay unique however many there are
+            String name = places[random.nextInt(places.length)] + " " + categoryNoun(category)
+                    + (i >= REGIONS.length ? " " + (i + 1) : "");
+            int duration = "Trek".equals(category) ? 5 + random.nextInt(16) : 1 + random.nextInt(4);
+            // Treks are priced per day, everything else is a flat day trip price
+            double price = round2(("Trek".equals(category) ? duration * (60 + random.nextInt(90)) : 25 + random.nextInt(200))
+                    + random.nextInt(100) / 100.0);
+            boolean highAltitude = REGION_ALTITUDE[region] > 3000;
+            String difficulty = DIFFICULTIES[highAltitude ? 1 + random.nextInt(3) : random.nextInt(2)];
+            attractions[i] = new PlannedAttraction(appendId(new StringBuilder(), "AT", i + 1, 8).toString(), name,
+                    region, category, difficulty, duration, price, round2(3.5 + random.nextInt(151) / 100.0),
+                    REGION_ALTITUDE[region] + random.nextInt(REGION_ALTITUDE[region] / 2 + 1));
+        }
+        // A few attractions get most of the bookings
+        double[] popularity = new double[attractionCount];
+        for (int i = 0; i < attractionCount; i++) {
+            popularity[i] = 1 / Math.pow(i + 1, 0.8);
+        }
+        attractionPopularity = cumulative(popularity);
+
+        guideRegion = new int[guideCount];
+        guideExperience = new int[guideCount];
+        int[] perRegion = new int[REGIONS.length];
+        for (int i = 0; i < guideCount; i++) {
+            guideRegion[i] = i < REGIONS.length ? i : pick(random, regionWeights);
+            // Most guides have a few years behind them, some have decades
+            guideExperience[i] = 1 + (int) (25 * Math.pow(random.nextDouble(), 2));
+            perRegion[guideRegion[i]]++;
+        }
+        guidesByRegion = new int[REGIONS.length][];
+        guideWeightsByRegion = new double[REGIONS.length][];
+        for (int r = 0; r < REGIONS.length; r++) {
+            guidesByRegion[r] = new int[perRegion[r]];
+            guideWeightsByRegion[r] = new double[perRegion[r]];
+        }
+        int[] filled = new int[REGIONS.length];
+        for (int i = 0; i < guideCount; i++) {
+            int r = guideRegion[i];
+            guidesByRegion[r][filled[r]] = i;
+            guideWeightsByRegion[r][filled[r]++] = 2 + guideExperience[i];
+        }
+        for (int r = 0; r < REGIONS.length; r++) {
+            guideWeightsByRegion[r] = cumulative(guideWeightsByRegion[r]);
+        }
+    }
+
+    private static String categoryNoun(String category) {
+        switch (category) {
+            case "Trek": return "Trek";
+            case "Heritage": return "Heritage Walk";
+            case "Adventure": return "Adventure Tour";
+            case "Wildlife": return "Jungle Safari";
+            case "Religious": return "Pilgrimage";
+            default: return "Cultural Tour";
+        }
+    }
+
+    // --- Rows ---
+
+    private void writeUsers(SplittableRandom random, int from, int to, StringBuilder out) {
+        for (int row = from; row < to; row++) {
+            if (row == 0) {
+                // The admin the app creates on first run, so the data set can be logged into
+                out.append("ADM001,Admin User,admin@example.com,9800000000,admin123,Admin,,,,").append(NEWLINE);
+                continue;
+            }
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            if (row <= guideCount) {
+                int guide = row - 1;
+                appendId(out, GUIDE_PREFIX, guide + 1, 6).append(',').append(name).append(",guide").append(guide + 1)
+                        .append("@example.com,").append(phone(random)).append(",password,Guide,")
+                        .append(REGIONS[guideRegion[guide]]).append(',').append(guideExperience[guide]).append(',');
+                appendCsv(out, languages(random)).append(',').append(NEWLINE);
+            } else {
+                int tourist = row - 1 - guideCount;
+                appendId(out, TOURIST_PREFIX, tourist + 1, 7).append(',').append(name).append(",tourist").append(tourist + 1)
+                        .append("@example.com,").append(phone(random)).append(",password,Tourist,,,,")
+                        .append(phone(random)).append(NEWLINE);
+            }
+        }
+    }
+
+    private void writeAttractions(SplittableRandom random, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            PlannedAttraction a = attractions[i];
+            out.append(a.id).append(',').append(a.name).append(',').append(REGIONS[a.region]).append(',')
+                    .append(a.category).append(',').append(a.difficulty).append(',').append(a.durationDays).append(',');
+            Formats.appendTwoDecimals(out, a.priceUSD).append(',');
+            appendCsv(out, a.durationDays + " day " + a.category.toLowerCase() + " in the " + REGIONS[a.region]
+                    + ", guided, with local food and stays").append(",true,");
+            Formats.appendTwoDecimals(out, a.rating).append(',').append(a.altitudeMeters).append(NEWLINE);
+        }
+    }
+
+    private void writeBookings(SplittableRandom random, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            PlannedAttraction attraction = attractions[pick(random, attractionPopularity)];
+            LocalDate tourDate = tourDate(random);
+            int people = 1 + pick(random, partySizeWeights);
+            double discount = FestivalManager.getFestivalDiscount(tourDate);
+            String discountMessage = discount > 0 ? FestivalManager.getFestivalDiscountMessage(tourDate) : "";
+
+            appendId(out, "BK", i + 1, 8).append(',');
+            appendId(out, TOURIST_PREFIX, repeatCustomer(random, touristCount) + 1, 7).append(',');
+            // Some tourists book without a guide; the rest mostly go with the region's experienced guides
+            if (random.nextInt(100) >= 15) {
+                int[] guides = guidesByRegion[attraction.region];
+                int guide = guides.length > 0
+                        ? guides[pick(random, guideWeightsByRegion[attraction.region])]
+                        : random.nextInt(guideCount);
+                appendId(out, GUIDE_PREFIX, guide + 1, 6);
+            }
+            out.append(',').append(attraction.id).append(',').append(tourDate.toString()).append(',')
+                    .append(people).append(',');
+            if (random.nextInt(100) < 20) {
+                appendCsv(out, SPECIAL_REQUESTS[random.nextInt(SPECIAL_REQUESTS.length)]);
+            }
+            out.append(',').append(status(random, tourDate)).append(',');
+            Formats.appendTwoDecimals(out, attraction.priceUSD * people * (1 - discount)).append(',')
+                    .append(discountMessage).append(NEWLINE);
+        }
+    }
+
+    private void writeReports(SplittableRandom random, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            boolean byTourist = random.nextInt(100) < 80;
+            PlannedAttraction attraction = attractions[pick(random, attractionPopularity)];
+            String location = random.nextBoolean() ? attraction.name
+                    : PLACES[attraction.region][random.nextInt(PLACES[attraction.region].length)];
+            LocalDateTime timestamp = asOf.minusDays(random.nextInt(730)).atStartOfDay()
+                    .plusSeconds(random.nextInt(24 * 60 * 60));
+            boolean recent = timestamp.isAfter(asOf.minusDays(7).atStartOfDay());
+
+            appendId(out, "ER", i + 1, 8).append(',');
+            if (byTourist) {
+                appendId(out, TOURIST_PREFIX, random.nextInt(touristCount) + 1, 7);
+            } else {
+                appendId(out, GUIDE_PREFIX, random.nextInt(guideCount) + 1, 6);
+            }
+            out.append(',').append(byTourist ? "Tourist" : "Guide").append(',').append(location).append(',')
+                    .append(EMERGENCY_TYPES[pick(random, emergencyTypeWeights)]).append(',')
+                    .append(PRIORITIES[pick(random, priorityWeights)]).append(',');
+            appendCsv(out, EMERGENCY_DESCRIPTIONS[random.nextInt(EMERGENCY_DESCRIPTIONS.length)]).append(',')
+                    .append(phone(random)).append(',').append(timestamp.format(DATETIME_FORMATTER)).append(',');
+            // Old incidents are almost all closed; the last week's are still being handled
+            int roll = random.nextInt(100);
+            out.append(recent ? (roll < 50 ? "Reported" : roll < 85 ? "Acknowledged" : "Resolved")
+                    : (roll < 90 ? "Resolved" : roll < 97 ? "Acknowledged" : "Reported")).append(',');
+            if (random.nextInt(100) < 6) {
+                // Duplicates of the same incident from people nearby, merged into this report
+                int linked = 1 + random.nextInt(3);
+                for (int l = 0; l < linked; l++) {
+                    if (l > 0) out.append(';');
+                    appendId(out, TOURIST_PREFIX, random.nextInt(touristCount) + 1, 7);
+                }
+            }
+            // No details for generated duplicates
+            out.append(',').append(NEWLINE);
+        }
+    }
+
+    private LocalDate tourDate(SplittableRandom random) {
+        LocalDate first = asOf.minusYears(2);
+        LocalDate last = asOf.plusYears(1);
+        while (true) {
+            int month = 1 + pick(random, monthWeights);
+            int year = first.getYear() + random.nextInt(last.getYear() - first.getYear() + 1);
+            LocalDate start = LocalDate.of(year, month, 1);
+            LocalDate date = start.plusDays(random.nextInt(start.lengthOfMonth()));
+            if (!date.isBefore(first) && date.isBefore(last)) {
+                return date;
+            }
+        }
+    }
+
+    private String status(SplittableRandom random, LocalDate tourDate) {
+        int roll = random.nextInt(100);
+        if (tourDate.isBefore(asOf)) {
+            return roll < 85 ? "Completed" : roll < 97 ? "Cancelled" : "Pending";
+        }
+        return roll < 55 ? "Confirmed" : roll < 90 ? "Pending" : "Cancelled";
+    }
+
+    private static String languages(SplittableRandom random) {
+        // Every guide speaks English and Nepali; some speak one or two more
+        StringBuilder sb = new StringBuilder("English, Nepali");
+        int extra = random.nextInt(3);
+        for (int i = 0; i < extra; i++) {
+            String language = LANGUAGES[2 + random.nextInt(LANGUAGES.length - 2)];
+            if (sb.indexOf(language) < 0) {
+                sb.append(", ").append(language);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int repeatCustomer(SplittableRandom random, int count) {
+        // Skewed towards low ids, so some tourists book many times and most book once or twice
+        return Math.min(count - 1, (int) (Math.pow(random.nextDouble(), 1.6) * count));
+    }
+
+    private static String phone(SplittableRandom random) {
+        return "98" + (10_000_000 + random.nextInt(90_000_000));
+    }
+
+    // --- Writing ---
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(SplittableRandom random, int from, int to, StringBuilder out);
+    }
+
+    /**
+     * Generates rows in chunks on the pool, a bounded number ahead, and writes them in order
+     * through a temporary file that is moved into place at the end.
+     */
+    private void writeChunked(ExecutorService pool, int threads, Path target, String header, int rows, long salt,
+                              ChunkWriter writer) throws IOException {
+        long start = System.nanoTime();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), WRITE_BUFFER_BYTES)) {
+            out.write((header + NEWLINE).getBytes(StandardCharsets.UTF_8));
+            int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * CHUNK_ROWS;
+                int to = Math.min(rows, from + CHUNK_ROWS);
+                // Each chunk's stream depends only on the seed and its position, never on thread timing
+                SplittableRandom random = new SplittableRandom(mix(seed, salt, chunk));
+                pending.add(pool.submit(() -> {
+                    StringBuilder sb = new StringBuilder((to - from) * 96);
+                    writer.write(random, from, to, sb);
+                    return sb.toString().getBytes(StandardCharsets.UTF_8);
+                }));
+                if (pending.size() >= threads * 2) {
+                    out.write(await(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                out.write(await(pending.poll()));
+            }
+        } catch (IOException | RuntimeException e) {
+            pending.forEach(future -> future.cancel(true));
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        logger.fine(() -> "Wrote " + rows + " rows to " + target + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static byte[] await(Future<byte[]> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating data", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to generate data", e.getCause());
+        }
+    }
+
+    // --- Helpers ---
+
+    private static long mix(long seed, long salt, long index) {
+        // SplitMix64 finaliser, so neighbouring chunks get unrelated streams
+        long z = seed + salt * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] sums = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            sums[i] = total;
+        }
+        return sums;
+    }
+
+    /**
+     * @return An index picked with the probabilities given by the cumulative weights.
+     */
+    private static int pick(SplittableRandom random, double[] cumulativeWeights) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        return Math.min(cumulativeWeights.length - 1, index >= 0 ? index + 1 : -index - 1);
+    }
+
+    /**
+     * Appends e.g. "BK0000002A": the prefix and the number in upper-case hex, zero-padded like
+     * the ids the app makes, without a String.format per row.
+     */
+    private static StringBuilder appendId(StringBuilder sb, String prefix, int number, int digits) {
+        sb.append(prefix);
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            sb.append(HEX_DIGITS[(number >>> shift) & 0xF]);
+        }
+        return sb;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder sb, String field) {
+        // Same quoting as CSVDataManager.escapeCSV
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0) {
+            return sb.append('"').append(field.replace("\"", "\"\"")).append('"');
+        }
+        return sb.append(field);
+    }
+
+    private static final class PlannedAttraction {
+        final String id;
+        final String name;
+        final int region;
+        final String category;
+        final String difficulty;
+        final int durationDays;
+        final double priceUSD;
+        final double rating;
+        final int altitudeMeters;
+
+        PlannedAttraction(String id, String name, int region, String category, String difficulty, int durationDays,
+                          double priceUSD, double rating, int altitudeMeters) {
+            this.id = id;
+            this.name = name;
+            this.region = region;
+            this.category = category;
+            this.difficulty = difficulty;
+            this.durationDays = durationDays;
+            this.priceUSD = priceUSD;
+            this.rating = rating;
+            this.altitudeMeters = altitudeMeters;
+        }
+    }
+
+    /**
+     * How many rows of each file were written.
+     */
+    public static final class Summary {
+        private final int users;
+        private final int attractions;
+        private final int bookings;
+        private final int emergencyReports;
+        private final long elapsedMillis;
+
+        Summary(int users, int attractions, int bookings, int emergencyReports, long elapsedMillis) {
+            this.users = users;
+            this.attractions = attractions;
+            this.bookings = bookings;
+            this.emergencyReports = emergencyReports;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getUsers() {
+            return users;
+        }
+
+        public int getAttractions() {
+            return attractions;
+        }
+
+        public int getBookings() {
+            return bookings;
+        }
+
+        public int getEmergencyReports() {
+            return emergencyReports;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return users + " users, " + attractions + " attractions, " + bookings + " bookings and "
+                    + emergencyReports + " emergency reports in " + elapsedMillis + " ms";
+        }
+    }
+
+    /**
+     * @param args {@code --dir=PATH} (required, so real data is never overwritten by accident),
+     *             {@code --bookings=N}, {@code --seed=N} and {@code --as-of=yyyy-MM-dd}.
+     */
+    public static void main(String[] args) {
+        Path dir = null;
+        int bookings = 10_000;
+        long seed = DEFAULT_SEED;
+        LocalDate asOf = DEFAULT_AS_OF;
+        for (String arg : args) {
+            if (arg.startsWith("--dir=")) {
+                dir = Paths.get(arg.substring("--dir=".length()));
+            } else if (arg.startsWith("--bookings=")) {
+                bookings = Integer.parseInt(arg.substring("--bookings=".length()).replace("_", ""));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--as-of=")) {
+                asOf = LocalDate.parse(arg.substring("--as-of=".length()));
+            }
+        }
+        if (dir == null) {
+            logger.severe("Usage: DataGenerator --dir=PATH [--bookings=N] [--seed=N] [--as-of=yyyy-MM-dd]");
+            System.exit(1);
+        }
+        try {
+            new DataGenerator(seed, bookings, asOf).generate(dir);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to generate data in " + dir, e);
+            System.exit(1);
+        }
+    }
+}
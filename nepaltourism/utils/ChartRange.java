@@ -0,0 +1,109 @@
+package com.example.nepaltourism.utils;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+
+/**
+ * The months a monthly chart shows. The presets cover the last few months up to now plus any
+ * later month with bookings (tours booked ahead); a custom range is shown exactly as given.
+ * Each range has a language bundle key for its name; {@link #toString()} is the English name.
+ */
+public final class ChartRange {
+
+    /** Every month with data, and always the last 6 months. */
+    public static final ChartRange ALL = new ChartRange("chart.range.all", "All", 6, null, null);
+    public static final ChartRange SIX_MONTHS = new ChartRange("chart.range.six_months", "6 months", 6, null, null);
+    public static final ChartRange ONE_YEAR = new ChartRange("chart.range.one_year", "1 year", 12, null, null);
+    public static final ChartRange FIVE_YEARS = new ChartRange("chart.range.five_years", "5 years", 60, null, null);
+
+    /** Key of a custom range's name, with the first and last month as {0} and {1}. */
+    public static final String BETWEEN_KEY = "chart.range.between";
+
+    public static final List<ChartRange> PRESETS = List.of(SIX_MONTHS, ONE_YEAR, FIVE_YEARS, ALL);
+
+    private final String key;
+    private final String name;
+    private final int recentMonths;
+    private final YearMonth from;
+    private final YearMonth to;
+
+    ChartRange(String key, String name, int recentMonths, YearMonth from, YearMonth to) {
+        this.key = key;
+        this.name = name;
+        this.recentMonths = recentMonths;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return The months from {@code from} to {@code to}, both included.
+     */
+    public static ChartRange between(YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range ends before it starts: " + from + " to " + to);
+        }
+        return new ChartRange(BETWEEN_KEY, from + " to " + to, 0, from, to);
+    }
+
+    public boolean isCustom() {
+        return from != null;
+    }
+
+    /**
+     * @return The language bundle key of the range's name.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @param byMonth The chart's data.
+     * @param now The current month.
+     * @return The first month to show.
+     */
+    public YearMonth getFrom(SortedMap<YearMonth, ?> byMonth, YearMonth now) {
+        if (from != null) {
+            return from;
+        }
+        YearMonth recent = now.minusMonths(recentMonths - 1);
+        if (this == ALL && !byMonth.isEmpty() && byMonth.firstKey().isBefore(recent)) {
+            return byMonth.firstKey();
+        }
+        return recent;
+    }
+
+    /**
+     * @return The last month to show.
+     */
+    public YearMonth getTo(SortedMap<YearMonth, ?> byMonth, YearMonth now) {
+        if (to != null) {
+            return to;
+        }
+        return !byMonth.isEmpty() && byMonth.lastKey().isAfter(now) ? byMonth.lastKey() : now;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChartRange)) {
+            return false;
+        }
+        ChartRange other = (ChartRange) o;
+        return recentMonths == other.recentMonths && name.equals(other.name)
+                && Objects.equals(from, other.from) && Objects.equals(to, other.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, recentMonths, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
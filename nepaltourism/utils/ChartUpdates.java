@@ -0,0 +1,127 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.diagnostics.ChartUpdateEvent;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
+
+import java.util.*;
+
+/**
+ * Updates chart data in place: existing points get new values, new categories are added and
+ * vanished ones removed, instead of clearing the chart and rebuilding every point. Each update
+ * is recorded as a {@link ChartUpdateEvent} for the flight recorder.
+ */
+public class ChartUpdates {
+
+    private ChartUpdates() {
+    }
+
+    /**
+     * Shows the values as the chart's single series.
+     * @param chart The bar or line chart.
+     * @param seriesName Name of the series, shown in the legend.
+     * @param values Category label to value, in display order.
+     */
+    public static void setSeries(XYChart<String, Number> chart, String seriesName, Map<String, ? extends Number> values) {
+        ChartUpdateEvent event = ChartUpdateEvent.start(seriesName);
+        XYChart.Series<String, Number> series;
+        if (chart.getData().size() == 1) {
+            series = chart.getData().get(0);
+            if (!Objects.equals(series.getName(), seriesName)) {
+                series.setName(seriesName); // e.g. after a language switch
+            }
+        } else {
+            chart.getData().clear();
+            series = new XYChart.Series<>();
+            series.setName(seriesName);
+            chart.getData().add(series);
+        }
+
+        int before = series.getData().size();
+        int added = 0;
+        int removed = 0;
+        List<String> order = new ArrayList<>(values.keySet());
+        if (!order.equals(categories(series))) {
+            // Drop vanished categories and insert new ones in place, so a range that slides by a
+            // month touches two points rather than redrawing all of them
+            series.getData().removeIf(point -> !values.containsKey(point.getXValue()));
+            removed = before - series.getData().size();
+            Set<String> remaining = new HashSet<>(categories(series));
+            List<XYChart.Data<String, Number>> points = series.getData();
+            boolean reordered = false;
+            for (int i = 0; i < order.size() && !reordered; i++) {
+                String category = order.get(i);
+                if (i < points.size() && category.equals(points.get(i).getXValue())) {
+                    continue;
+                }
+                if (remaining.contains(category)) {
+                    reordered = true;
+                } else {
+                    points.add(i, new XYChart.Data<>(category, values.get(category)));
+                    added++;
+                }
+            }
+            if (reordered) {
+                // Rare (e.g. a changed sort): keep matching points, rebuild the list around them
+                Map<String, XYChart.Data<String, Number>> existing = new HashMap<>();
+                for (XYChart.Data<String, Number> point : points) {
+                    existing.put(point.getXValue(), point);
+                }
+                List<XYChart.Data<String, Number>> reorderedPoints = new ArrayList<>();
+                for (String category : order) {
+                    XYChart.Data<String, Number> point = existing.get(category);
+                    reorderedPoints.add(point != null ? point : new XYChart.Data<>(category, values.get(category)));
+                }
+                added = order.size() - remaining.size();
+                series.getData().setAll(reorderedPoints);
+            }
+        }
+        int changed = 0;
+        for (XYChart.Data<String, Number> point : series.getData()) {
+            Number value = values.get(point.getXValue());
+            if (!Objects.equals(point.getYValue(), value)) {
+                point.setYValue(value);
+                changed++;
+            }
+        }
+        event.end(series.getData().size(), added, removed, changed);
+    }
+
+    private static List<String> categories(XYChart.Series<String, Number> series) {
+        List<String> categories = new ArrayList<>(series.getData().size());
+        for (XYChart.Data<String, Number> point : series.getData()) {
+            categories.add(point.getXValue());
+        }
+        return categories;
+    }
+
+    /**
+     * Shows the values as pie slices, updating slices that already exist.
+     * @param chart The pie chart.
+     * @param chartName What the chart shows, for diagnostics.
+     * @param values Slice label to value.
+     */
+    public static void setSlices(PieChart chart, String chartName, Map<String, ? extends Number> values) {
+        ChartUpdateEvent event = ChartUpdateEvent.start(chartName);
+        Map<String, PieChart.Data> existing = new HashMap<>();
+        for (PieChart.Data slice : chart.getData()) {
+            existing.put(slice.getName(), slice);
+        }
+        int before = chart.getData().size();
+        chart.getData().removeIf(slice -> !values.containsKey(slice.getName()));
+        int removed = before - chart.getData().size();
+        int added = 0;
+        int changed = 0;
+        for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+            PieChart.Data slice = existing.get(entry.getKey());
+            if (slice == null) {
+                chart.getData().add(new PieChart.Data(entry.getKey(), entry.getValue().doubleValue()));
+                added++;
+            } else if (slice.getPieValue() != entry.getValue().doubleValue()) {
+                slice.setPieValue(entry.getValue().doubleValue());
+                changed++;
+            }
+        }
+        event.end(chart.getData().size(), added, removed, changed);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.diagnostics.Metrics;
+import com.example.nepaltourism.services.ChangeEvent;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One part of a dashboard (a table, or the KPIs and charts of an overview) whose data is
+ * computed off the FX thread and shown in a single update.
+ * <p>
+ * {@link #load()} runs the loader on a shared worker pool while the section's tables show a
+ * spinner, then hands the result to the publisher on the FX thread. Change events that arrive
+ * while it loads are held back and replayed after the result is shown, so nothing published
+ * after the loader took its snapshot is lost; the delta handler must therefore be idempotent
+ * (replace a row by id rather than append it). Events for a section that has not loaded yet
+ * are dropped, since its first load reads the current data anyway.
+ * <p>
+ * Sections tied to a tab with {@link #showIn(Tab)} load lazily, so logging in only loads the
+ * tab the user actually sees.
+ *
+ * @param <T> What the loader computes, e.g. the rows of a table.
+ */
+public class DashboardSection<T> extends Service<T> {
+
+    private static final Logger logger = Logger.getLogger(DashboardSection.class.getName());
+
+    // Past this many changes at once (e.g. a bulk import) reloading is cheaper than applying them row by row
+    static final int RELOAD_AFTER_CHANGES = 500;
+
+    // Shared by every dashboard; daemon threads so a load in flight never keeps the app alive
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "dashboard-loader-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final String name;
+    private final String metricName;
+    private final Callable<T> loader;
+    private final Consumer<T> publisher;
+    private final Consumer<List<ChangeEvent<?>>> deltas;
+    private final List<Placeholder> placeholders = new ArrayList<>();
+    private final List<ChangeEvent<?>> deferred = new ArrayList<>();
+    private Tab tab;
+    private boolean loaded;
+
+    /**
+     * @param name What the section shows, for log messages and the metrics
+     *             ({@code dashboard.load.<name>} and {@code dashboard.refresh.<name>}).
+     * @param loader Computes the section's data; runs on a worker thread, so it must only read
+     *               thread-safe state (the data service's snapshots and lookups).
+     * @param publisher Shows the data; runs on the FX thread.
+     * @param deltas Applies a batch of changes to the data already shown; runs on the FX thread.
+     */
+    public DashboardSection(String name, Callable<T> loader, Consumer<T> publisher, Consumer<List<ChangeEvent<?>>> deltas) {
+        this.name = name;
+        this.metricName = name.replace(' ', '.');
+        this.loader = loader;
+        this.publisher = publisher;
+        this.deltas = deltas;
+        setExecutor(WORKERS);
+    }
+
+    /**
+     * Shows a spinner in the table while the section loads.
+     */
+    public DashboardSection<T> withPlaceholder(TableView<?> table) {
+        placeholders.add(new Placeholder(table.getPlaceholder(), table::setPlaceholder));
+        return this;
+    }
+
+    /**
+     * Shows a spinner in the list while the section loads.
+     */
+    public DashboardSection<T> withPlaceholder(ListView<?> list) {
+        placeholders.add(new Placeholder(list.getPlaceholder(), list::setPlaceholder));
+        return this;
+    }
+
+    /**
+     * Ties the section to the tab that shows it: the section loads the first time the tab is
+     * selected, and a load still running when the user leaves the tab is cancelled and started
+     * again when they come back, so a tab nobody is looking at does not hold a worker.
+     */
+    public DashboardSection<T> showIn(Tab tab) {
+        this.tab = tab;
+        tab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (!selected && isRunning()) {
+                logger.fine("Leaving tab, cancelling load of " + name);
+                cancel();
+            } else if (selected && !loaded && !isRunning()) {
+                load();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Loads the section now if its tab is the one showing (or it has no tab); otherwise it
+     * waits until its tab is first selected.
+     */
+    public void loadIfVisible() {
+        if (tab == null || tab.isSelected()) {
+            load();
+        }
+    }
+
+    /**
+     * Starts (or restarts) loading the section.
+     */
+    public void load() {
+        if (isRunning()) {
+            cancel();
+        }
+        deferred.clear();
+        for (Placeholder placeholder : placeholders) {
+            placeholder.setter.accept(new ProgressIndicator());
+        }
+        restart();
+    }
+
+    /**
+     * @return True once the section has shown its data, until a load that would have
+     *         brought it up to date is cancelled.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Applies a batch of changes now if the section is showing data, holds it while a load is
+     * in flight, and ignores it if the section has not been loaded. A very large batch reloads
+     * the section instead.
+     */
+    public void applyChanges(List<ChangeEvent<?>> events) {
+        if (isRunning()) {
+            deferred.addAll(events);
+        } else if (loaded && events.size() > RELOAD_AFTER_CHANGES) {
+            logger.fine(() -> events.size() + " changes at once, reloading " + name);
+            load();
+        } else if (loaded) {
+            applyDeltas(events);
+        }
+    }
+
+    @Override
+    protected Task<T> createTask() {
+        return new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                Metrics.Timer timer = Metrics.time("dashboard.load." + metricName);
+                try {
+                    return loader.call();
+                } finally {
+                    timer.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void succeeded() {
+        long start = System.nanoTime();
+        publisher.accept(getValue());
+        loaded = true;
+        restorePlaceholders();
+        if (!deferred.isEmpty()) {
+            List<ChangeEvent<?>> replay = ChangeEvent.coalesce(new ArrayList<>(deferred));
+            deferred.clear();
+            if (replay.size() > RELOAD_AFTER_CHANGES) {
+                load();
+            } else {
+                applyDeltas(replay);
+            }
+        }
+        logger.fine(() -> "Published " + name + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    @Override
+    protected void failed() {
+        logger.log(Level.SEVERE, "Failed to load " + name, getException());
+        deferred.clear();
+        for (Placeholder placeholder : placeholders) {
+            placeholder.setter.accept(new Label("Could not load data."));
+        }
+    }
+
+    @Override
+    protected void cancelled() {
+        // Whatever is shown misses the changes held back for this load (a reload may have been
+        // started because of them), so the section counts as not loaded and loads again in full
+        // when its tab is next selected
+        loaded = false;
+        deferred.clear();
+        restorePlaceholders();
+    }
+
+    private void applyDeltas(List<ChangeEvent<?>> events) {
+        Metrics.time("dashboard.refresh." + metricName, () -> deltas.accept(events));
+    }
+
+    private void restorePlaceholders() {
+        for (Placeholder placeholder : placeholders) {
+            placeholder.setter.accept(placeholder.original);
+        }
+    }
+
+    private static final class Placeholder {
+        final Node original;
+        final Consumer<Node> setter;
+
+        Placeholder(Node original, Consumer<Node> setter) {
+            this.original = original;
+            this.setter = setter;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.nepaltourism.utils;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+
+import java.util.Optional;
+
+/**
+ * Finds the tab that shows a given control. The dashboards' FXML does not name its tabs,
+ * so controllers locate them through the controls they already inject.
+ */
+public class DashboardTabs {
+
+    private DashboardTabs() {
+    }
+
+    /**
+     * @param node Any control inside the dashboard, e.g. a table.
+     * @return The tab whose content contains the node, if it sits inside a tab.
+     */
+    public static Optional<Tab> tabContaining(Node node) {
+        if (node == null) {
+            return Optional.empty();
+        }
+        Node root = node;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        if (!(root instanceof Parent)) {
+            return Optional.empty();
+        }
+        // Works before the dashboard is in a scene: TabPane carries its style class from construction
+        for (Node candidate : root.lookupAll(".tab-pane")) {
+            if (!(candidate instanceof TabPane)) continue;
+            for (Tab tab : ((TabPane) candidate).getTabs()) {
+                if (isInside(node, tab.getContent())) {
+                    return Optional.of(tab);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isInside(Node node, Node container) {
+        for (Node current = node; current != null; current = current.getParent()) {
+            if (current == container) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
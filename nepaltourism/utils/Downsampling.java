@@ -0,0 +1,94 @@
+package com.example.nepaltourism.utils;
+
+/**
+ * Thins out a long, evenly spaced series (e.g. one value per month) when there are more points
+ * than the chart has room for. The points kept are returned as indexes, in order.
+ */
+public enum Downsampling {
+
+    /**
+     * Largest-Triangle-Three-Buckets: keeps the first and last points and, from each bucket of
+     * points between them, the one forming the largest triangle with the point kept before it
+     * and the next bucket's average, which preserves the shape of a line. The kept points are
+     * not evenly spaced, which a category axis does not show: it draws them side by side.
+     */
+    LTTB {
+        @Override
+        int[] pick(double[] values, int maxPoints) {
+            int n = values.length;
+            if (maxPoints < 3) {
+                return new int[]{0, n - 1};
+            }
+            int[] kept = new int[maxPoints];
+            double bucketSize = (double) (n - 2) / (maxPoints - 2);
+            int previous = 0;
+            for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+                int start = (int) (bucket * bucketSize) + 1;
+                int end = (int) ((bucket + 1) * bucketSize) + 1;
+                int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+                double averageX = 0;
+                double averageY = 0;
+                for (int i = end; i < nextEnd; i++) {
+                    averageX += i;
+                    averageY += values[i];
+                }
+                averageX /= nextEnd - end;
+                averageY /= nextEnd - end;
+
+                int chosen = start;
+                double largestArea = -1;
+                for (int i = start; i < end; i++) {
+                    double area = Math.abs((previous - averageX) * (values[i] - values[previous])
+                            - (previous - i) * (averageY - values[previous]));
+                    if (area > largestArea) {
+                        largestArea = area;
+                        chosen = i;
+                    }
+                }
+                kept[bucket + 1] = chosen;
+                previous = chosen;
+            }
+            kept[maxPoints - 1] = n - 1;
+            return kept;
+        }
+    },
+
+    /**
+     * Splits the series into runs of the same number of consecutive points (the last run may be
+     * shorter), each to be drawn as their total; suits bar charts, where every bar should still
+     * count everything in the months it stands for. The indexes returned are where each run
+     * starts; a run ends where the next one starts.
+     */
+    SUM {
+        @Override
+        int[] pick(double[] values, int maxPoints) {
+            int n = values.length;
+            int run = (n + maxPoints - 1) / maxPoints;
+            int[] starts = new int[(n + run - 1) / run];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = i * run;
+            }
+            return starts;
+        }
+    };
+
+    /**
+     * @param values The series, one value per step (e.g. per month).
+     * @param maxPoints How many points there is room for.
+     * @return Indexes of the points to draw (for {@link #SUM}, where each run starts),
+     *         ascending; every index if they all fit.
+     */
+    public int[] select(double[] values, int maxPoints) {
+        int n = values.length;
+        if (n <= maxPoints || n <= 2) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        return pick(values, Math.max(maxPoints, 1));
+    }
+
+    abstract int[] pick(double[] values, int maxPoints);
+}
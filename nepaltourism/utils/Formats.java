@@ -0,0 +1,102 @@
+package com.example.nepaltourism.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared number and date formatting for labels and charts, so that nothing on a hot path
+ * builds a formatter or goes through {@link String#format}.
+ * <p>
+ * Month labels ("Jan 25") come from a table per language, filled as months are first asked
+ * for. Money is shown in dollars with two decimals and always a '.', as the data files use.
+ * Safe to use from any thread.
+ */
+public final class Formats {
+
+    /** The chart month label pattern, e.g. "Jan 25". */
+    public static final String MONTH_PATTERN = "MMM yy";
+
+    private static final Map<Locale, MonthLabels> monthLabels = new ConcurrentHashMap<>();
+
+    private Formats() {
+    }
+
+    /**
+     * @return The month labels in the given language, created once per language.
+     */
+    public static MonthLabels monthLabels(Locale locale) {
+        return monthLabels.computeIfAbsent(locale, MonthLabels::new);
+    }
+
+    /**
+     * @return E.g. "$1250.50".
+     */
+    public static String currency(double amount) {
+        return appendTwoDecimals(new StringBuilder(16).append('$'), amount).toString();
+    }
+
+    /**
+     * Two decimals, always with a '.' whatever the locale, rounded half-up like the data files'
+     * "%.2f" (1.005 gives "1.01"), except that a value rounding to zero never shows as "-0.00".
+     */
+    public static StringBuilder appendTwoDecimals(StringBuilder sb, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15) {
+            return sb.append(String.format(Locale.ROOT, "%.2f", value));
+        }
+        long cents = cents(Math.abs(value));
+        if (value < 0 && cents != 0) sb.append('-');
+        sb.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    // "%.2f" rounds the decimal that Double.toString prints, not the double's exact binary value,
+    // which for 1.005 is a little under it. The two only disagree on a tie, so only those take the slow way.
+    private static long cents(double magnitude) {
+        double scaled = magnitude * 100;
+        if (magnitude < 1e7 && Math.abs(scaled - Math.floor(scaled) - 0.5) > 1e-3) {
+            return Math.round(scaled);
+        }
+        return BigDecimal.valueOf(magnitude).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Month labels in one language. Months within {@link #YEARS_BEFORE} years back and
+     * {@link #YEARS_AFTER} ahead of when the table was made are formatted once and then looked
+     * up; others are formatted each time.
+     */
+    public static final class MonthLabels {
+        static final int YEARS_BEFORE = 50;
+        static final int YEARS_AFTER = 50;
+
+        private final DateTimeFormatter formatter;
+        private final int firstYear;
+        // Months since January of firstYear to label; entries race benignly, Strings being immutable
+        private final String[] labels;
+
+        private MonthLabels(Locale locale) {
+            this.formatter = DateTimeFormatter.ofPattern(MONTH_PATTERN, locale);
+            this.firstYear = YearMonth.now().getYear() - YEARS_BEFORE;
+            this.labels = new String[(YEARS_BEFORE + YEARS_AFTER + 1) * 12];
+        }
+
+        public String label(YearMonth month) {
+            int index = (month.getYear() - firstYear) * 12 + month.getMonthValue() - 1;
+            if (index < 0 || index >= labels.length) {
+                return month.format(formatter);
+            }
+            String label = labels[index];
+            if (label == null) {
+                label = month.format(formatter);
+                labels[index] = label;
+            }
+            return label;
+        }
+    }
+}
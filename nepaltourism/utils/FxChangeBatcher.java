@@ -0,0 +1,70 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.services.ChangeEvent;
+import com.example.nepaltourism.services.ChangeEventBus;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Bridges the change bus to a dashboard: events published on any thread are queued and
+ * handed to the dashboard on the FX thread in one batch, coalesced so an entity changed
+ * several times shows up once. At most one drain is scheduled at a time, so a burst of
+ * changes costs one UI update per pulse rather than one per change.
+ */
+public class FxChangeBatcher implements ChangeEventBus.Listener {
+
+    private final ChangeEventBus bus;
+    private final Consumer<List<ChangeEvent<?>>> sink;
+    private final ConcurrentLinkedQueue<ChangeEvent<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * Subscribes to the bus right away.
+     * @param bus The data service's change bus.
+     * @param sink Applies a batch of changes; always called on the FX thread.
+     */
+    public FxChangeBatcher(ChangeEventBus bus, Consumer<List<ChangeEvent<?>>> sink) {
+        this.bus = bus;
+        this.sink = sink;
+        bus.subscribe(this);
+    }
+
+    @Override
+    public void onChange(ChangeEvent<?> event) {
+        if (closed) {
+            return;
+        }
+        pending.add(event);
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Clear the flag first so events arriving while we apply this batch schedule the next one
+        scheduled.set(false);
+        List<ChangeEvent<?>> batch = new ArrayList<>();
+        ChangeEvent<?> event;
+        while ((event = pending.poll()) != null) {
+            batch.add(event);
+        }
+        if (!closed && !batch.isEmpty()) {
+            sink.accept(ChangeEvent.coalesce(batch));
+        }
+    }
+
+    /**
+     * Stops listening, e.g. when the dashboard is replaced on logout or language switch.
+     */
+    public void close() {
+        closed = true;
+        bus.unsubscribe(this);
+        pending.clear();
+    }
+}
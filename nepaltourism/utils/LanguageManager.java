@@ -1,24 +1,43 @@
 package com.example.nepaltourism.utils;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages language switching for the application.
  * Uses Java ResourceBundle for localization.
+ * <p>
+ * Text that should follow the language binds to {@link #localized}, e.g.
+ * {@code label.textProperty().bind(LanguageManager.localized("button.update"))}, and changes in
+ * place when {@link #setLocale} is called, in every open window. Bindings hold the language
+ * weakly, so a view that is closed is not kept alive by them. Bind and listen on the FX thread
+ * only (not in a controller's initialize(), which may run on the view prewarmer's thread):
+ * the language's listener list is not thread-safe.
  */
 public class LanguageManager {
     private static final String BUNDLE_NAME = "lang/messages";
-    private static Locale currentLocale = Locale.ENGLISH; // Default to English
-    private static ResourceBundle resourceBundle = ResourceBundle.getBundle(BUNDLE_NAME, currentLocale);
+    // Each language's bundle is read once; switching back and forth only swaps them
+    private static final Map<Locale, ResourceBundle> bundles = new ConcurrentHashMap<>();
+    private static volatile Locale currentLocale = Locale.ENGLISH; // Default to English
+    private static volatile ResourceBundle resourceBundle = bundle(currentLocale);
+    private static final ReadOnlyObjectWrapper<Locale> locale = new ReadOnlyObjectWrapper<>(currentLocale);
 
     /**
-     * Sets the application language.
+     * Sets the application language. Bound text changes right away, so call this on the FX thread.
      * @param locale The locale to switch to (e.g., Locale.ENGLISH, new Locale("np")).
      */
     public static void setLocale(Locale locale) {
+        resourceBundle = bundle(locale);
         currentLocale = locale;
-        resourceBundle = ResourceBundle.getBundle(BUNDLE_NAME, currentLocale);
+        LanguageManager.locale.set(locale);
     }
 
     /**
@@ -29,6 +48,14 @@ public class LanguageManager {
         return currentLocale;
     }
 
+    /**
+     * @return The current locale, for views that redraw something themselves when it changes
+     *         (e.g. charts with month names).
+     */
+    public static ReadOnlyObjectProperty<Locale> localeProperty() {
+        return locale.getReadOnlyProperty();
+    }
+
     /**
      * Gets the localized string for a given key.
      * @param key The key for the string in the properties file.
@@ -43,6 +70,56 @@ public class LanguageManager {
         }
     }
 
+    /**
+     * Gets the localized string for a key that may not be in every bundle yet.
+     * @param key The key for the string in the properties file.
+     * @param defaultText The English text, shown if the bundle has no such key.
+     * @param args Values for the string's {0}, {1}, ... placeholders.
+     * @return The localized string, or defaultText if not found.
+     */
+    public static String getString(String key, String defaultText, Object... args) {
+        String text;
+        try {
+            text = resourceBundle.getString(key);
+        } catch (Exception e) {
+            text = defaultText;
+        }
+        return format(text, args);
+    }
+
+    /**
+     * @param key The key for the string in the properties file.
+     * @param args Values for the string's {0}, {1}, ... placeholders.
+     * @return The localized string, kept up to date as the language changes.
+     */
+    public static StringBinding localized(String key, Object... args) {
+        return Bindings.createStringBinding(() -> format(getString(key), args), locale);
+    }
+
+    /**
+     * @param text Computes the text in the current language.
+     * @return The text, recomputed whenever the language changes.
+     */
+    public static StringBinding localized(Callable<String> text) {
+        return Bindings.createStringBinding(text, locale);
+    }
+
+    private static String format(String text, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            text = text.replace("{" + i + "}", String.valueOf(args[i]));
+        }
+        return text;
+    }
+
+    /**
+     * Also used to load views in a given language, so every bundle is read through this one cache.
+     * @param locale The language.
+     * @return The app's messages in that language.
+     */
+    public static ResourceBundle bundle(Locale locale) {
+        return bundles.computeIfAbsent(locale, l -> ResourceBundle.getBundle(BUNDLE_NAME, l));
+    }
+
     /**
      * Gets the display name for the current language.
      * Useful for UI elements like language switch buttons.
@@ -0,0 +1,90 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.diagnostics.MetricSnapshot;
+import com.example.nepaltourism.diagnostics.Metrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.util.Duration;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * A tab listing the app's {@link Metrics}: counters, gauges and latency percentiles. It
+ * refreshes every few seconds while it is selected and not at all otherwise, so it costs
+ * nothing while nobody looks at it.
+ */
+public class MetricsTab {
+
+    private static final Duration REFRESH_EVERY = Duration.seconds(5);
+
+    private MetricsTab() {
+    }
+
+    public static Tab create() {
+        ObservableList<MetricSnapshot> rows = FXCollections.observableArrayList();
+        TableView<MetricSnapshot> table = new TableView<>(rows);
+        table.setPlaceholder(new Label("Nothing recorded yet."));
+        table.getColumns().add(column("Metric", MetricSnapshot::getName));
+        table.getColumns().add(column("Type", metric -> metric.getType().name().toLowerCase(Locale.ROOT)));
+        table.getColumns().add(column("Count / Value", MetricsTab::countOrValue));
+        table.getColumns().add(column("Mean (ms)", metric -> millis(metric, metric.getMeanMillis())));
+        table.getColumns().add(column("p50 (ms)", metric -> millis(metric, metric.getP50Millis())));
+        table.getColumns().add(column("p90 (ms)", metric -> millis(metric, metric.getP90Millis())));
+        table.getColumns().add(column("p99 (ms)", metric -> millis(metric, metric.getP99Millis())));
+        table.getColumns().add(column("Max (ms)", metric -> millis(metric, metric.getMaxMillis())));
+
+        Runnable refresh = () -> rows.setAll(Metrics.snapshot());
+        Button refreshButton = new Button("Refresh");
+        refreshButton.setOnAction(event -> refresh.run());
+        HBox toolbar = new HBox(10, refreshButton);
+        toolbar.setPadding(new Insets(10));
+
+        BorderPane content = new BorderPane();
+        content.setTop(toolbar);
+        content.setCenter(table);
+        Tab tab = new Tab("Metrics", content);
+        tab.setClosable(false);
+
+        Timeline timeline = new Timeline(new KeyFrame(REFRESH_EVERY, event -> refresh.run()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        tab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) {
+                refresh.run();
+                timeline.play();
+            } else {
+                timeline.stop();
+            }
+        });
+        return tab;
+    }
+
+    private static TableColumn<MetricSnapshot, String> column(String title, Function<MetricSnapshot, String> value) {
+        TableColumn<MetricSnapshot, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cellData -> new SimpleStringProperty(value.apply(cellData.getValue())));
+        return column;
+    }
+
+    private static String countOrValue(MetricSnapshot metric) {
+        if (metric.getType() == MetricSnapshot.Type.HISTOGRAM) {
+            return String.valueOf(metric.getCount());
+        }
+        return metric.getValue() != null ? metric.getValue().toString() : "";
+    }
+
+    private static String millis(MetricSnapshot metric, double value) {
+        return metric.getType() == MetricSnapshot.Type.HISTOGRAM ? String.format("%.2f", value) : "";
+    }
+}
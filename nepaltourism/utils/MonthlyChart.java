@@ -0,0 +1,214 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.services.BookingRollup;
+import javafx.application.Platform;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.util.StringConverter;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * A chart of monthly totals over a chosen {@link ChartRange}. Long ranges are thinned out to
+ * what the chart's width can show, and each redraw only touches the points that changed (see
+ * {@link ChartUpdates#setSeries}), so five years of months draw as smoothly as six. Bars then
+ * stand for the total of a few months each; a line keeps the months that shape it, which the
+ * category axis spaces evenly even where months in between were left out.
+ * <p>
+ * The totals are kept as given, so changing the range or resizing the chart redraws without
+ * going back to the bookings. The month labels and the range names follow the language the
+ * next time the chart is given data, as dashboards do when the language changes.
+ */
+public class MonthlyChart {
+
+    // Axis width each drawn point gets at least; narrower and the month labels pile up
+    private static final double PIXELS_PER_POINT = 8;
+    // Until the chart is laid out its width is unknown; ten years of months suit a dashboard-sized chart
+    private static final int DEFAULT_MAX_POINTS = 120;
+    private static final ChartRange CUSTOM = new ChartRange("chart.range.custom", "Custom range...", 0, null, null);
+
+    private final XYChart<String, Number> chart;
+    private final Downsampling downsampling;
+    private ChartRange range = ChartRange.ALL;
+    private String seriesName;
+    private SortedMap<YearMonth, ? extends Number> totals = Collections.emptySortedMap();
+    private int maxPoints;
+    private int monthsShown;
+    // Set on the first chart given to addRangeSelector, which keeps the names in its language
+    private ComboBox<ChartRange> rangeSelector;
+    private Locale rangesNamedIn;
+
+    /**
+     * @param chart The line or bar chart, with months along the x axis.
+     * @param downsampling {@link Downsampling#LTTB} for a line, {@link Downsampling#SUM} for bars.
+     */
+    public MonthlyChart(XYChart<String, Number> chart, Downsampling downsampling) {
+        this.chart = chart;
+        this.downsampling = downsampling;
+        this.maxPoints = maxPointsFor(chart.getXAxis().getWidth());
+        chart.getXAxis().widthProperty().addListener((obs, oldWidth, width) -> {
+            int points = maxPointsFor(width.doubleValue());
+            // Only matters if the months shown did not fit before or do not fit now
+            boolean thinned = monthsShown > Math.min(points, maxPoints);
+            maxPoints = points;
+            if (thinned) {
+                redraw();
+            }
+        });
+    }
+
+    /**
+     * Shows new totals. Call on the FX thread.
+     * @param seriesName Name of the series, shown in the legend.
+     * @param byMonth Totals by month, e.g. {@link BookingRollup#getRevenueByMonth()}.
+     */
+    public void setData(String seriesName, SortedMap<YearMonth, ? extends Number> byMonth) {
+        this.seriesName = seriesName;
+        this.totals = byMonth;
+        redraw();
+    }
+
+    public void setRange(ChartRange range) {
+        if (!range.equals(this.range)) {
+            this.range = range;
+            redraw();
+        }
+    }
+
+    public ChartRange getRange() {
+        return range;
+    }
+
+    /**
+     * Adds a choice of range above the first chart, which applies to all of them.
+     * @param charts Charts that should show the same months, e.g. earnings and tours.
+     * @return The range selector.
+     */
+    public static ComboBox<ChartRange> addRangeSelector(MonthlyChart... charts) {
+        ComboBox<ChartRange> selector = new ComboBox<>();
+        selector.setConverter(rangeNames());
+        charts[0].rangeSelector = selector;
+        charts[0].rangesNamedIn = LanguageManager.getCurrentLocale();
+        selector.getItems().addAll(ChartRange.PRESETS);
+        selector.getItems().add(CUSTOM);
+        selector.setValue(charts[0].getRange());
+        selector.valueProperty().addListener((obs, previous, selected) -> {
+            if (selected == CUSTOM) {
+                // Ask once the list has closed; an unchanged range simply puts the previous one back
+                Platform.runLater(() -> selector.setValue(askCustomRange(previous).orElse(previous)));
+                return;
+            }
+            if (selected != null) {
+                if (selected.isCustom() && !selector.getItems().contains(selected)) {
+                    selector.getItems().removeIf(ChartRange::isCustom);
+                    selector.getItems().add(selector.getItems().indexOf(CUSTOM), selected);
+                }
+                for (MonthlyChart chart : charts) {
+                    chart.setRange(selected);
+                }
+            }
+        });
+
+        // Not part of the FXML; sits above the chart
+        XYChart<String, Number> first = charts[0].chart;
+        if (first.getParent() instanceof Pane) {
+            Pane parent = (Pane) first.getParent();
+            parent.getChildren().add(parent.getChildren().indexOf(first), selector);
+        }
+        return selector;
+    }
+
+    private static Optional<ChartRange> askCustomRange(ChartRange previous) {
+        YearMonth now = YearMonth.now();
+        DatePicker fromDate = new DatePicker(now.minusYears(1).atDay(1));
+        DatePicker toDate = new DatePicker(now.atDay(1));
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(10);
+        form.add(new Label(LanguageManager.getString("chart.range.from_month", "From month:")), 0, 0);
+        form.add(fromDate, 1, 0);
+        form.add(new Label(LanguageManager.getString("chart.range.to_month", "To month:")), 0, 1);
+        form.add(toDate, 1, 1);
+
+        Dialog<ChartRange> dialog = new Dialog<>();
+        dialog.setTitle(LanguageManager.getString("chart.range.dialog_title", "Chart Range"));
+        dialog.setHeaderText(LanguageManager.getString("chart.range.dialog_header",
+                "Show the months from one date to another."));
+        dialog.getDialogPane().setContent(form);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> {
+            LocalDate from = fromDate.getValue();
+            LocalDate to = toDate.getValue();
+            if (button != ButtonType.OK || from == null || to == null) {
+                return previous;
+            }
+            return to.isBefore(from)
+                    ? ChartRange.between(YearMonth.from(to), YearMonth.from(from))
+                    : ChartRange.between(YearMonth.from(from), YearMonth.from(to));
+        });
+        return dialog.showAndWait();
+    }
+
+    /**
+     * Names ranges in the current language. The combo box only asks again when it is given a
+     * new converter, so one is set each time the language changes.
+     */
+    private static StringConverter<ChartRange> rangeNames() {
+        return new StringConverter<>() {
+            @Override
+            public String toString(ChartRange range) {
+                return range != null ? displayName(range) : "";
+            }
+
+            @Override
+            public ChartRange fromString(String text) {
+                return null; // not editable
+            }
+        };
+    }
+
+    /**
+     * @return The range's name in the current language, e.g. "Jan 24 to Mar 25" for a custom one.
+     */
+    static String displayName(ChartRange range) {
+        if (!range.isCustom()) {
+            return LanguageManager.getString(range.getKey(), range.toString());
+        }
+        Formats.MonthLabels labels = Formats.monthLabels(LanguageManager.getCurrentLocale());
+        SortedMap<YearMonth, ?> none = Collections.emptySortedMap();
+        YearMonth now = YearMonth.now();
+        return LanguageManager.getString(range.getKey(), "{0} to {1}",
+                labels.label(range.getFrom(none, now)), labels.label(range.getTo(none, now)));
+    }
+
+    private void redraw() {
+        Locale locale = LanguageManager.getCurrentLocale();
+        if (rangeSelector != null && !locale.equals(rangesNamedIn)) {
+            rangesNamedIn = locale;
+            rangeSelector.setConverter(rangeNames());
+        }
+        if (seriesName == null) {
+            return; // no data yet
+        }
+        YearMonth now = YearMonth.now();
+        monthsShown = (int) range.getFrom(totals, now).until(range.getTo(totals, now), ChronoUnit.MONTHS) + 1;
+        ChartUpdates.setSeries(chart, seriesName, BookingRollup.monthlySeries(totals, range, downsampling, maxPoints,
+                locale));
+    }
+
+    private static int maxPointsFor(double axisWidth) {
+        return axisWidth > 0 ? Math.max(4, (int) (axisWidth / PIXELS_PER_POINT)) : DEFAULT_MAX_POINTS;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.services.Page;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A read-only list for a TableView or ListView that fetches its rows a page at a time, only
+ * for the part of the list the view actually asks for.
+ * <p>
+ * The list reports the full row count, but holds only the last {@link #MAX_CACHED_PAGES}
+ * pages it was asked for. A row that is not loaded yet reads as null (an empty row) while its
+ * page, and the pages either side of it, are fetched on a background thread; when a page
+ * arrives its rows are swapped in with a change event, so the view redraws only those rows.
+ * Must be used on the FX thread.
+ *
+ * @param <T> The row type.
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    private static final Logger logger = Logger.getLogger(PagedList.class.getName());
+
+    /** How many pages stay in memory; a few screens' worth around where the user scrolled. */
+    public static final int MAX_CACHED_PAGES = 20;
+    // Pages the view is probably showing; re-fetched after a change, the rest are just dropped
+    private static final int REFRESHED_PAGES = 3;
+
+    // One fetcher for every paged list; pages are cheap to cut from an index, so one thread keeps up
+    private static final ExecutorService FETCHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "page-fetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Reads one page of rows; called on a background thread.
+     */
+    public interface PageSource<T> {
+        Page<T> fetch(int offset, int limit);
+    }
+
+    private final int pageSize;
+    private PageSource<T> source;
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> requested = new HashSet<>();
+    private int size;
+    // Bumped whenever the source or its data changes, so pages fetched before that are thrown away
+    private int generation;
+
+    /**
+     * @param pageSize Rows per fetch; about a screenful.
+     * @param source Where the rows come from.
+     */
+    public PagedList(int pageSize, PageSource<T> source) {
+        this.pageSize = pageSize;
+        this.source = source;
+    }
+
+    /**
+     * @return The row, or null while its page is still being fetched.
+     */
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            // Fetch the neighbours too, so scrolling a little further doesn't show blank rows
+            request(page + 1);
+            request(page - 1);
+            return null;
+        }
+        int offset = index % pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Switches to a different source (e.g. another sort or filter) and starts over from the top.
+     */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        reset();
+    }
+
+    /**
+     * Forgets every loaded page and fetches the first one again.
+     */
+    public void reset() {
+        generation++;
+        pages.clear();
+        requested.clear();
+        request(0);
+    }
+
+    /**
+     * Re-fetches the pages most likely on screen after the data changed, keeping the current rows
+     * until the fresh ones arrive so the view doesn't flicker.
+     */
+    public void refresh() {
+        generation++;
+        requested.clear();
+        List<Integer> recent = new ArrayList<>(pages.keySet());
+        // Access order: the most recently read pages are at the end
+        List<Integer> visible = recent.subList(Math.max(0, recent.size() - REFRESHED_PAGES), recent.size());
+        pages.keySet().retainAll(new HashSet<>(visible));
+        if (visible.isEmpty()) {
+            request(0);
+        }
+        for (int page : new ArrayList<>(visible)) {
+            request(page);
+        }
+    }
+
+    private void request(int page) {
+        if (page < 0 || (page > 0 && page * pageSize >= size) || pages.containsKey(page) || !requested.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        PageSource<T> requestSource = source;
+        FETCHER.execute(() -> {
+            Page<T> result;
+            try {
+                result = requestSource.fetch(page * pageSize, pageSize);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to fetch page " + page, e);
+                Platform.runLater(() -> {
+                    if (requestGeneration == generation) {
+                        requested.remove(page);
+                    }
+                });
+                return;
+            }
+            Platform.runLater(() -> receive(requestGeneration, page, result));
+        });
+    }
+
+    private void receive(int requestGeneration, int page, Page<T> result) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        requested.remove(page);
+        List<T> previous = pages.put(page, result.getRows());
+        int from = page * pageSize;
+
+        beginChange();
+        if (result.getTotal() != size) {
+            // The row count changed, so rows may have shifted: replace the whole list and re-fetch
+            // whatever the view asks for next
+            List<T> removed = Collections.nCopies(size, null);
+            size = result.getTotal();
+            pages.keySet().retainAll(Set.of(page));
+            nextReplace(0, size, removed);
+        } else {
+            for (int i = 0; i < result.getRows().size(); i++) {
+                T old = previous != null && i < previous.size() ? previous.get(i) : null;
+                nextSet(from + i, old);
+            }
+        }
+        endChange();
+    }
+}
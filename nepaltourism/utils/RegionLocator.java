@@ -0,0 +1,142 @@
+package com.example.nepaltourism.utils;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves free-text locations ("near Namche", "Thamel, KTM", "28.21, 83.98")
+ * to the tourism regions used for attractions, with approximate coordinates for each.
+ */
+public class RegionLocator {
+
+    /**
+     * A known region and its approximate centre.
+     */
+    public static final class Region {
+        private final String name;
+        private final double latitude;
+        private final double longitude;
+
+        Region(String name, double latitude, double longitude) {
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // Same region names as the attraction form, plus the places people actually type
+    private static final List<Region> REGIONS = new ArrayList<>();
+    private static final Map<String, Region> ALIASES = new LinkedHashMap<>();
+    private static final Pattern COORDINATES = Pattern.compile("(-?\\d{1,2}\\.\\d+)\\s*[,; ]\\s*(-?\\d{1,3}\\.\\d+)");
+
+    static {
+        register("Kathmandu Valley", 27.7172, 85.3240, "kathmandu", "ktm", "thamel", "patan", "lalitpur", "bhaktapur", "boudha", "swayambhu", "nagarkot");
+        register("Pokhara", 28.2096, 83.9856, "pokhara", "phewa", "lakeside", "sarangkot");
+        register("Everest Region", 27.8069, 86.7140, "everest", "khumbu", "namche", "lukla", "ebc", "gorak shep", "tengboche", "dingboche", "solukhumbu");
+        register("Annapurna Region", 28.5960, 83.8203, "annapurna", "abc", "ghorepani", "poon hill", "manang", "thorong", "ghandruk");
+        register("Langtang Region", 28.2114, 85.5293, "langtang", "kyanjin", "helambu", "gosaikunda");
+        register("Mustang", 28.9985, 83.8473, "mustang", "lo manthang", "jomsom", "muktinath", "kagbeni");
+        register("Manaslu", 28.5497, 84.5597, "manaslu", "samagaun", "tsum");
+        register("Ilam", 26.9094, 87.9282, "ilam", "kanyam");
+        register("Chitwan", 27.5291, 84.3542, "chitwan", "sauraha", "rapti");
+        register("Lumbini", 27.4840, 83.2760, "lumbini", "bhairahawa", "siddharthanagar");
+    }
+
+    private static void register(String name, double latitude, double longitude, String... aliases) {
+        Region region = new Region(name, latitude, longitude);
+        REGIONS.add(region);
+        for (String alias : aliases) {
+            ALIASES.put(alias, region);
+        }
+    }
+
+    /**
+     * Resolves a free-text location or "lat, lon" pair to a known region.
+     * @param location The text to resolve.
+     * @return The matching region, or empty if nothing matches.
+     */
+    public static Optional<Region> resolve(String location) {
+        if (location == null || location.isBlank()) {
+            return Optional.empty();
+        }
+        Matcher matcher = COORDINATES.matcher(location);
+        if (matcher.find()) {
+            try {
+                return Optional.of(nearest(Double.parseDouble(matcher.group(1)), Double.parseDouble(matcher.group(2))));
+            } catch (NumberFormatException ignored) {
+                // fall through to name matching
+            }
+        }
+        String text = " " + location.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ") + " ";
+        for (Map.Entry<String, Region> alias : ALIASES.entrySet()) {
+            if (text.contains(" " + alias.getKey() + " ")) {
+                return Optional.of(alias.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param name A region name as stored on attractions.
+     * @return The region with that exact name (ignoring case), or empty.
+     */
+    public static Optional<Region> byName(String name) {
+        if (name == null) return Optional.empty();
+        for (Region region : REGIONS) {
+            if (region.getName().equalsIgnoreCase(name.trim())) {
+                return Optional.of(region);
+            }
+        }
+        return resolve(name);
+    }
+
+    /**
+     * @return The region whose centre is closest to the given point.
+     */
+    public static Region nearest(double latitude, double longitude) {
+        Region best = REGIONS.get(0);
+        double bestDistance = Double.MAX_VALUE;
+        for (Region region : REGIONS) {
+            double distance = distanceKm(latitude, longitude, region.getLatitude(), region.getLongitude());
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = region;
+            }
+        }
+        return best;
+    }
+
+    public static List<Region> getRegions() {
+        return Collections.unmodifiableList(REGIONS);
+    }
+
+    /**
+     * Great-circle distance between two points.
+     * @return The distance in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
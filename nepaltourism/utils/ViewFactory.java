@@ -0,0 +1,263 @@
+package com.example.nepaltourism.utils;
+
+import com.example.nepaltourism.diagnostics.Metrics;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the app's screens and dialogs, keeping one freshly loaded copy of each ready so that
+ * opening it only has to wire up the controller.
+ * <p>
+ * A loaded view cannot be shown twice (nodes have one parent, controllers keep state), so what
+ * is cached is a spare: {@link #prewarm} loads a view in the background and {@link #load}
+ * hands out the spare if there is one and starts loading the next. Without a spare it loads
+ * on the spot, as before. Spares are tied to the current language, since controllers set some
+ * of their text when they are created. The FXML locations and the stylesheet are looked up
+ * once; the resource bundles come from {@link LanguageManager#bundle}, which caches them.
+ * <p>
+ * A spare holds the view's whole scene graph and controller until it is used; for a dashboard
+ * that is every tab, table and chart. Dashboards are therefore opened with
+ * {@link #loadWithoutSpare}, so the one in use is not shadowed by a copy nobody will open until
+ * the next login, and prewarming only loads views that have neither a spare nor a load in
+ * progress.
+ * <p>
+ * Views are built off the FX thread, which JavaFX allows for nodes not yet in a shown window;
+ * a view that turns out to need the FX thread is prewarmed there instead, when it is idle.
+ */
+public final class ViewFactory {
+
+    private static final Logger logger = Logger.getLogger(ViewFactory.class.getName());
+
+    public static final String STYLESHEET = "/css/styles.css";
+
+    public static final String LOGIN = "/fxml/login.fxml";
+    public static final String SIGNUP = "/fxml/signup.fxml";
+    public static final String TOURIST_DASHBOARD = "/fxml/tourist-dashboard.fxml";
+    public static final String GUIDE_DASHBOARD = "/fxml/guide-dashboard.fxml";
+    public static final String ADMIN_DASHBOARD = "/fxml/admin-dashboard.fxml";
+    public static final String BOOKING_DIALOG = "/fxml/booking-dialog.fxml";
+    public static final String EMERGENCY_DIALOG = "/fxml/emergency-dialog.fxml";
+    public static final String USER_FORM_DIALOG = "/fxml/user-form-dialog.fxml";
+    public static final String ATTRACTION_FORM_DIALOG = "/fxml/attraction-form-dialog.fxml";
+
+    private static final Map<String, URL> locations = new ConcurrentHashMap<>();
+    private static final Map<Key, View<?>> spares = new ConcurrentHashMap<>();
+    private static final Set<Key> loading = ConcurrentHashMap.newKeySet();
+    // Views whose controllers or controls must be created on the FX thread
+    private static final Set<String> fxThreadOnly = ConcurrentHashMap.newKeySet();
+    private static volatile String stylesheet;
+
+    // One thread: prewarming is a background nicety and should not compete with the dashboards' loaders
+    private static final ExecutorService PREWARMER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "view-prewarmer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private ViewFactory() {
+    }
+
+    /**
+     * A loaded view and its controller.
+     * @param <C> The controller's type.
+     */
+    public static final class View<C> {
+        private final Parent root;
+        private final C controller;
+
+        private View(Parent root, C controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() {
+            return root;
+        }
+
+        public C getController() {
+            return controller;
+        }
+
+        /**
+         * @return A new scene showing the view, styled with the app's stylesheet.
+         */
+        public Scene createScene() {
+            Scene scene = new Scene(root);
+            scene.getStylesheets().add(stylesheet());
+            return scene;
+        }
+    }
+
+    /**
+     * Loads a view whose text comes from {@link LanguageManager} rather than the FXML.
+     * @param fxml E.g. {@link #BOOKING_DIALOG}.
+     */
+    public static <C> View<C> load(String fxml) throws IOException {
+        return load(fxml, null);
+    }
+
+    /**
+     * @param fxml E.g. {@link #LOGIN}.
+     * @param locale The language of the FXML's {@code %key} text, or null if it has none.
+     * @return The spare copy if one is ready, otherwise a newly loaded one; either way a
+     *         replacement spare starts loading in the background.
+     */
+    public static <C> View<C> load(String fxml, Locale locale) throws IOException {
+        Key key = new Key(fxml, locale, LanguageManager.getCurrentLocale());
+        View<C> view = take(key);
+        prewarm(key);
+        return view;
+    }
+
+    /**
+     * Like {@link #load(String)}, but does not load another spare afterwards: for views opened
+     * at most once per login, such as the dashboards, which are prewarmed again from the login
+     * screen.
+     */
+    public static <C> View<C> loadWithoutSpare(String fxml) throws IOException {
+        return take(new Key(fxml, null, LanguageManager.getCurrentLocale()));
+    }
+
+    /**
+     * Loads a spare of each view in the background, e.g. the dialogs a dashboard can open.
+     * Views that already have a spare, or are already loading one, are left alone.
+     */
+    public static void prewarm(String... fxml) {
+        for (String path : fxml) {
+            prewarm(new Key(path, null, LanguageManager.getCurrentLocale()));
+        }
+    }
+
+    /**
+     * Loads a spare of a view whose FXML uses {@code %key} text in the given language, unless
+     * it already has one or is loading one.
+     */
+    public static void prewarm(String fxml, Locale locale) {
+        prewarm(new Key(fxml, locale, LanguageManager.getCurrentLocale()));
+    }
+
+    /**
+     * @return The app's stylesheet, as a URL a scene accepts.
+     */
+    public static String stylesheet() {
+        String url = stylesheet;
+        if (url == null) {
+            url = location(STYLESHEET).toExternalForm();
+            stylesheet = url;
+        }
+        return url;
+    }
+
+    private static void prewarm(Key key) {
+        // Spares in a language no longer shown would never be used
+        spares.keySet().removeIf(k -> !k.language.equals(key.language));
+        if (spares.containsKey(key) || !loading.add(key)) {
+            return;
+        }
+        Runnable task = () -> {
+            boolean retryOnFxThread = false;
+            try {
+                // The language may have changed while this waited
+                if (key.language.equals(LanguageManager.getCurrentLocale())) {
+                    spares.put(key, create(key));
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!Platform.isFxApplicationThread() && fxThreadOnly.add(key.fxml)) {
+                    logger.log(Level.FINE, "Could not prewarm " + key.fxml + " off the FX thread, trying on it", e);
+                    retryOnFxThread = true;
+                } else {
+                    logger.log(Level.WARNING, "Could not prewarm " + key.fxml, e);
+                }
+            } finally {
+                loading.remove(key);
+            }
+            if (retryOnFxThread) {
+                prewarm(key);
+            }
+        };
+        if (fxThreadOnly.contains(key.fxml)) {
+            Platform.runLater(task);
+        } else {
+            PREWARMER.execute(task);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> View<C> take(Key key) throws IOException {
+        View<C> view = (View<C>) spares.remove(key);
+        if (view != null) {
+            Metrics.counter("ui.view.spare.hit").increment();
+            return view;
+        }
+        Metrics.counter("ui.view.spare.miss").increment();
+        Metrics.Timer timer = Metrics.time("ui.view.load");
+        try {
+            return (View<C>) create(key);
+        } finally {
+            timer.close();
+        }
+    }
+
+    private static View<?> create(Key key) throws IOException {
+        FXMLLoader loader = key.locale != null
+                ? new FXMLLoader(location(key.fxml), LanguageManager.bundle(key.locale))
+                : new FXMLLoader(location(key.fxml));
+        Parent root = loader.load();
+        return new View<>(root, loader.getController());
+    }
+
+    private static URL location(String resource) {
+        return locations.computeIfAbsent(resource, r -> {
+            URL url = ViewFactory.class.getResource(r);
+            if (url == null) {
+                throw new IllegalArgumentException("Missing resource " + r);
+            }
+            return url;
+        });
+    }
+
+    /**
+     * A view as loaded in one language: the FXML's bundle language (if any) and the language
+     * the controllers saw.
+     */
+    private static final class Key {
+        final String fxml;
+        final Locale locale;
+        final Locale language;
+
+        Key(String fxml, Locale locale, Locale language) {
+            this.fxml = fxml;
+            this.locale = locale;
+            this.language = language;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return fxml.equals(other.fxml) && Objects.equals(locale, other.locale) && language.equals(other.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fxml, locale, language);
+        }
+    }
+}